@@ -1,6 +1,11 @@
 package com.project.anesu.ecommerce.ordermanagementservice.controller;
 
-import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryReturnFailureException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.IdempotencyKeyReusedException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidOrderException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidPageRequestException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryUnavailableException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.TooManySubscribersException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.ValidationFailedException;
 import java.util.Map;
 import org.springframework.http.HttpStatus;
@@ -26,17 +31,51 @@ public class OrderControllerAdvice {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
   }
 
+  @ExceptionHandler(InvalidOrderException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidOrderException(InvalidOrderException ex) {
+    Map<String, String> errorResponse = Map.of("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+  }
+
+  @ExceptionHandler(InvalidPageRequestException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidPageRequestException(
+      InvalidPageRequestException ex) {
+    Map<String, String> errorResponse = Map.of("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+  }
+
+  @ExceptionHandler(OrderConflictException.class)
+  public ResponseEntity<Map<String, String>> handleOrderConflictException(
+      OrderConflictException ex) {
+    Map<String, String> errorResponse = Map.of("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+  }
+
+  @ExceptionHandler(IdempotencyKeyReusedException.class)
+  public ResponseEntity<Map<String, String>> handleIdempotencyKeyReusedException(
+      IdempotencyKeyReusedException ex) {
+    Map<String, String> errorResponse = Map.of("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+  }
+
   @ExceptionHandler(RestClientException.class)
   public ResponseEntity<Map<String, String>> handleRestClientException(RestClientException ex) {
     Map<String, String> errorResponse = Map.of("message", ex.getMessage());
     return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
   }
 
-  @ExceptionHandler(InventoryReturnFailureException.class)
-  public ResponseEntity<Map<String, String>> handleRestClientException(
-      InventoryReturnFailureException ex) {
+  @ExceptionHandler(InventoryUnavailableException.class)
+  public ResponseEntity<Map<String, String>> handleInventoryUnavailableException(
+      InventoryUnavailableException ex) {
     Map<String, String> errorResponse = Map.of("message", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+  }
+
+  @ExceptionHandler(TooManySubscribersException.class)
+  public ResponseEntity<Map<String, String>> handleTooManySubscribersException(
+      TooManySubscribersException ex) {
+    Map<String, String> errorResponse = Map.of("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
   }
 
   @ExceptionHandler(HttpClientErrorException.class)
@@ -4,11 +4,13 @@ import static com.project.anesu.ecommerce.ordermanagementservice.controller.cust
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
 import com.project.anesu.ecommerce.ordermanagementservice.model.CustomerService;
-import java.util.List;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.ETags;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @AllArgsConstructor
@@ -36,15 +38,23 @@ public class CustomerController {
   }
 
   @GetMapping(GET_CUSTOMER_BY_ID)
-  public Customer getCustomerById(@PathVariable Long customerId) {
+  public ResponseEntity<Customer> getCustomerById(
+      @PathVariable Long customerId, WebRequest webRequest) {
 
-    return customerService.getCustomerById(customerId);
+    Customer customer = customerService.getCustomerById(customerId);
+    String eTag = ETags.of(customer.getId(), customer.getVersion(), customer.getSavedAddresses());
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(eTag).body(customer);
   }
 
   @GetMapping(GET_ALL_CUSTOMERS)
-  public List<Customer> getAllCustomers() {
+  public KeysetPage<Customer> getCustomers(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
 
-    return customerService.getAllCustomers();
+    return customerService.getCustomers(cursor, limit);
   }
 
   @DeleteMapping(DELETE_CUSTOMER)
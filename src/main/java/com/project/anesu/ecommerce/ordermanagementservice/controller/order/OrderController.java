@@ -2,32 +2,80 @@ package com.project.anesu.ecommerce.ordermanagementservice.controller.order;
 
 import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkCancellationRequest;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkCancellationResult;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkTransitionRequest;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkTransitionResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderCreationResult;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.ChangeFeedPage;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
 import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import com.project.anesu.ecommerce.ordermanagementservice.service.cache.TerminalOrderJsonCache;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidOrderException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.export.OrderExportProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.export.OrderExporter;
+import com.project.anesu.ecommerce.ordermanagementservice.service.idempotency.IdempotencyStore;
+import com.project.anesu.ecommerce.ordermanagementservice.service.stream.OrderStatusBroadcaster;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.ETags;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @AllArgsConstructor
 @RequestMapping(LANDING_PAGE)
 public class OrderController {
 
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
   private final OrderService orderService;
+  private final IdempotencyStore idempotencyStore;
+  private final OrderExporter orderExporter;
+  private final OrderExportProperties orderExportProperties;
+  private final TerminalOrderJsonCache terminalOrderJsonCache;
+  private final ObjectMapper objectMapper;
+  private final OrderStatusBroadcaster orderStatusBroadcaster;
 
   @PostMapping(CREATE_ORDER)
-  public ResponseEntity<Order> createOrder(@RequestBody Order order) {
+  public ResponseEntity<?> createOrder(
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+      @RequestBody Order order) {
 
-    Order createdOrder = orderService.createOrder(order, order.getOrderItem());
+    if (idempotencyKey == null) {
+      return createOrder(order);
+    }
 
-    if (createdOrder != null) {
-      return ResponseEntity.ok().body(createdOrder);
-    } else {
-      return ResponseEntity.badRequest().build();
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+      throw new InvalidOrderException(
+          "Idempotency-Key must contain 1 to %d characters.".formatted(MAX_IDEMPOTENCY_KEY_LENGTH));
     }
+
+    return idempotencyStore.execute(
+        idempotencyKey, toJson(order), () -> toJsonResponse(createOrder(order)));
+  }
+
+  @PostMapping(CREATE_ORDERS_BATCH)
+  public ResponseEntity<List<OrderCreationResult>> createOrders(@RequestBody List<Order> orders) {
+
+    return ResponseEntity.ok().body(orderService.createOrders(orders));
   }
 
   @PostMapping(ADD_DELIVERY_ADDRESS)
@@ -38,15 +86,80 @@ public class OrderController {
   }
 
   @GetMapping(GET_ALL_ORDERS)
-  public List<Order> getAllOrders() {
+  public KeysetPage<OrderView> getOrders(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+
+    return orderService.getOrders(cursor, limit);
+  }
+
+  @GetMapping(SEARCH_ORDERS)
+  public KeysetPage<OrderView> searchOrders(
+      @RequestParam(required = false) Long customerId,
+      @RequestParam(required = false) OrderStatus orderStatus,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+
+    OrderSearchCriteria criteria = new OrderSearchCriteria(customerId, orderStatus, from, to);
+    return orderService.searchOrders(criteria, cursor, limit);
+  }
+
+  @GetMapping(ORDER_CHANGES)
+  public ChangeFeedPage<OrderView> getOrderChanges(
+      @RequestParam(required = false) String since, @RequestParam(required = false) Integer limit) {
+
+    return orderService.getChanges(since, limit);
+  }
 
-    return orderService.getAllOrders();
+  /**
+   * Streams all orders as newline-delimited JSON on an async thread, with its own timeout, as the
+   * export can run far longer than a regular request.
+   */
+  @GetMapping(EXPORT_ORDERS)
+  public WebAsyncTask<Void> exportOrders(HttpServletResponse response) {
+
+    return new WebAsyncTask<>(
+        orderExportProperties.getTimeout().toMillis(),
+        () -> {
+          response.setContentType(NDJSON.toString());
+          orderExporter.export(response.getOutputStream());
+          return null;
+        });
   }
 
+  /**
+   * Streams committed status changes as Server-Sent Events, optionally only those of one customer
+   * or of the given orders.
+   */
+  @GetMapping(value = STREAM_ORDER_STATUS, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamOrderStatus(
+      @RequestParam(required = false) Long customerId,
+      @RequestParam(required = false) List<Long> orderIds) {
+
+    return orderStatusBroadcaster.subscribe(customerId, orderIds);
+  }
+
+  /**
+   * Returns the order with a strong ETag from its version and those of its delivery addresses. A
+   * matching {@code If-None-Match} is answered with 304 before anything is serialized; delivered
+   * and cancelled orders are served from their cached JSON. ETag and body are built from the same
+   * read of the order, so they always describe the same version of it.
+   */
   @GetMapping(GET_ORDER_BY_ID)
-  public Order getOrderById(@PathVariable Long orderId) {
+  public ResponseEntity<byte[]> getOrderById(@PathVariable Long orderId, WebRequest webRequest) {
 
-    return orderService.getOrderById(orderId);
+    Order order = orderService.getOrderById(orderId);
+    String eTag = ETags.of(order.getId(), order.getVersion(), order.getDeliveryAddress());
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+
+    byte[] body = terminalOrderJsonCache.get(order, eTag, () -> toJson(OrderView.of(order)));
+    return ResponseEntity.ok().eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(body);
   }
 
   @PutMapping(PROCESS_ORDER)
@@ -67,6 +180,18 @@ public class OrderController {
     return orderService.markAsDeliveredAfterSuccessfulDelivery(orderId);
   }
 
+  @PutMapping(BULK_TRANSITION)
+  public BulkTransitionResult transitionOrders(@RequestBody BulkTransitionRequest request) {
+
+    return orderService.transitionOrders(request.getOrderIds(), request.getTransition());
+  }
+
+  @PutMapping(BULK_CANCELLATION)
+  public BulkCancellationResult cancelOrders(@RequestBody BulkCancellationRequest request) {
+
+    return orderService.cancelOrders(request.getOrderIds(), request.getReason());
+  }
+
   @PutMapping(CANCEL_ORDER)
   public ResponseEntity<Order> cancelOrder(@PathVariable Long orderId, @RequestBody String reason) {
 
@@ -87,4 +212,41 @@ public class OrderController {
       return ResponseEntity.notFound().build();
     }
   }
+
+  private ResponseEntity<Order> createOrder(Order order) {
+
+    Order createdOrder = orderService.createOrder(order, order.getOrderItem());
+
+    if (createdOrder != null) {
+      return ResponseEntity.ok().body(createdOrder);
+    } else {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  private byte[] toJson(OrderView order) {
+    try {
+      return objectMapper.writeValueAsBytes(order);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private byte[] toJson(Order order) {
+    try {
+      return objectMapper.writeValueAsBytes(order);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private ResponseEntity<String> toJsonResponse(ResponseEntity<Order> response) {
+    try {
+      return ResponseEntity.status(response.getStatusCode())
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(objectMapper.writeValueAsString(response.getBody()));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 }
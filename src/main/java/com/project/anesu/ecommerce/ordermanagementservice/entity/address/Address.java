@@ -9,16 +9,25 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(
+    indexes = {
+      @Index(name = "idx_address_order_id", columnList = "order_id"),
+      @Index(name = "idx_address_customer_id", columnList = "customer_id")
+    })
 public class Address {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_seq")
+  @SequenceGenerator(name = "address_seq", sequenceName = "address_seq", allocationSize = 50)
   private Long id;
 
   private String streetName;
@@ -27,6 +36,12 @@ public class Address {
   private String state;
   private String zipCode;
 
+  /**
+   * Optimistic-locking version. Part of the ETag of the owning order or customer, whose own version
+   * does not change when only one of its addresses does.
+   */
+  @Version @JsonIgnore private Long version;
+
   @ManyToOne
   @JsonIgnore
   @JoinColumn(name = "customer_id")
@@ -0,0 +1,19 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.address;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Read-only projection of an order's delivery {@link Address}. */
+@Getter
+@AllArgsConstructor
+public class AddressView {
+
+  @JsonIgnore private final Long orderId;
+  private final Long id;
+  private final String streetName;
+  private final String streetNumber;
+  private final String city;
+  private final String state;
+  private final String zipCode;
+}
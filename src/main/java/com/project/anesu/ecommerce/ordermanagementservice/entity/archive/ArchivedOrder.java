@@ -0,0 +1,45 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.archive;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A delivered or cancelled order moved out of {@code customer_order}. The order with its items and
+ * delivery addresses is kept as gzip-compressed JSON; the table is only ever read by order id, so
+ * the primary key is its only index.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "customer_order_archive")
+public class ArchivedOrder implements Persistable<Long> {
+
+  /** Id of the archived order. */
+  @Id private Long id;
+
+  /** Version of the order when it was archived; it cannot change afterwards. */
+  private Long version;
+
+  private LocalDateTime archivedAt;
+
+  @Lob
+  @Column(nullable = false)
+  private byte[] payload;
+
+  /** Archived orders are only ever inserted, so saving them never needs a lookup first. */
+  @Override
+  public boolean isNew() {
+    return true;
+  }
+}
@@ -1,5 +1,6 @@
 package com.project.anesu.ecommerce.ordermanagementservice.entity.customer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
 import jakarta.persistence.*;
 import java.time.LocalDate;
@@ -9,8 +10,11 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,9 +22,16 @@ import lombok.Setter;
 public class Customer {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+  @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
   private Long id;
 
+  /**
+   * Optimistic-locking version, incremented on every change of the customer row; part of the ETag
+   * of customer reads.
+   */
+  @Version @JsonIgnore private Long version;
+
   private String firstName;
   private String lastName;
   private String email;
@@ -28,5 +39,6 @@ public class Customer {
   private LocalDate birthDate;
 
   @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private List<Address> savedAddresses = new ArrayList<>();
 }
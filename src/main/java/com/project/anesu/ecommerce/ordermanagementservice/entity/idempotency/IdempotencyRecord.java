@@ -0,0 +1,45 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.idempotency;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Response of a request that was sent with an {@code Idempotency-Key} header. The row is inserted
+ * with status code {@value #IN_PROGRESS} when the request starts and gets its response once the
+ * request succeeds.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "idempotency_record",
+    indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+
+  public static final int IN_PROGRESS = 0;
+
+  @Id
+  @Column(name = "idempotency_key", length = 255)
+  private String key;
+
+  /** SHA-256 of the request body, to recognise a key that is reused for another request. */
+  @Column(length = 64)
+  private String requestHash;
+
+  private int statusCode;
+
+  @Lob private String responseBody;
+
+  private LocalDateTime createdAt;
+  private LocalDateTime expiresAt;
+
+  public boolean isInProgress() {
+    return statusCode == IN_PROGRESS;
+  }
+}
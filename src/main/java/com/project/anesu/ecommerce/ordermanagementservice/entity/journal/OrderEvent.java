@@ -0,0 +1,25 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.journal;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** One order lifecycle event as read back from the order journal. */
+@Getter
+@AllArgsConstructor
+public class OrderEvent {
+
+  /** Position of the event in the journal; replaying from it starts with this event. */
+  private final long offset;
+
+  private final OrderEventType type;
+  private final long orderId;
+  private final Instant timestamp;
+
+  /** Status of the order after the event, or {@code null} for address changes. */
+  private final OrderStatus orderStatus;
+
+  /** Cancellation reason or changed address, or {@code null}. */
+  private final String detail;
+}
@@ -0,0 +1,28 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Kinds of order lifecycle events written to the order journal. Stored as their {@link #getCode()
+ * code}; codes must never be changed or reused.
+ */
+@Getter
+@AllArgsConstructor
+public enum OrderEventType {
+  CREATED(1),
+  STATUS_CHANGED(2),
+  ADDRESS_CHANGED(3),
+  CANCELLED(4);
+
+  private final int code;
+
+  public static OrderEventType fromCode(int code) {
+    for (OrderEventType type : values()) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("Unknown order event type code " + code);
+  }
+}
@@ -0,0 +1,16 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Request body of the bulk cancellation endpoint; the reason is stored on every order. */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkCancellationRequest {
+
+  private List<Long> orderIds;
+  private String reason;
+}
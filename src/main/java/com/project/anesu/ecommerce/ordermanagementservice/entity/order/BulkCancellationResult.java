@@ -0,0 +1,17 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk cancellation: the orders that were cancelled, and the orders that were left as
+ * they are because they do not exist or are already delivered or cancelled.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkCancellationResult {
+
+  private final List<Long> cancelled;
+  private final List<Long> rejected;
+}
@@ -0,0 +1,16 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Request body of the bulk status transition endpoint. */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkTransitionRequest {
+
+  private List<Long> orderIds;
+  private OrderTransition transition;
+}
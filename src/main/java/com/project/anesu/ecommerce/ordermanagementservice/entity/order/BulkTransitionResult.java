@@ -0,0 +1,18 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk status transition: the orders that were moved, and the orders that were left as
+ * they are because they do not exist or are not in the status the transition starts from.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkTransitionResult {
+
+  private final OrderTransition transition;
+  private final List<Long> transitioned;
+  private final List<Long> rejected;
+}
@@ -1,5 +1,6 @@
 package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
 import jakarta.persistence.*;
@@ -9,32 +10,98 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "customer_order")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@NamedEntityGraph(name = Order.WITH_ORDER_ITEMS, attributeNodes = @NamedAttributeNode("orderItem"))
+@Table(
+    name = "customer_order",
+    indexes = {
+      @Index(name = "idx_customer_order_order_date_id", columnList = "orderDate, id"),
+      @Index(
+          name = "idx_customer_order_customer_id_order_date_id",
+          columnList = "customerId, orderDate, id"),
+      @Index(
+          name = "idx_customer_order_order_status_order_date_id",
+          columnList = "orderStatus, orderDate, id"),
+      @Index(name = "idx_customer_order_change_sequence", columnList = "changeSequence")
+    })
 public class Order {
 
+  /** Database sequence that numbers the changes of all orders, see {@link #changeSequence}. */
+  public static final String CHANGE_SEQUENCE = "customer_order_change_seq";
+
+  /**
+   * Loads the items together with the order. The delivery addresses are left to batch fetching:
+   * fetching both lists in one join is rejected by Hibernate and would multiply the rows anyway.
+   */
+  public static final String WITH_ORDER_ITEMS = "Order.withOrderItems";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_order_seq")
+  @SequenceGenerator(
+      name = "customer_order_seq",
+      sequenceName = "customer_order_seq",
+      allocationSize = 50)
   private Long id;
 
+  /**
+   * Optimistic-locking version, incremented on every change of the order row; part of the ETag of
+   * order reads.
+   */
+  @Version @JsonIgnore private Long version;
+
+  /**
+   * Position of the latest change of this order in the change feed. Drawn from {@link
+   * #CHANGE_SEQUENCE} by every insert and update of the order row, so it only ever grows.
+   */
+  @JsonIgnore
+  @Generated(
+      event = {EventType.INSERT, EventType.UPDATE},
+      sql = "nextval('" + CHANGE_SEQUENCE + "')")
+  private Long changeSequence;
+
   private Long customerId;
   private double totalPrice;
 
-  @Enumerated(EnumType.STRING)
+  @Convert(converter = OrderStatusConverter.class)
   private OrderStatus orderStatus;
 
   private LocalDateTime orderDate;
+
+  /**
+   * When the order last moved to another status, or was placed. Decides when a delivered or
+   * cancelled order is old enough to be archived.
+   */
+  @JsonIgnore private LocalDateTime statusChangedAt;
+
   private String cancellationReason;
 
+  /**
+   * Marks the order as changed although none of its own columns changed, e.g. when one of its
+   * delivery addresses was edited: the next flush updates the order row, which increments the
+   * version and draws a new {@link #changeSequence}.
+   */
+  public void markChanged() {
+    changeSequence = null;
+  }
+
   @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private List<OrderItem> orderItem;
 
   @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @JsonManagedReference("order-deliveryAddress")
   private List<Address> deliveryAddress;
 }
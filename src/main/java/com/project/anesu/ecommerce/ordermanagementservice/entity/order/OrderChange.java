@@ -0,0 +1,13 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** An order and the position of its latest change in the change feed. */
+@Getter
+@AllArgsConstructor
+public class OrderChange {
+
+  private final Long orderId;
+  private final Long changeSequence;
+}
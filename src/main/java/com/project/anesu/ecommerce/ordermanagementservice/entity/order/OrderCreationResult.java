@@ -0,0 +1,23 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Outcome of a single order submitted through the batch creation endpoint. */
+@Getter
+@AllArgsConstructor
+public class OrderCreationResult {
+
+  private final int index;
+  private final Long orderId;
+  private final boolean created;
+  private final String message;
+
+  public static OrderCreationResult created(int index, Long orderId) {
+    return new OrderCreationResult(index, orderId, true, null);
+  }
+
+  public static OrderCreationResult failed(int index, String message) {
+    return new OrderCreationResult(index, null, false, message);
+  }
+}
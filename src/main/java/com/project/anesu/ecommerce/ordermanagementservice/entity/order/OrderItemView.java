@@ -0,0 +1,16 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Read-only projection of an {@link OrderItem}. */
+@Getter
+@AllArgsConstructor
+public class OrderItemView {
+
+  @JsonIgnore private final Long orderId;
+  private final Long id;
+  private final Long productId;
+  private final int quantity;
+}
@@ -0,0 +1,34 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Lease of a placed order by a background processor run. Kept apart from the order row, so that
+ * claiming and releasing orders neither changes their version and change feed position nor evicts
+ * them from the second-level cache.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_lease")
+public class OrderLease {
+
+  @Id private Long orderId;
+
+  /** Background processor run that holds the lease. */
+  @Column(length = 64)
+  private String claimedBy;
+
+  /** End of the lease; once it has passed, another processor run may claim the order. */
+  private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,19 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Filters of the order search. Every filter is optional; {@code from} is inclusive and {@code to}
+ * is exclusive.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderSearchCriteria {
+
+  private final Long customerId;
+  private final OrderStatus orderStatus;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+}
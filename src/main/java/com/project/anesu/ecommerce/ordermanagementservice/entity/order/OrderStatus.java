@@ -1,9 +1,34 @@
 package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Status of an order. Stored as its {@link #getCode() code} rather than its name; codes must never
+ * be changed or reused.
+ */
+@Getter
+@AllArgsConstructor
 public enum OrderStatus {
-  ORDER_PLACED,
-  PROCESSING,
-  OUT_FOR_DELIVERY,
-  DELIVERED,
-  CANCELLED
+  ORDER_PLACED(1),
+  PROCESSING(2),
+  OUT_FOR_DELIVERY(3),
+  DELIVERED(4),
+  CANCELLED(5);
+
+  private final int code;
+
+  /** Whether an order in this status can no longer change. */
+  public boolean isTerminal() {
+    return this == DELIVERED || this == CANCELLED;
+  }
+
+  public static OrderStatus fromCode(int code) {
+    for (OrderStatus status : values()) {
+      if (status.code == code) {
+        return status;
+      }
+    }
+    throw new IllegalArgumentException("Unknown order status code " + code);
+  }
 }
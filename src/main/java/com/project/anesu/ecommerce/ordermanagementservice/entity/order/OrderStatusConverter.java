@@ -0,0 +1,19 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Stores an {@link OrderStatus} as its code in a {@code smallint} column. */
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Short> {
+
+  @Override
+  public Short convertToDatabaseColumn(OrderStatus orderStatus) {
+    return orderStatus == null ? null : (short) orderStatus.getCode();
+  }
+
+  @Override
+  public OrderStatus convertToEntityAttribute(Short code) {
+    return code == null ? null : OrderStatus.fromCode(code);
+  }
+}
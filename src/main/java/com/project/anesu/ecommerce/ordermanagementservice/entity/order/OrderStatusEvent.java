@@ -0,0 +1,17 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A committed status change of an order, as pushed to subscribers of the order stream. */
+@Getter
+@AllArgsConstructor
+public class OrderStatusEvent {
+
+  private final Long orderId;
+  private final Long customerId;
+  private final OrderStatus previousStatus;
+  private final OrderStatus orderStatus;
+  private final LocalDateTime changedAt;
+}
@@ -0,0 +1,19 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Status changes that can be applied to many orders at once. Cancellation is not one of them: it
+ * also has to return the inventory of every order and has its own bulk endpoint.
+ */
+@Getter
+@AllArgsConstructor
+public enum OrderTransition {
+  PROCESS(OrderStatus.ORDER_PLACED, OrderStatus.PROCESSING),
+  SEND_OUT_FOR_DELIVERY(OrderStatus.PROCESSING, OrderStatus.OUT_FOR_DELIVERY),
+  MARK_AS_DELIVERED(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED);
+
+  private final OrderStatus from;
+  private final OrderStatus to;
+}
@@ -1,5 +1,6 @@
 package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
 
+import java.net.URI;
 import lombok.Getter;
 
 @Getter
@@ -13,4 +14,8 @@ public enum OrderValidationEndpoints {
   OrderValidationEndpoints(String url) {
     this.url = url;
   }
+
+  public String getPath() {
+    return URI.create(url).getPath();
+  }
 }
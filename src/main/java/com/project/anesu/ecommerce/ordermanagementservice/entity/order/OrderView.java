@@ -0,0 +1,86 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.order;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.AddressView;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only projection of an {@link Order} with its items and delivery addresses. Serializes to the
+ * same JSON as the entity, but is built from plain query results, so reading it never triggers lazy
+ * loading.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderView {
+
+  private final Long id;
+  private final Long customerId;
+  private final double totalPrice;
+  private final OrderStatus orderStatus;
+  private final LocalDateTime orderDate;
+  private final String cancellationReason;
+  private final List<OrderItemView> orderItem;
+  private final List<AddressView> deliveryAddress;
+
+  /** Used by the projection queries; items and addresses are loaded with separate queries. */
+  public OrderView(
+      Long id,
+      Long customerId,
+      double totalPrice,
+      OrderStatus orderStatus,
+      LocalDateTime orderDate,
+      String cancellationReason) {
+    this(
+        id,
+        customerId,
+        totalPrice,
+        orderStatus,
+        orderDate,
+        cancellationReason,
+        List.of(),
+        List.of());
+  }
+
+  /** Projects an order that is already fully loaded, such as one read from the archive. */
+  public static OrderView of(Order order) {
+    return new OrderView(
+        order.getId(),
+        order.getCustomerId(),
+        order.getTotalPrice(),
+        order.getOrderStatus(),
+        order.getOrderDate(),
+        order.getCancellationReason(),
+        order.getOrderItem().stream()
+            .map(
+                item ->
+                    new OrderItemView(
+                        order.getId(), item.getId(), item.getProductId(), item.getQuantity()))
+            .toList(),
+        order.getDeliveryAddress().stream()
+            .map(
+                address ->
+                    new AddressView(
+                        order.getId(),
+                        address.getId(),
+                        address.getStreetName(),
+                        address.getStreetNumber(),
+                        address.getCity(),
+                        address.getState(),
+                        address.getZipCode()))
+            .toList());
+  }
+
+  public OrderView withDetails(List<OrderItemView> orderItem, List<AddressView> deliveryAddress) {
+    return new OrderView(
+        id,
+        customerId,
+        totalPrice,
+        orderStatus,
+        orderDate,
+        cancellationReason,
+        orderItem,
+        deliveryAddress);
+  }
+}
@@ -0,0 +1,60 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.outbox;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Inventory that has to be returned to the Inventory Service for a cancelled order. Rows are
+ * written in the same transaction as the cancellation and deleted once the return was accepted.
+ * Rows the Inventory Service rejects for good, or that failed too often, are dead-lettered: they
+ * are kept with {@link #deadLetteredAt} set and no next attempt.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "inventory_return_outbox",
+    indexes =
+        @Index(name = "idx_inventory_return_outbox_next_attempt", columnList = "nextAttemptAt, id"))
+public class InventoryReturnOutbox {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_return_outbox_seq")
+  @SequenceGenerator(
+      name = "inventory_return_outbox_seq",
+      sequenceName = "inventory_return_outbox_seq",
+      allocationSize = 50)
+  private Long id;
+
+  /** The cancelled order; null for quantities summed over the orders of a bulk cancellation. */
+  private Long orderId;
+
+  private Long productId;
+  private int quantity;
+
+  private LocalDateTime createdAt;
+  private int attempts;
+
+  /** When the row is due to be sent (again); null once it was dead-lettered. */
+  private LocalDateTime nextAttemptAt;
+
+  private LocalDateTime deadLetteredAt;
+
+  public static InventoryReturnOutbox of(Long orderId, Long productId, int quantity) {
+    LocalDateTime now = LocalDateTime.now();
+
+    InventoryReturnOutbox entry = new InventoryReturnOutbox();
+    entry.setOrderId(orderId);
+    entry.setProductId(productId);
+    entry.setQuantity(quantity);
+    entry.setCreatedAt(now);
+    entry.setNextAttemptAt(now);
+    return entry;
+  }
+}
@@ -0,0 +1,19 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.page;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a change feed. Unlike {@link KeysetPage}, {@code nextCursor} is always set: it is
+ * passed back as {@code since} to read the following changes, also after the feed has been read to
+ * the end. {@code hasMore} tells whether further changes are already waiting.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeFeedPage<T> {
+
+  private final List<T> items;
+  private final String nextCursor;
+  private final boolean hasMore;
+}
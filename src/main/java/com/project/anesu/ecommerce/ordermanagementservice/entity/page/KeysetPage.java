@@ -0,0 +1,17 @@
+package com.project.anesu.ecommerce.ordermanagementservice.entity.page;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is passed back to fetch the following
+ * page and is {@code null} on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+  private final List<T> items;
+  private final String nextCursor;
+}
@@ -2,8 +2,9 @@ package com.project.anesu.ecommerce.ordermanagementservice.model;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.CustomerNotFoundException;
-import java.util.List;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.KeysetPagination;
 
 /**
  * Service interface for managing customer-related operations within the Order Management Service.
@@ -41,11 +42,14 @@ public interface CustomerService {
   Customer getCustomerById(Long customerId);
 
   /**
-   * Retrieves a list of all customers.
+   * Retrieves one page of customers, ordered by ID.
    *
-   * @return a list of all {@link Customer} objects
+   * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+   * @param pageSize the requested number of customers, capped at {@link
+   *     KeysetPagination#MAX_PAGE_SIZE}; {@code null} for the default
+   * @return the customers of the page and the cursor of the next page
    */
-  List<Customer> getAllCustomers();
+  KeysetPage<Customer> getCustomers(String cursor, Integer pageSize);
 
   /**
    * Deletes a customer by their ID.
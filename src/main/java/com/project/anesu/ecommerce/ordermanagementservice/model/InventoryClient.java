@@ -0,0 +1,30 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Client interface for the calls the Order Management Service makes to the Inventory Service.
+ *
+ * <p>Each request is a list of order item entries holding a {@code productId} and a {@code
+ * quantity}.
+ */
+public interface InventoryClient {
+
+  /**
+   * Validates that the requested products are in stock and deducts them from the inventory.
+   *
+   * @param batchOrderRequest the product ids and quantities to deduct
+   * @return the response of the Inventory Service
+   */
+  ResponseEntity<String> validateAndDeduct(List<Map<String, Object>> batchOrderRequest);
+
+  /**
+   * Adds the products of a cancelled order back to the inventory.
+   *
+   * @param batchOrderRequest the product ids and quantities to return
+   * @return the response of the Inventory Service
+   */
+  ResponseEntity<String> returnInventory(List<Map<String, Object>> batchOrderRequest);
+}
@@ -1,9 +1,21 @@
 package com.project.anesu.ecommerce.ordermanagementservice.model;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkCancellationResult;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkTransitionResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderCreationResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderTransition;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.ChangeFeedPage;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidOrderException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidPageRequestException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderNotFoundException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.KeysetPagination;
 import java.util.List;
 
 /**
@@ -22,23 +34,66 @@ public interface OrderService {
    */
   Order createOrder(Order order, List<OrderItem> orderItems);
 
+  /**
+   * Creates several orders at once. Every order is validated on its own, the inventory for all
+   * valid orders is deducted with a single merged request and the accepted orders are persisted in
+   * one batch.
+   *
+   * @param orders the {@link Order} entities to be created, each carrying its own order items
+   * @return one {@link OrderCreationResult} per submitted order, in submission order
+   */
+  List<OrderCreationResult> createOrders(List<Order> orders);
+
   /**
    * Process a pending order by changing its status.
    *
    * @param orderId the ID of the order to process
    * @return the updated {@link Order}
    * @throws OrderNotFoundException if the order does not exist
+   * @throws OrderConflictException if the order is not ORDER_PLACED or keeps changing concurrently
    */
   Order processPendingOrder(Long orderId) throws OrderNotFoundException;
 
-  /** Update order status to OUT_FOR_DELIVERY. */
+  /**
+   * Applies a status transition to many orders at once, with one set-based update per chunk of
+   * order IDs instead of one load and save per order.
+   *
+   * @param orderIds the IDs of the orders to move; duplicates are ignored
+   * @param transition the transition to apply
+   * @return the orders that were moved and the orders that were not found or in the wrong status
+   * @throws InvalidOrderException if no order IDs or no transition are given
+   */
+  BulkTransitionResult transitionOrders(List<Long> orderIds, OrderTransition transition);
+
+  /**
+   * Cancels many orders at once, with set-based updates per chunk of order IDs. The inventory of
+   * all cancelled orders is summed per product and queued for return as one entry per product.
+   *
+   * @param orderIds the IDs of the orders to cancel; duplicates are ignored
+   * @param cancellationReason reason for cancellation, stored on every cancelled order
+   * @return the orders that were cancelled and the orders that were not found, already delivered or
+   *     already cancelled
+   * @throws InvalidOrderException if no order IDs are given
+   */
+  BulkCancellationResult cancelOrders(List<Long> orderIds, String cancellationReason);
+
+  /**
+   * Update order status to OUT_FOR_DELIVERY.
+   *
+   * @throws OrderConflictException if the order is not PROCESSING or keeps changing concurrently
+   */
   Order sendOrderOutForDelivery(Long orderId) throws OrderNotFoundException;
 
-  /** Marks the order as DELIVERED. */
+  /**
+   * Marks the order as DELIVERED.
+   *
+   * @throws OrderConflictException if the order is not OUT_FOR_DELIVERY or keeps changing
+   *     concurrently
+   */
   Order markAsDeliveredAfterSuccessfulDelivery(Long orderId) throws OrderNotFoundException;
 
   /**
-   * Retrieves an order by its ID.
+   * Retrieves an order by its ID. Orders that have been archived are read from the archive.
    *
    * @param orderId the ID of the order to retrieve
    * @return the {@link Order} if found
@@ -47,11 +102,51 @@ public interface OrderService {
   Order getOrderById(Long orderId) throws OrderNotFoundException;
 
   /**
-   * Retrieves all orders.
+   * Retrieves a read-only view of an order, its items and delivery addresses, also for archived
+   * orders.
+   *
+   * @param orderId the ID of the order to retrieve
+   * @return the {@link OrderView} if found
+   * @throws OrderNotFoundException if no order is found with the given ID
+   */
+  OrderView getOrderView(Long orderId) throws OrderNotFoundException;
+
+  /**
+   * Retrieves one page of orders, newest first.
+   *
+   * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+   * @param pageSize the requested number of orders, capped at {@link
+   *     KeysetPagination#MAX_PAGE_SIZE}; {@code null} for the default
+   * @return the orders of the page and the cursor of the next page
+   */
+  KeysetPage<OrderView> getOrders(String cursor, Integer pageSize);
+
+  /**
+   * Retrieves one page of the orders matching the given criteria, newest first.
+   *
+   * @param criteria the customer, status and order date range to filter by
+   * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+   * @param pageSize the requested number of orders, capped at {@link
+   *     KeysetPagination#MAX_PAGE_SIZE}; {@code null} for the default
+   * @return the orders of the page and the cursor of the next page
+   * @throws InvalidPageRequestException if the date range or the cursor is invalid
+   */
+  KeysetPage<OrderView> searchOrders(OrderSearchCriteria criteria, String cursor, Integer pageSize);
+
+  /**
+   * Retrieves the orders changed after the given position of the change feed, in the order of their
+   * latest change. An order that changed several times is returned once, with its current state.
+   * Changes newer than {@code order.changes.settle-time} are held back until transactions that
+   * wrote lower positions have committed.
    *
-   * @return a list of all {@link Order} objects
+   * @param since the {@code nextCursor} of the previous page, or {@code null} to start from the
+   *     first change
+   * @param pageSize the requested number of orders, capped at {@link
+   *     KeysetPagination#MAX_PAGE_SIZE}; {@code null} for the default
+   * @return the changed orders and the cursor to continue from
+   * @throws InvalidPageRequestException if the cursor is invalid
    */
-  List<Order> getAllOrders();
+  ChangeFeedPage<OrderView> getChanges(String since, Integer pageSize);
 
   /**
    * Updates a delivery address for a given order and address ID.
@@ -71,6 +166,8 @@ public interface OrderService {
    * @param orderId the ID of the order to cancel
    * @param cancellationReason reason for cancellation
    * @return the updated {@link Order} with cancellation info
+   * @throws OrderConflictException if the order is already delivered or cancelled, or keeps
+   *     changing concurrently
    */
   Order cancelOrder(Long orderId, String cancellationReason);
 
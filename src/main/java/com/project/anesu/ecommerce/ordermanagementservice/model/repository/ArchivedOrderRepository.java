@@ -0,0 +1,8 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.archive.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {}
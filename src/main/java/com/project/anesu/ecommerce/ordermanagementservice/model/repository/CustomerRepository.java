@@ -1,8 +1,15 @@
 package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+  List<Customer> findByOrderByIdAsc(Limit limit);
+
+  List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -0,0 +1,55 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.idempotency.IdempotencyRecord;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  Optional<IdempotencyRecord> findByKeyAndExpiresAtAfter(String key, LocalDateTime now);
+
+  @Transactional
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+  int deleteExpired(LocalDateTime now);
+
+  /**
+   * Claims the key with a plain insert, so that a key that is already claimed (by this or another
+   * instance) fails on the primary key instead of being merged.
+   *
+   * @throws org.springframework.dao.DataIntegrityViolationException if the key is already claimed
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "insert into IdempotencyRecord (key, requestHash, statusCode, createdAt, expiresAt)"
+          + " values (:key, :requestHash, 0, :createdAt, :expiresAt)")
+  void insertClaim(
+      String key, String requestHash, LocalDateTime createdAt, LocalDateTime expiresAt);
+
+  /** Frees the key when its response expired, or when its request was abandoned while running. */
+  @Transactional
+  @Modifying
+  @Query(
+      "delete from IdempotencyRecord r where r.key = :key and (r.expiresAt <= :now"
+          + " or (r.statusCode = 0 and r.createdAt <= :abandonedBefore))")
+  int deleteExpiredOrAbandoned(String key, LocalDateTime now, LocalDateTime abandonedBefore);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "update IdempotencyRecord r set r.statusCode = :statusCode, r.responseBody = :responseBody"
+          + " where r.key = :key")
+  int complete(String key, int statusCode, String responseBody);
+
+  @Transactional
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.key = :key and r.statusCode = 0")
+  int release(String key);
+}
@@ -0,0 +1,16 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryReturnOutboxRepository
+    extends JpaRepository<InventoryReturnOutbox, Long> {
+
+  List<InventoryReturnOutbox> findByNextAttemptAtLessThanEqualOrderByIdAsc(
+      LocalDateTime now, Limit limit);
+}
@@ -0,0 +1,44 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderLease;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderLeaseRepository extends JpaRepository<OrderLease, Long> {
+
+  @Modifying
+  @Query("delete from OrderLease l where l.claimedUntil < :now")
+  int deleteExpired(LocalDateTime now);
+
+  /**
+   * Leases those of the given orders that are still in the given status and not leased by someone
+   * else. Fails on the primary key if another run leases one of them at the same time.
+   *
+   * @return the number of orders that were leased
+   */
+  @Modifying
+  @Query(
+      "insert into OrderLease (orderId, claimedBy, claimedUntil)"
+          + " select o.id, :claimedBy, :claimedUntil from Order o"
+          + " where o.id in :orderIds and o.orderStatus = :orderStatus"
+          + " and not exists (select 1 from OrderLease l where l.orderId = o.id)")
+  int claim(
+      Collection<Long> orderIds,
+      OrderStatus orderStatus,
+      String claimedBy,
+      LocalDateTime claimedUntil);
+
+  @Query("select l.orderId from OrderLease l where l.claimedBy = :claimedBy order by l.orderId")
+  List<Long> findOrderIdsByClaimedBy(String claimedBy);
+
+  @Modifying
+  @Query("delete from OrderLease l where l.claimedBy = :claimedBy and l.orderId in :orderIds")
+  int release(String claimedBy, Collection<Long> orderIds);
+}
@@ -1,12 +1,167 @@
 package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
 
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.AddressView;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderChange;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItemView;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-  Optional<Order> findByIdAndOrderStatus(Long orderId, OrderStatus status);
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
+
+  String ORDER_VIEW =
+      "new com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView("
+          + "o.id, o.customerId, o.totalPrice, o.orderStatus, o.orderDate, o.cancellationReason)";
+
+  String NEXT_CHANGE_SEQUENCE = "function('nextval', '" + Order.CHANGE_SEQUENCE + "')";
+
+  @Override
+  @EntityGraph(Order.WITH_ORDER_ITEMS)
+  Optional<Order> findById(Long orderId);
+
+  @Query("select " + ORDER_VIEW + " from Order o where o.id = :orderId")
+  Optional<OrderView> findViewById(Long orderId);
+
+  @Query("select " + ORDER_VIEW + " from Order o where o.id in :orderIds order by o.id")
+  List<OrderView> findViewsByIds(Collection<Long> orderIds);
+
+  @Query("select " + ORDER_VIEW + " from Order o order by o.orderDate desc, o.id desc")
+  List<OrderView> findFirstPage(Limit limit);
+
+  @Query(
+      "select "
+          + ORDER_VIEW
+          + " from Order o"
+          + " where o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id)"
+          + " order by o.orderDate desc, o.id desc")
+  List<OrderView> findPageAfter(LocalDateTime orderDate, Long id, Limit limit);
+
+  @Query(
+      """
+      select new com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItemView(
+          i.order.id, i.id, i.productId, i.quantity)
+      from OrderItem i
+      where i.order.id in :orderIds
+      order by i.id
+      """)
+  List<OrderItemView> findItemViewsByOrderIds(Collection<Long> orderIds);
+
+  @Query(
+      """
+      select new com.project.anesu.ecommerce.ordermanagementservice.entity.address.AddressView(
+          a.order.id, a.id, a.streetName, a.streetNumber, a.city, a.state, a.zipCode)
+      from Address a
+      where a.order.id in :orderIds
+      order by a.id
+      """)
+  List<AddressView> findDeliveryAddressViewsByOrderIds(Collection<Long> orderIds);
+
+  /**
+   * Streams all orders in id order. Has to be consumed inside a transaction; rows are fetched from
+   * the driver in chunks of the given fetch size instead of being read into memory at once. The
+   * streamed orders bypass the second-level cache.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+  })
+  @Query("select o from Order o order by o.id")
+  Stream<Order> streamAllOrderById();
+
+  /**
+   * Locks and returns the ids of the given orders that are in the given status, so that they cannot
+   * change status before {@link #updateOrderStatus} moves them.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select o.id from Order o where o.id in :orderIds and o.orderStatus = :orderStatus")
+  List<Long> lockIdsByOrderStatus(Collection<Long> orderIds, OrderStatus orderStatus);
+
+  /**
+   * Moves the given orders from one status to another with a single set-based update, increments
+   * their version and records the change in the change feed. Orders not in the expected status are
+   * left untouched.
+   *
+   * @return the number of orders that were moved
+   */
+  @Modifying
+  @Query(
+      "update versioned Order o set o.orderStatus = :to, o.statusChangedAt = local datetime,"
+          + " o.changeSequence = "
+          + NEXT_CHANGE_SEQUENCE
+          + " where o.id in :orderIds and o.orderStatus = :from")
+  int updateOrderStatus(Collection<Long> orderIds, OrderStatus from, OrderStatus to);
+
+  /**
+   * Cancels the given orders with a single set-based update, like {@link #updateOrderStatus}, and
+   * stores the cancellation reason on each of them. Orders not in the expected status are left
+   * untouched.
+   *
+   * @return the number of orders that were cancelled
+   */
+  @Modifying
+  @Query(
+      "update versioned Order o set o.orderStatus = "
+          + "com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus.CANCELLED,"
+          + " o.statusChangedAt = local datetime, o.cancellationReason = :cancellationReason,"
+          + " o.changeSequence = "
+          + NEXT_CHANGE_SEQUENCE
+          + " where o.id in :orderIds and o.orderStatus = :from")
+  int cancelOrders(Collection<Long> orderIds, OrderStatus from, String cancellationReason);
+
+  /**
+   * Returns the ids of the oldest orders in the given status that are not leased by a processor
+   * run, or whose lease has expired.
+   */
+  @Query(
+      "select o.id from Order o where o.orderStatus = :orderStatus"
+          + " and not exists (select 1 from OrderLease l"
+          + " where l.orderId = o.id and l.claimedUntil >= :now)"
+          + " order by o.orderDate, o.id")
+  List<Long> findClaimableIds(OrderStatus orderStatus, LocalDateTime now, Limit limit);
+
+  @Query("select min(o.orderDate) from Order o where o.orderStatus = :orderStatus")
+  Optional<LocalDateTime> findOldestOrderDate(OrderStatus orderStatus);
+
+  /**
+   * Returns the ids, greater than the given one, of orders that moved to one of the given statuses
+   * before the given date, in id order.
+   */
+  @Query(
+      "select o.id from Order o where o.orderStatus in :orderStatuses"
+          + " and o.statusChangedAt < :before and o.id > :afterId order by o.id")
+  List<Long> findArchivableIds(
+      Collection<OrderStatus> orderStatuses, LocalDateTime before, Long afterId, Limit limit);
+
+  /**
+   * Returns orders changed after the given position of the change feed and before the given
+   * horizon, in the order of their latest change.
+   */
+  @Query(
+      "select new com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderChange("
+          + "o.id, o.changeSequence)"
+          + " from Order o where o.changeSequence > :since and o.changeSequence < :horizon"
+          + " order by o.changeSequence")
+  List<OrderChange> findChangesBetween(long since, long horizon, Limit limit);
+
+  /** Draws the next change feed position, to sample how far the change feed has advanced. */
+  @Query(value = "select nextval('" + Order.CHANGE_SEQUENCE + "')", nativeQuery = true)
+  long nextChangeSequence();
 }
@@ -0,0 +1,23 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+
+/** Order search with optional filters, for which no single derived query exists. */
+public interface OrderSearchRepository {
+
+  /**
+   * Finds orders matching the given criteria, newest first.
+   *
+   * @param criteria the filters to apply; {@code null} filters are ignored
+   * @param afterOrderDate the order date of the last order of the previous page, or {@code null}
+   * @param afterId the id of the last order of the previous page, or {@code null}
+   * @param limit the maximum number of orders to return
+   * @return the matching orders, without items and delivery addresses
+   */
+  List<OrderView> search(
+      OrderSearchCriteria criteria, LocalDateTime afterOrderDate, Long afterId, Limit limit);
+}
@@ -0,0 +1,71 @@
+package com.project.anesu.ecommerce.ordermanagementservice.model.repository;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Builds the search query from the given filters only, so that each combination leads with an
+ * equality on an indexed column followed by the order date range and sort.
+ */
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<OrderView> search(
+      OrderSearchCriteria criteria, LocalDateTime afterOrderDate, Long afterId, Limit limit) {
+
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<OrderView> query = cb.createQuery(OrderView.class);
+    Root<Order> order = query.from(Order.class);
+    Path<LocalDateTime> orderDate = order.get("orderDate");
+    Path<Long> id = order.get("id");
+
+    List<Predicate> predicates = new ArrayList<>();
+    if (criteria.getCustomerId() != null) {
+      predicates.add(cb.equal(order.get("customerId"), criteria.getCustomerId()));
+    }
+    if (criteria.getOrderStatus() != null) {
+      predicates.add(cb.equal(order.get("orderStatus"), criteria.getOrderStatus()));
+    }
+    if (criteria.getFrom() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(orderDate, criteria.getFrom()));
+    }
+    if (criteria.getTo() != null) {
+      predicates.add(cb.lessThan(orderDate, criteria.getTo()));
+    }
+    if (afterOrderDate != null && afterId != null) {
+      predicates.add(
+          cb.or(
+              cb.lessThan(orderDate, afterOrderDate),
+              cb.and(cb.equal(orderDate, afterOrderDate), cb.lessThan(id, afterId))));
+    }
+
+    query
+        .select(
+            cb.construct(
+                OrderView.class,
+                id,
+                order.get("customerId"),
+                order.get("totalPrice"),
+                order.get("orderStatus"),
+                orderDate,
+                order.get("cancellationReason")))
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.desc(orderDate), cb.desc(id));
+
+    return entityManager.createQuery(query).setMaxResults(limit.max()).getResultList();
+  }
+}
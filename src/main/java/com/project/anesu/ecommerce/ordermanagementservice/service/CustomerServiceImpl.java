@@ -2,13 +2,17 @@ package com.project.anesu.ecommerce.ordermanagementservice.service;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
 import com.project.anesu.ecommerce.ordermanagementservice.model.CustomerService;
 import com.project.anesu.ecommerce.ordermanagementservice.model.repository.CustomerRepository;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.AddressNotFoundException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.CustomerNotFoundException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidPageRequestException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.util.CustomerValidator;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.KeysetPagination;
 import java.util.List;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -46,8 +50,18 @@ public class CustomerServiceImpl implements CustomerService {
   }
 
   @Override
-  public List<Customer> getAllCustomers() {
-    return customerRepository.findAll();
+  public KeysetPage<Customer> getCustomers(String cursor, Integer pageSize) {
+    int limit = KeysetPagination.getPageSize(pageSize);
+
+    List<Customer> customers;
+    if (cursor == null) {
+      customers = customerRepository.findByOrderByIdAsc(Limit.of(limit + 1));
+    } else {
+      Long lastId = parseCursor(cursor);
+      customers = customerRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit + 1));
+    }
+    return KeysetPagination.toPage(
+        customers, limit, customer -> KeysetPagination.encodeCursor(customer.getId()));
   }
 
   @Override
@@ -127,4 +141,13 @@ public class CustomerServiceImpl implements CustomerService {
     existingAddress.setZipCode(updatedAddress.getZipCode());
     existingAddress.setCity(updatedAddress.getCity());
   }
+
+  private Long parseCursor(String cursor) {
+    String[] sortKey = KeysetPagination.decodeCursor(cursor, 1);
+    try {
+      return Long.valueOf(sortKey[0]);
+    } catch (NumberFormatException e) {
+      throw new InvalidPageRequestException("Invalid cursor.");
+    }
+  }
 }
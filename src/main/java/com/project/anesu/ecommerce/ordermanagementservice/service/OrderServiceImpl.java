@@ -1,36 +1,86 @@
 package com.project.anesu.ecommerce.ordermanagementservice.service;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.AddressView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkCancellationResult;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkTransitionResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderChange;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderCreationResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItemView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
-import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderValidationEndpoints;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderTransition;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.ChangeFeedPage;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
 import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
 import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.archive.OrderArchiver;
+import com.project.anesu.ecommerce.ordermanagementservice.service.changes.OrderChangeFeedHorizon;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.AddressNotFoundException;
-import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryReturnFailureException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidOrderException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidPageRequestException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderNotFoundException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.ValidationFailedException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryAvailabilityCache;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryRequestCoalescer;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournal;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderStateMachine;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionRetry;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.InventoryRequestMerger;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.KeysetPagination;
 import com.project.anesu.ecommerce.ordermanagementservice.service.util.OrderValidator;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
 @Service
 @AllArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
-  private final RestTemplate restTemplate;
+  /** Maximum number of order IDs in the IN list of one bulk status update. */
+  public static final int BULK_TRANSITION_CHUNK_SIZE = 1000;
+
+  private final InventoryClient inventoryClient;
   private final OrderRepository orderRepository;
   private final OrderValidator orderValidator;
+  private final InventoryRequestCoalescer inventoryRequestCoalescer;
+  private final InventoryReturnOutboxRepository inventoryReturnOutboxRepository;
+  private final InventoryAvailabilityCache inventoryAvailabilityCache;
+  private final OrderTransitionRetry orderTransitionRetry;
+  private final OrderStateMachine orderStateMachine;
+  private final OrderJournal orderJournal;
+  private final OrderArchiver orderArchiver;
+  private final OrderChangeFeedHorizon orderChangeFeedHorizon;
 
   @Override
   public Order createOrder(Order order, List<OrderItem> orderItems) throws OrderNotFoundException {
@@ -39,14 +89,26 @@ public class OrderServiceImpl implements OrderService {
 
     List<Map<String, Object>> batchOrderRequest = getBatchOrderRequest(orderItems);
 
-    String validationUrl = OrderValidationEndpoints.VALIDATE_AND_DEDUCT_PRODUCT.getUrl();
+    Optional<Long> unfulfillableProduct =
+        inventoryAvailabilityCache.findUnfulfillableProduct(batchOrderRequest);
+    if (unfulfillableProduct.isPresent()) {
+      throw new ValidationFailedException(
+          "Order validation failed: insufficient stock for product " + unfulfillableProduct.get());
+    }
 
-    ResponseEntity<String> validationResponse =
-        restTemplate.postForEntity(validationUrl, batchOrderRequest, String.class);
+    ResponseEntity<String> validationResponse;
+    try {
+      validationResponse = inventoryRequestCoalescer.validateAndDeduct(batchOrderRequest);
+    } catch (HttpClientErrorException e) {
+      inventoryAvailabilityCache.recordRejected(batchOrderRequest);
+      throw e;
+    }
 
     if (validationResponse.getStatusCode() != HttpStatus.OK) {
+      inventoryAvailabilityCache.recordRejected(batchOrderRequest);
       throw new ValidationFailedException("Order validation failed" + validationResponse.getBody());
     }
+    inventoryAvailabilityCache.invalidate(batchOrderRequest);
 
     setAdditionalOrderDetails(order);
 
@@ -55,66 +117,322 @@ public class OrderServiceImpl implements OrderService {
     }
     order.setOrderItem(orderItems);
 
-    return orderRepository.save(order);
+    Order savedOrder;
+    try {
+      savedOrder = orderRepository.save(order);
+    } catch (RuntimeException e) {
+      returnDeductedInventory(List.of(order), e);
+      throw e;
+    }
+    orderJournal.appendAfterCommit(
+        OrderEventType.CREATED, savedOrder.getId(), savedOrder.getOrderStatus(), null);
+    return savedOrder;
+  }
+
+  @Override
+  public List<OrderCreationResult> createOrders(List<Order> orders) {
+
+    orderValidator.validateNewOrderBatch(orders);
+
+    OrderCreationResult[] results = new OrderCreationResult[orders.size()];
+    Map<Integer, Order> validOrders = new LinkedHashMap<>();
+
+    for (int index = 0; index < orders.size(); index++) {
+      Order order = orders.get(index);
+      try {
+        validateNewOrder(order, order == null ? null : order.getOrderItem());
+      } catch (InvalidOrderException e) {
+        results[index] = OrderCreationResult.failed(index, e.getMessage());
+        continue;
+      }
+
+      Optional<Long> unfulfillableProduct =
+          inventoryAvailabilityCache.findUnfulfillableProduct(
+              getBatchOrderRequest(order.getOrderItem()));
+      if (unfulfillableProduct.isPresent()) {
+        results[index] =
+            OrderCreationResult.failed(
+                index,
+                "Order validation failed: insufficient stock for product "
+                    + unfulfillableProduct.get());
+      } else {
+        validOrders.put(index, order);
+      }
+    }
+
+    Map<Integer, Order> deductedOrders = deductInventoryForBatch(validOrders, results);
+
+    List<Order> ordersToSave = new ArrayList<>(deductedOrders.values());
+    for (Order order : ordersToSave) {
+      setAdditionalOrderDetails(order);
+      for (OrderItem orderItem : order.getOrderItem()) {
+        orderItem.setOrder(order);
+      }
+    }
+    try {
+      orderRepository.saveAll(ordersToSave);
+    } catch (RuntimeException e) {
+      returnDeductedInventory(ordersToSave, e);
+      throw e;
+    }
+    for (Order order : ordersToSave) {
+      orderJournal.appendAfterCommit(
+          OrderEventType.CREATED, order.getId(), order.getOrderStatus(), null);
+    }
+
+    deductedOrders.forEach(
+        (index, order) -> results[index] = OrderCreationResult.created(index, order.getId()));
+
+    return List.of(results);
   }
 
   @Override
   public Order addDeliveryAddressToOrder(Long orderId, Address address)
       throws OrderNotFoundException {
 
-    Order order = getOrderById(orderId);
+    Order order = getHotOrder(orderId);
 
     address.setOrder(order);
     order.getDeliveryAddress().add(address);
+    order.markChanged();
 
-    return orderRepository.save(order);
+    Order savedOrder = orderRepository.save(order);
+    recordAddressChange(savedOrder, address);
+    return savedOrder;
   }
 
   @Override
   public Order processPendingOrder(Long orderId) throws OrderNotFoundException {
 
-    Order orderRequest = getOrderByIdAndStatus(orderId, OrderStatus.ORDER_PLACED);
+    return transition(orderId, OrderStatus.PROCESSING, orderRepository::save);
+  }
+
+  @Transactional
+  @Override
+  public BulkTransitionResult transitionOrders(List<Long> orderIds, OrderTransition transition) {
+
+    if (orderIds == null || orderIds.isEmpty()) {
+      throw new InvalidOrderException("At least one order ID is required.");
+    }
+    if (transition == null) {
+      throw new InvalidOrderException("A transition is required.");
+    }
+    if (!orderStateMachine.canTransitionInBulk(transition.getFrom(), transition.getTo())) {
+      throw new InvalidOrderException(
+          "Transition %s has guards or hooks and cannot be applied in bulk.".formatted(transition));
+    }
+
+    orderChangeFeedHorizon.register();
+    long started = System.nanoTime();
+    List<Long> distinctOrderIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+    Set<Long> transitioned = new HashSet<>();
 
-    orderRequest.setOrderStatus(OrderStatus.PROCESSING);
-    return orderRepository.save(orderRequest);
+    for (int start = 0; start < distinctOrderIds.size(); start += BULK_TRANSITION_CHUNK_SIZE) {
+      List<Long> chunk =
+          distinctOrderIds.subList(
+              start, Math.min(start + BULK_TRANSITION_CHUNK_SIZE, distinctOrderIds.size()));
+
+      List<Long> lockedOrderIds = orderRepository.lockIdsByOrderStatus(chunk, transition.getFrom());
+      if (!lockedOrderIds.isEmpty()) {
+        orderRepository.updateOrderStatus(lockedOrderIds, transition.getFrom(), transition.getTo());
+        transitioned.addAll(lockedOrderIds);
+      }
+    }
+
+    Map<Boolean, List<Long>> outcome =
+        distinctOrderIds.stream().collect(Collectors.partitioningBy(transitioned::contains));
+    orderStateMachine.afterBulkTransition(
+        transition.getFrom(),
+        transition.getTo(),
+        outcome.get(true),
+        outcome.get(false).size(),
+        System.nanoTime() - started);
+    return new BulkTransitionResult(transition, outcome.get(true), outcome.get(false));
   }
 
+  @Transactional
   @Override
-  public Order sendOrderOutForDelivery(Long orderId) throws OrderNotFoundException {
+  public BulkCancellationResult cancelOrders(List<Long> orderIds, String cancellationReason) {
+
+    if (orderIds == null || orderIds.isEmpty()) {
+      throw new InvalidOrderException("At least one order ID is required.");
+    }
+    List<OrderStatus> cancellableStatuses =
+        Arrays.stream(OrderStatus.values())
+            .filter(from -> orderStateMachine.canTransition(from, OrderStatus.CANCELLED))
+            .toList();
+    for (OrderStatus from : cancellableStatuses) {
+      if (!orderStateMachine.canTransitionInBulk(from, OrderStatus.CANCELLED)) {
+        throw new InvalidOrderException(
+            "Cancellation of %s orders has guards or hooks and cannot be applied in bulk."
+                .formatted(from));
+      }
+    }
+
+    orderChangeFeedHorizon.register();
+    long started = System.nanoTime();
+    List<Long> distinctOrderIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+    Map<OrderStatus, List<Long>> cancelledByStatus = new EnumMap<>(OrderStatus.class);
+    Map<Long, Integer> returnedQuantities = new TreeMap<>();
+
+    for (int start = 0; start < distinctOrderIds.size(); start += BULK_TRANSITION_CHUNK_SIZE) {
+      List<Long> chunk =
+          distinctOrderIds.subList(
+              start, Math.min(start + BULK_TRANSITION_CHUNK_SIZE, distinctOrderIds.size()));
+
+      // Statuses only ever move forward, so walking them in order finds an order even if it
+      // moves on between two of the queries.
+      List<Long> cancelledInChunk = new ArrayList<>();
+      for (OrderStatus from : cancellableStatuses) {
+        List<Long> lockedOrderIds = orderRepository.lockIdsByOrderStatus(chunk, from);
+        if (!lockedOrderIds.isEmpty()) {
+          orderRepository.cancelOrders(lockedOrderIds, from, cancellationReason);
+          cancelledByStatus
+              .computeIfAbsent(from, status -> new ArrayList<>())
+              .addAll(lockedOrderIds);
+          cancelledInChunk.addAll(lockedOrderIds);
+        }
+      }
+
+      if (!cancelledInChunk.isEmpty()) {
+        for (OrderItemView orderItem : orderRepository.findItemViewsByOrderIds(cancelledInChunk)) {
+          returnedQuantities.merge(orderItem.getProductId(), orderItem.getQuantity(), Integer::sum);
+        }
+      }
+    }
+
+    returnInventory(returnedQuantities);
 
-    Order orderRequest = getOrderByIdAndStatus(orderId, OrderStatus.PROCESSING);
+    Set<Long> cancelled = new HashSet<>();
+    cancelledByStatus.values().forEach(cancelled::addAll);
+    long nanos = System.nanoTime() - started;
+    cancelledByStatus.forEach(
+        (from, cancelledOrderIds) ->
+            orderStateMachine.afterBulkTransition(
+                from, OrderStatus.CANCELLED, cancelledOrderIds, 0, nanos, cancellationReason));
 
-    orderRequest.setOrderStatus(OrderStatus.OUT_FOR_DELIVERY);
-    return orderRepository.save(orderRequest);
+    Map<Boolean, List<Long>> outcome =
+        distinctOrderIds.stream().collect(Collectors.partitioningBy(cancelled::contains));
+    return new BulkCancellationResult(outcome.get(true), outcome.get(false));
   }
 
   @Override
-  public Order markAsDeliveredAfterSuccessfulDelivery(Long orderId) throws OrderNotFoundException {
+  public Order sendOrderOutForDelivery(Long orderId) throws OrderNotFoundException {
+
+    return transition(orderId, OrderStatus.OUT_FOR_DELIVERY, orderRepository::save);
+  }
 
-    Order orderRequest = getOrderByIdAndStatus(orderId, OrderStatus.OUT_FOR_DELIVERY);
+  @Override
+  public Order markAsDeliveredAfterSuccessfulDelivery(Long orderId) throws OrderNotFoundException {
 
-    orderRequest.setOrderStatus(OrderStatus.DELIVERED);
-    return orderRepository.save(orderRequest);
+    return transition(orderId, OrderStatus.DELIVERED, orderRepository::save);
   }
 
   @Override
   public Order getOrderById(Long orderId) {
 
-    return orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+    return orderRepository
+        .findById(orderId)
+        .or(() -> orderArchiver.findArchivedOrder(orderId))
+        .orElseThrow(() -> new OrderNotFoundException(orderId));
+  }
+
+  @Override
+  public OrderView getOrderView(Long orderId) {
+
+    Optional<OrderView> order = orderRepository.findViewById(orderId);
+    if (order.isPresent()) {
+      return withDetails(List.of(order.get())).getFirst();
+    }
+    return orderArchiver
+        .findArchivedOrder(orderId)
+        .map(OrderView::of)
+        .orElseThrow(() -> new OrderNotFoundException(orderId));
   }
 
   public Order getOrderByIdAndStatus(Long orderId, OrderStatus status)
       throws OrderNotFoundException {
 
+    // Looked up by id rather than by id and status, so that the order can come from the
+    // second-level cache.
     return orderRepository
-        .findByIdAndOrderStatus(orderId, status)
+        .findById(orderId)
+        .filter(order -> order.getOrderStatus() == status)
         .orElseThrow(() -> new OrderNotFoundException(orderId));
   }
 
   @Override
-  public List<Order> getAllOrders() {
+  public KeysetPage<OrderView> getOrders(String cursor, Integer pageSize) {
+    int limit = KeysetPagination.getPageSize(pageSize);
+
+    List<OrderView> orders;
+    if (cursor == null) {
+      orders = orderRepository.findFirstPage(Limit.of(limit + 1));
+    } else {
+      String[] sortKey = KeysetPagination.decodeCursor(cursor, 2);
+      orders =
+          orderRepository.findPageAfter(
+              parseOrderDate(sortKey[0]), parseOrderId(sortKey[1]), Limit.of(limit + 1));
+    }
+    return toPageWithDetails(orders, limit);
+  }
+
+  @Override
+  public KeysetPage<OrderView> searchOrders(
+      OrderSearchCriteria criteria, String cursor, Integer pageSize) {
+    int limit = KeysetPagination.getPageSize(pageSize);
+
+    if (criteria.getFrom() != null
+        && criteria.getTo() != null
+        && !criteria.getFrom().isBefore(criteria.getTo())) {
+      throw new InvalidPageRequestException("'from' must be before 'to'.");
+    }
+
+    LocalDateTime afterOrderDate = null;
+    Long afterId = null;
+    if (cursor != null) {
+      String[] sortKey = KeysetPagination.decodeCursor(cursor, 2);
+      afterOrderDate = parseOrderDate(sortKey[0]);
+      afterId = parseOrderId(sortKey[1]);
+    }
 
-    return orderRepository.findAll();
+    List<OrderView> orders =
+        orderRepository.search(criteria, afterOrderDate, afterId, Limit.of(limit + 1));
+    return toPageWithDetails(orders, limit);
+  }
+
+  @Override
+  public ChangeFeedPage<OrderView> getChanges(String since, Integer pageSize) {
+    int limit = KeysetPagination.getPageSize(pageSize);
+    long sinceSequence =
+        since == null ? 0 : parseChangeSequence(KeysetPagination.decodeCursor(since, 1)[0]);
+
+    List<OrderChange> changes =
+        orderRepository.findChangesBetween(
+            sinceSequence, orderChangeFeedHorizon.get(), Limit.of(limit + 1));
+    boolean hasMore = changes.size() > limit;
+    if (hasMore) {
+      changes = changes.subList(0, limit);
+    }
+    if (changes.isEmpty()) {
+      return new ChangeFeedPage<>(List.of(), KeysetPagination.encodeCursor(sinceSequence), false);
+    }
+
+    List<Long> orderIds = changes.stream().map(OrderChange::getOrderId).toList();
+    Map<Long, OrderView> ordersById = new HashMap<>();
+    for (OrderView order : withDetails(orderRepository.findViewsByIds(orderIds))) {
+      ordersById.put(order.getId(), order);
+    }
+
+    List<OrderView> orders = new ArrayList<>(changes.size());
+    for (OrderChange change : changes) {
+      OrderView order = ordersById.get(change.getOrderId());
+      if (order != null) {
+        orders.add(order);
+      }
+    }
+    return new ChangeFeedPage<>(
+        orders, KeysetPagination.encodeCursor(changes.getLast().getChangeSequence()), hasMore);
   }
 
   @Transactional
@@ -122,7 +440,7 @@ public class OrderServiceImpl implements OrderService {
   public Order updateDeliveryAddress(Long orderId, Long addressId, Address updatedOrderAddress)
       throws OrderNotFoundException {
 
-    Order order = getOrderById(orderId);
+    Order order = getHotOrder(orderId);
     List<Address> savedAddresses = order.getDeliveryAddress();
 
     boolean updated = false;
@@ -139,39 +457,187 @@ public class OrderServiceImpl implements OrderService {
     if (!updated) {
       throw new AddressNotFoundException("No address found with ID: " + addressId);
     }
-    return orderRepository.save(order);
+    order.markChanged();
+    Order savedOrder = orderRepository.save(order);
+    recordAddressChange(savedOrder, updatedOrderAddress);
+    return savedOrder;
   }
 
   @Override
   public Order cancelOrder(Long orderId, String cancellationReason) throws OrderNotFoundException {
 
-    Order orderRequest = getOrderById(orderId);
-
-    orderRequest.setOrderStatus(OrderStatus.CANCELLED);
-    orderRequest.setCancellationReason(cancellationReason);
+    return transition(
+        orderId,
+        OrderStatus.CANCELLED,
+        orderRequest -> {
+          orderRequest.setCancellationReason(cancellationReason);
+
+          List<InventoryReturnOutbox> inventoryReturns = new ArrayList<>();
+          for (OrderItem orderItem : orderRequest.getOrderItem()) {
+            inventoryReturns.add(
+                InventoryReturnOutbox.of(
+                    orderId, orderItem.getProductId(), orderItem.getQuantity()));
+          }
+
+          Order cancelledOrder = orderRepository.save(orderRequest);
+          inventoryReturnOutboxRepository.saveAll(inventoryReturns);
+          inventoryAvailabilityCache.invalidate(getBatchOrderRequest(orderRequest.getOrderItem()));
+          return cancelledOrder;
+        });
+  }
 
-    List<OrderItem> orderItems = orderRequest.getOrderItem();
+  private KeysetPage<OrderView> toPageWithDetails(List<OrderView> orders, int pageSize) {
+    KeysetPage<OrderView> page =
+        KeysetPagination.toPage(
+            orders,
+            pageSize,
+            order -> KeysetPagination.encodeCursor(order.getOrderDate(), order.getId()));
+    return new KeysetPage<>(withDetails(page.getItems()), page.getNextCursor());
+  }
 
-    List<Map<String, Object>> batchOrderRequest = getBatchOrderRequest(orderItems);
+  /**
+   * Adds items and delivery addresses to the given orders with one query each, instead of one query
+   * per order and association.
+   */
+  private List<OrderView> withDetails(List<OrderView> orders) {
 
-    String returnInventoryUrl = OrderValidationEndpoints.ADD_RETURNED_INVENTORY.getUrl();
+    if (orders.isEmpty()) {
+      return orders;
+    }
 
-    ResponseEntity<String> expectedResponse =
-        restTemplate.postForEntity(returnInventoryUrl, batchOrderRequest, String.class);
+    List<Long> orderIds = orders.stream().map(OrderView::getId).toList();
+    Map<Long, List<OrderItemView>> itemsByOrderId =
+        orderRepository.findItemViewsByOrderIds(orderIds).stream()
+            .collect(Collectors.groupingBy(OrderItemView::getOrderId));
+    Map<Long, List<AddressView>> addressesByOrderId =
+        orderRepository.findDeliveryAddressViewsByOrderIds(orderIds).stream()
+            .collect(Collectors.groupingBy(AddressView::getOrderId));
+
+    return orders.stream()
+        .map(
+            order ->
+                order.withDetails(
+                    itemsByOrderId.getOrDefault(order.getId(), List.of()),
+                    addressesByOrderId.getOrDefault(order.getId(), List.of())))
+        .toList();
+  }
 
-    if (expectedResponse.getStatusCode() != HttpStatus.OK) {
-      throw new InventoryReturnFailureException(
-          "An error occurred while trying to return inventory.");
-    }
+  /**
+   * Moves the order to the given status through the {@link OrderStateMachine}. The order is usually
+   * read from the second-level cache, so the transition costs a single UPDATE of the changed
+   * columns and the version; when the version no longer matches, the transition is retried by
+   * {@link OrderTransitionRetry}.
+   */
+  private Order transition(Long orderId, OrderStatus to, UnaryOperator<Order> save) {
+    return orderTransitionRetry.execute(
+        orderId, () -> orderStateMachine.apply(getOrderById(orderId), to, save));
+  }
 
-    orderRepository.save(orderRequest);
-    return orderRequest;
+  /**
+   * Reads an order that is about to be changed. Archived orders are not returned, as they are
+   * detached copies that must not be saved back.
+   */
+  private Order getHotOrder(Long orderId) {
+    return orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
   }
 
   private void validateNewOrder(Order order, List<OrderItem> orderItems) {
     orderValidator.validateNewOrder(order, orderItems);
   }
 
+  /**
+   * Deducts the inventory for all given orders with one merged request. If the inventory service
+   * rejects the merged request, each order is retried on its own so that a single unfulfillable
+   * order does not fail the whole batch.
+   */
+  private Map<Integer, Order> deductInventoryForBatch(
+      Map<Integer, Order> validOrders, OrderCreationResult[] results) {
+
+    if (validOrders.isEmpty()) {
+      return validOrders;
+    }
+
+    List<Map<String, Object>> mergedOrderRequest = getMergedBatchOrderRequest(validOrders.values());
+    if (isInventoryRequestAccepted(mergedOrderRequest)) {
+      return validOrders;
+    }
+
+    Map<Integer, Order> deductedOrders = new LinkedHashMap<>();
+    validOrders.forEach(
+        (index, order) -> {
+          List<Map<String, Object>> batchOrderRequest = getBatchOrderRequest(order.getOrderItem());
+          if (isInventoryRequestAccepted(batchOrderRequest)) {
+            deductedOrders.put(index, order);
+          } else {
+            results[index] = OrderCreationResult.failed(index, "Order validation failed");
+          }
+        });
+    return deductedOrders;
+  }
+
+  private boolean isInventoryRequestAccepted(List<Map<String, Object>> batchOrderRequest) {
+    try {
+      ResponseEntity<String> response = inventoryClient.validateAndDeduct(batchOrderRequest);
+      if (response.getStatusCode() == HttpStatus.OK) {
+        inventoryAvailabilityCache.invalidate(batchOrderRequest);
+        return true;
+      }
+      inventoryAvailabilityCache.recordRejected(batchOrderRequest);
+      return false;
+    } catch (HttpClientErrorException e) {
+      inventoryAvailabilityCache.recordRejected(batchOrderRequest);
+      return false;
+    }
+  }
+
+  private List<Map<String, Object>> getMergedBatchOrderRequest(Iterable<Order> orders) {
+    List<List<Map<String, Object>>> batchOrderRequests = new ArrayList<>();
+
+    for (Order order : orders) {
+      batchOrderRequests.add(getBatchOrderRequest(order.getOrderItem()));
+    }
+    return InventoryRequestMerger.merge(batchOrderRequests);
+  }
+
+  /**
+   * Queues the given quantities for return to the Inventory Service, one outbox entry per product,
+   * so that the relay sends them with as few requests as possible.
+   */
+  private void returnInventory(Map<Long, Integer> quantitiesByProduct) {
+    if (quantitiesByProduct.isEmpty()) {
+      return;
+    }
+
+    List<InventoryReturnOutbox> inventoryReturns = new ArrayList<>(quantitiesByProduct.size());
+    List<Map<String, Object>> returnRequest = new ArrayList<>(quantitiesByProduct.size());
+    quantitiesByProduct.forEach(
+        (productId, quantity) -> {
+          inventoryReturns.add(InventoryReturnOutbox.of(null, productId, quantity));
+          returnRequest.add(Map.of("productId", productId, "quantity", quantity));
+        });
+    inventoryReturnOutboxRepository.saveAll(inventoryReturns);
+    inventoryAvailabilityCache.invalidate(returnRequest);
+  }
+
+  /**
+   * Queues the inventory deducted for orders that could not be saved for return, so that the stock
+   * is not lost. A failure to queue it is added to the save failure instead of replacing it.
+   */
+  private void returnDeductedInventory(List<Order> orders, RuntimeException saveFailure) {
+    Map<Long, Integer> deductedQuantities = new TreeMap<>();
+    for (Order order : orders) {
+      for (OrderItem orderItem : order.getOrderItem()) {
+        deductedQuantities.merge(orderItem.getProductId(), orderItem.getQuantity(), Integer::sum);
+      }
+    }
+
+    try {
+      returnInventory(deductedQuantities);
+    } catch (RuntimeException e) {
+      saveFailure.addSuppressed(e);
+    }
+  }
+
   private List<Map<String, Object>> getBatchOrderRequest(List<OrderItem> orderItems) {
     List<Map<String, Object>> batchOrderRequest = new ArrayList<>();
 
@@ -184,6 +650,21 @@ public class OrderServiceImpl implements OrderService {
     return batchOrderRequest;
   }
 
+  private void recordAddressChange(Order order, Address address) {
+    orderJournal.appendAfterCommit(
+        OrderEventType.ADDRESS_CHANGED,
+        order.getId(),
+        order.getOrderStatus(),
+        Stream.of(
+                address.getStreetName(),
+                address.getStreetNumber(),
+                address.getZipCode(),
+                address.getCity(),
+                address.getState())
+            .filter(Objects::nonNull)
+            .collect(Collectors.joining(", ")));
+  }
+
   private void updateExistingDeliveryAddress(
       Address updatedOrderAddress, Address existingAddressToUpdate) {
     existingAddressToUpdate.setStreetName(updatedOrderAddress.getStreetName());
@@ -195,8 +676,35 @@ public class OrderServiceImpl implements OrderService {
 
   private void setAdditionalOrderDetails(Order order) {
     order.setCustomerId(order.getCustomerId());
-    order.setOrderDate(LocalDateTime.now());
+    // Truncated to the precision of the column, so that the order in the second-level cache
+    // serializes exactly like the stored one.
+    order.setOrderDate(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
     order.setOrderStatus(OrderStatus.ORDER_PLACED);
+    order.setStatusChangedAt(order.getOrderDate());
     order.setTotalPrice(order.getTotalPrice());
   }
+
+  private LocalDateTime parseOrderDate(String orderDate) {
+    try {
+      return LocalDateTime.parse(orderDate);
+    } catch (DateTimeParseException e) {
+      throw new InvalidPageRequestException("Invalid cursor.");
+    }
+  }
+
+  private long parseChangeSequence(String changeSequence) {
+    try {
+      return Long.parseLong(changeSequence);
+    } catch (NumberFormatException e) {
+      throw new InvalidPageRequestException("Invalid cursor.");
+    }
+  }
+
+  private Long parseOrderId(String orderId) {
+    try {
+      return Long.valueOf(orderId);
+    } catch (NumberFormatException e) {
+      throw new InvalidPageRequestException("Invalid cursor.");
+    }
+  }
 }
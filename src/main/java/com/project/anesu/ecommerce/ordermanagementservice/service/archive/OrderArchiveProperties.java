@@ -0,0 +1,33 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.archive;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.archive")
+public class OrderArchiveProperties {
+
+  /** Whether delivered and cancelled orders are moved to the archive in the background. */
+  private boolean enabled = true;
+
+  /** Delay between the end of one archiving run and the start of the next. */
+  private Duration pollInterval = Duration.ofHours(1);
+
+  /**
+   * Minimum age, since it moved to that status, of a delivered or cancelled order before it is
+   * archived.
+   */
+  private Duration minAge = Duration.ofDays(90);
+
+  /** Maximum number of orders moved to the archive in one transaction. */
+  private int batchSize = 500;
+
+  /**
+   * Maximum number of chunks archived by one run, so that a large backlog is worked off over
+   * several runs instead of occupying a scheduler thread for hours.
+   */
+  private int maxBatchesPerRun = 20;
+}
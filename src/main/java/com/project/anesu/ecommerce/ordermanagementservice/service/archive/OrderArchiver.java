@@ -0,0 +1,226 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.archive.ArchivedOrder;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.ArchivedOrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves delivered and cancelled orders out of {@code customer_order} into the archive table.
+ *
+ * <p>Orders that were delivered or cancelled longer than {@link OrderArchiveProperties#getMinAge()}
+ * ago are archived in chunks of {@link OrderArchiveProperties#getBatchSize()}: every chunk writes
+ * the orders with their items and delivery addresses as gzip-compressed JSON and deletes them from
+ * the hot tables in one transaction. The delete is versioned, so a chunk containing an order that
+ * changed in the meantime is rolled back. A chunk that fails is split in halves and each half is
+ * archived on its own, so that a failing order only holds back itself; it is skipped and retried by
+ * the next run.
+ *
+ * <p>Archived orders can still be read through {@link #findArchivedOrder}, but no longer appear in
+ * listings, searches, exports or the change feed.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+  static final List<OrderStatus> ARCHIVABLE_STATUSES =
+      Arrays.stream(OrderStatus.values()).filter(OrderStatus::isTerminal).toList();
+
+  private final OrderRepository orderRepository;
+  private final ArchivedOrderRepository archivedOrderRepository;
+  private final OrderArchiveProperties properties;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+
+  private final AtomicLong hotOrders = new AtomicLong(-1);
+
+  private final Counter archived;
+  private final Counter failures;
+  private final Counter skipped;
+  private final Counter archiveReads;
+  private final Timer batches;
+
+  public OrderArchiver(
+      OrderRepository orderRepository,
+      ArchivedOrderRepository archivedOrderRepository,
+      OrderArchiveProperties properties,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.orderRepository = orderRepository;
+    this.archivedOrderRepository = archivedOrderRepository;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+    this.archived =
+        Counter.builder("order.archive.archived")
+            .description("Delivered and cancelled orders moved to the archive")
+            .register(meterRegistry);
+    this.failures =
+        Counter.builder("order.archive.failures")
+            .description("Archive chunks that were rolled back and split up")
+            .register(meterRegistry);
+    this.skipped =
+        Counter.builder("order.archive.skipped")
+            .description("Orders that failed to be archived on their own and were left for later")
+            .register(meterRegistry);
+    this.archiveReads =
+        Counter.builder("order.archive.reads")
+            .description("Order reads answered from the archive")
+            .register(meterRegistry);
+    this.batches =
+        Timer.builder("order.archive.batches")
+            .description("Time spent archiving one chunk of orders")
+            .register(meterRegistry);
+    Gauge.builder("order.archive.hot.orders", hotOrders, AtomicLong::get)
+        .description("Orders left in the hot table after the last archiving run")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${order.archive.poll-interval:1h}")
+  public void archiveOldOrders() {
+    if (properties.isEnabled()) {
+      archiveOrders();
+    }
+  }
+
+  /**
+   * Archives delivered and cancelled orders older than the configured age, one chunk at a time in
+   * id order, until a chunk comes back smaller than the batch size or {@link
+   * OrderArchiveProperties#getMaxBatchesPerRun()} chunks were archived. Orders that cannot be
+   * archived are skipped; the next run starts over and picks up whatever is left.
+   *
+   * @return the number of orders that were archived
+   */
+  public int archiveOrders() {
+    LocalDateTime changedBefore = LocalDateTime.now().minus(properties.getMinAge());
+    int archivedOrders = 0;
+    long afterId = 0;
+
+    for (int batch = 0;
+        batch < properties.getMaxBatchesPerRun() && !Thread.currentThread().isInterrupted();
+        batch++) {
+      int batchSize = properties.getBatchSize();
+      List<Long> orderIds =
+          orderRepository.findArchivableIds(
+              ARCHIVABLE_STATUSES, changedBefore, afterId, Limit.of(batchSize));
+      if (orderIds.isEmpty()) {
+        break;
+      }
+
+      archivedOrders += archiveChunkOrHalves(orderIds);
+      if (orderIds.size() < batchSize) {
+        break;
+      }
+      afterId = orderIds.getLast();
+    }
+
+    hotOrders.set(orderRepository.count());
+    return archivedOrders;
+  }
+
+  /**
+   * Reads an order from the archive. The returned order is detached from the persistence context
+   * and must not be saved.
+   */
+  public Optional<Order> findArchivedOrder(Long orderId) {
+    Optional<Order> order = archivedOrderRepository.findById(orderId).map(this::toOrder);
+    order.ifPresent(archivedOrder -> archiveReads.increment());
+    return order;
+  }
+
+  /**
+   * Archives the orders in one transaction or, if that fails, both halves of them separately until
+   * the failing orders are isolated and skipped.
+   */
+  private int archiveChunkOrHalves(List<Long> orderIds) {
+    long start = System.nanoTime();
+    try {
+      Integer chunk = transactionTemplate.execute(status -> archiveChunk(orderIds));
+      batches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return chunk;
+    } catch (RuntimeException e) {
+      failures.increment();
+      if (orderIds.size() == 1) {
+        log.warn("Archiving order {} failed: {}", orderIds.getFirst(), e.getMessage());
+        skipped.increment();
+        return 0;
+      }
+    }
+
+    int half = orderIds.size() / 2;
+    return archiveChunkOrHalves(orderIds.subList(0, half))
+        + archiveChunkOrHalves(orderIds.subList(half, orderIds.size()));
+  }
+
+  private int archiveChunk(List<Long> orderIds) {
+    LocalDateTime now = LocalDateTime.now();
+    List<Order> orders = orderRepository.findAllById(orderIds);
+    List<ArchivedOrder> archivedOrders = new ArrayList<>(orders.size());
+    for (Order order : orders) {
+      archivedOrders.add(
+          new ArchivedOrder(order.getId(), order.getVersion(), now, toPayload(order)));
+    }
+
+    archivedOrderRepository.saveAll(archivedOrders);
+    orderRepository.deleteAll(orders);
+    orderRepository.flush();
+    archived.increment(orders.size());
+    return orders.size();
+  }
+
+  private byte[] toPayload(Order order) {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(payload)) {
+      objectMapper.writeValue(gzip, order);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return payload.toByteArray();
+  }
+
+  private Order toOrder(ArchivedOrder archivedOrder) {
+    Order order;
+    try (InputStream gzip =
+        new GZIPInputStream(new ByteArrayInputStream(archivedOrder.getPayload()))) {
+      order = objectMapper.readValue(gzip, Order.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    order.setVersion(archivedOrder.getVersion());
+    for (OrderItem orderItem : order.getOrderItem()) {
+      orderItem.setOrder(order);
+    }
+    return order;
+  }
+}
@@ -0,0 +1,79 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine-backed JCache regions for the Hibernate second-level cache.
+ *
+ * <p>Every cached entity and collection gets its own region with the configured size and TTL
+ * bounds, and hit, miss, put and eviction metrics tagged with the region name. Hibernate is told to
+ * fail on startup for a cached entity or collection without a region here, instead of silently
+ * creating an unbounded one.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+  static final List<String> REGIONS =
+      List.of(
+          Order.class.getName(),
+          Order.class.getName() + ".orderItem",
+          Order.class.getName() + ".deliveryAddress",
+          OrderItem.class.getName(),
+          Address.class.getName(),
+          Customer.class.getName(),
+          Customer.class.getName() + ".savedAddresses");
+
+  @Bean(destroyMethod = "close")
+  public CacheManager entityCacheManager(
+      EntityCacheProperties properties, MeterRegistry meterRegistry) {
+
+    // A cache manager of its own per application context, so that contexts started side by side
+    // (for example in tests) never share cached rows.
+    CacheManager cacheManager =
+        Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(
+                URI.create("entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+    for (String region : REGIONS) {
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(properties.getMaxSize()));
+      configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+      configuration.setStatisticsEnabled(true);
+
+      Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+      JCacheMetrics.monitor(meterRegistry, cache);
+    }
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer entityCacheHibernatePropertiesCustomizer(
+      CacheManager entityCacheManager) {
+
+    return hibernateProperties -> {
+      hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+      hibernateProperties.put(
+          ConfigSettings.MISSING_CACHE_STRATEGY,
+          MissingCacheStrategy.FAIL.getExternalRepresentation());
+    };
+  }
+}
@@ -0,0 +1,18 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+
+  /** Maximum number of entries per cache region. */
+  private long maxSize = 10_000;
+
+  /** How long an entry stays cached after it was written, as a bound on stale data. */
+  private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,17 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order-json-cache")
+public class OrderJsonCacheProperties {
+
+  /** Whether the serialized JSON of delivered and cancelled orders is kept in memory. */
+  private boolean enabled = true;
+
+  /** Upper bound for the total size of the cached JSON, in bytes. */
+  private long maxBytes = 64L * 1024 * 1024;
+}
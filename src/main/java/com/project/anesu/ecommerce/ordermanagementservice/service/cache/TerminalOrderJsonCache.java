@@ -0,0 +1,49 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized JSON of orders in a terminal status, bounded by total size in bytes.
+ *
+ * <p>Entries are keyed by the ETag of the order, so a changed order is never answered from the
+ * cache; the old entry is simply no longer read and ages out. Orders that can still change are
+ * always serialized anew.
+ */
+@Component
+public class TerminalOrderJsonCache {
+
+  private final OrderJsonCacheProperties properties;
+  private final Cache<String, byte[]> cache;
+
+  public TerminalOrderJsonCache(OrderJsonCacheProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxBytes())
+            .<String, byte[]>weigher((key, json) -> json.length)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "order.json");
+  }
+
+  /**
+   * Returns the JSON of the given order, from the cache if the order is in a terminal status.
+   *
+   * @param order the order to return; only its status is read
+   * @param eTag the entity tag of the order, used as cache key
+   * @param serializer serializes the order on a cache miss
+   * @return the serialized order
+   */
+  public byte[] get(Order order, String eTag, Supplier<byte[]> serializer) {
+    if (!properties.isEnabled() || !order.getOrderStatus().isTerminal()) {
+      return serializer.get();
+    }
+    return cache.get(eTag, key -> serializer.get());
+  }
+}
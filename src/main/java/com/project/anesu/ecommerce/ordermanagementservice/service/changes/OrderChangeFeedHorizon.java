@@ -0,0 +1,151 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.changes;
+
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells up to which position the change feed is safe to serve.
+ *
+ * <p>Change feed positions are drawn from a sequence when an order is written, not when its
+ * transaction commits, so a change can become visible after changes with higher positions have
+ * already been served. Clients that moved their cursor past it would never see it. Therefore every
+ * transaction of this instance that changes orders is {@linkplain #register() registered} before it
+ * draws its first position, and the horizon is held below the positions of the registered
+ * transactions until they have committed or rolled back, however long they run.
+ *
+ * <p>Transactions of other instances are not known here. For them the current sequence value is
+ * sampled on a dedicated thread, and only positions below a sample taken at least {@code
+ * order.changes.settle-time} ago are served. With a settle time of zero the horizon only follows
+ * the transactions of this instance.
+ */
+@Slf4j
+@Component
+public class OrderChangeFeedHorizon {
+
+  private final OrderRepository orderRepository;
+  private final OrderChangeFeedProperties properties;
+
+  /** Samples as {nanoTime, sequence value}, oldest first. */
+  private final Deque<long[]> samples = new ArrayDeque<>();
+
+  /** Lower bounds of the positions of registered transactions in flight, with their count. */
+  private final TreeMap<Long, Integer> inFlight = new TreeMap<>();
+
+  /** Highest sequence value drawn so far; no position drawn later can be below it. */
+  private long observed;
+
+  private ScheduledExecutorService sampler;
+
+  public OrderChangeFeedHorizon(
+      OrderRepository orderRepository, OrderChangeFeedProperties properties) {
+    this.orderRepository = orderRepository;
+    this.properties = properties;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (properties.getSettleTime().isZero()) {
+      return;
+    }
+    sampler =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("order-changes-sampler").daemon().factory());
+    long interval = properties.getSampleInterval().toNanos();
+    sampler.scheduleWithFixedDelay(this::sampleSafely, 0, interval, TimeUnit.NANOSECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (sampler != null) {
+      sampler.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the position below which all changes have settled, or 0 if none have been sampled long
+   * enough ago yet.
+   */
+  public synchronized long get() {
+    long horizon =
+        properties.getSettleTime().isZero()
+            ? observe(orderRepository.nextChangeSequence())
+            : settledSample();
+    return inFlight.isEmpty() ? horizon : Math.min(horizon, inFlight.firstKey());
+  }
+
+  /**
+   * Holds the horizon below the changes of the current transaction until it completes. Has to be
+   * called before the transaction draws its first change feed position; further calls within the
+   * same transaction do nothing, as do calls outside of a transaction.
+   */
+  public void register() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()
+        || TransactionSynchronizationManager.hasResource(this)) {
+      return;
+    }
+
+    long lowerBound;
+    synchronized (this) {
+      lowerBound = observed;
+      inFlight.merge(lowerBound, 1, Integer::sum);
+    }
+    TransactionSynchronizationManager.bindResource(this, lowerBound);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OrderChangeFeedHorizon.this);
+            complete(lowerBound);
+          }
+        });
+  }
+
+  public void sample() {
+    long sequence = orderRepository.nextChangeSequence();
+    synchronized (this) {
+      observe(sequence);
+      samples.addLast(new long[] {System.nanoTime(), sequence});
+    }
+  }
+
+  private void sampleSafely() {
+    try {
+      sample();
+    } catch (RuntimeException e) {
+      log.warn("Sampling the change feed position failed", e);
+    }
+  }
+
+  private long settledSample() {
+    long settledAt = System.nanoTime() - properties.getSettleTime().toNanos();
+    long horizon = 0;
+    while (!samples.isEmpty() && samples.peekFirst()[0] - settledAt <= 0) {
+      horizon = samples.pollFirst()[1];
+    }
+    if (horizon != 0) {
+      // Keep the newest settled sample, the next call may not find a newer one.
+      samples.addFirst(new long[] {settledAt, horizon});
+    }
+    return horizon;
+  }
+
+  private long observe(long sequence) {
+    observed = Math.max(observed, sequence);
+    return sequence;
+  }
+
+  private synchronized void complete(long lowerBound) {
+    inFlight.computeIfPresent(lowerBound, (bound, count) -> count == 1 ? null : count - 1);
+  }
+}
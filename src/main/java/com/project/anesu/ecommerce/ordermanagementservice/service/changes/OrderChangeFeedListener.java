@@ -0,0 +1,58 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.changes;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers every transaction that inserts or updates an order with the {@link
+ * OrderChangeFeedHorizon}, right before the statement that draws the new change feed position.
+ * Set-based updates of orders bypass these events and register themselves.
+ */
+@Component
+public class OrderChangeFeedListener implements PreInsertEventListener, PreUpdateEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final OrderChangeFeedHorizon orderChangeFeedHorizon;
+
+  public OrderChangeFeedListener(
+      EntityManagerFactory entityManagerFactory, OrderChangeFeedHorizon orderChangeFeedHorizon) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.orderChangeFeedHorizon = orderChangeFeedHorizon;
+  }
+
+  @PostConstruct
+  public void register() {
+    EventListenerRegistry eventListenerRegistry =
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+    eventListenerRegistry.appendListeners(EventType.PRE_INSERT, this);
+    eventListenerRegistry.appendListeners(EventType.PRE_UPDATE, this);
+  }
+
+  @Override
+  public boolean onPreInsert(PreInsertEvent event) {
+    if (event.getEntity() instanceof Order) {
+      orderChangeFeedHorizon.register();
+    }
+    return false;
+  }
+
+  @Override
+  public boolean onPreUpdate(PreUpdateEvent event) {
+    if (event.getEntity() instanceof Order) {
+      orderChangeFeedHorizon.register();
+    }
+    return false;
+  }
+}
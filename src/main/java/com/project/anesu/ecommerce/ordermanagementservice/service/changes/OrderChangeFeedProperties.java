@@ -0,0 +1,22 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.changes;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.changes")
+public class OrderChangeFeedProperties {
+
+  /**
+   * Time a change feed position has to be drawn before changes up to it are served. Covers the
+   * transactions of other instances, so it has to exceed the longest transaction that changes
+   * orders on another instance; zero when this is the only instance.
+   */
+  private Duration settleTime = Duration.ofSeconds(5);
+
+  /** Interval at which the current change feed position is sampled, on a dedicated thread. */
+  private Duration sampleInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,8 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+  public IdempotencyKeyReusedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+  public InvalidPageRequestException(String message) {
+    super(message);
+  }
+}
@@ -1,7 +0,0 @@
-package com.project.anesu.ecommerce.ordermanagementservice.service.exception;
-
-public class InventoryReturnFailureException extends RuntimeException {
-  public InventoryReturnFailureException(String message) {
-    super(message);
-  }
-}
@@ -0,0 +1,11 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.exception;
+
+public class InventoryUnavailableException extends RuntimeException {
+  public InventoryUnavailableException(String message) {
+    super(message);
+  }
+
+  public InventoryUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,8 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.exception;
+
+public class OrderConflictException extends RuntimeException {
+
+  public OrderConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.exception;
+
+public class TooManySubscribersException extends RuntimeException {
+
+  public TooManySubscribersException(String message) {
+    super(message);
+  }
+}
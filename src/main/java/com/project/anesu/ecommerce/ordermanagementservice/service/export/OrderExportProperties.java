@@ -0,0 +1,18 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.export;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.export")
+public class OrderExportProperties {
+
+  /**
+   * Maximum time a streaming export may run. Only applies to the export; other asynchronous
+   * requests keep the default timeout.
+   */
+  private Duration timeout = Duration.ofMinutes(30);
+}
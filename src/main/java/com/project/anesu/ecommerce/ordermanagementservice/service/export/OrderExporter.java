@@ -0,0 +1,95 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes all orders with their items and delivery addresses as newline-delimited JSON.
+ *
+ * <p>Orders are streamed from the database inside one read-only transaction and serialized one by
+ * one with a Jackson generator. The persistence context is cleared every {@value #CLEAR_EVERY}
+ * orders, so memory use does not grow with the number of exported orders. The session neither reads
+ * from nor writes to the second-level cache, so an export does not evict the orders that regular
+ * reads keep there.
+ */
+@Component
+public class OrderExporter {
+
+  public static final int CLEAR_EVERY = 500;
+
+  private final OrderRepository orderRepository;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter orderWriter;
+  private final TransactionTemplate readOnlyTransaction;
+
+  public OrderExporter(
+      OrderRepository orderRepository,
+      EntityManager entityManager,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager) {
+    this.orderRepository = orderRepository;
+    this.entityManager = entityManager;
+    this.objectMapper = objectMapper;
+    this.orderWriter =
+        objectMapper.writerFor(Order.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Writes every order as one JSON line to the given stream. The stream is flushed but not closed.
+   *
+   * @param outputStream the stream to write to
+   * @return the number of exported orders
+   */
+  public long export(OutputStream outputStream) {
+    Long exported = readOnlyTransaction.execute(status -> writeOrders(outputStream));
+    return exported == null ? 0 : exported;
+  }
+
+  private long writeOrders(OutputStream outputStream) {
+    long exported = 0;
+    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+
+    try (Stream<Order> orders = orderRepository.streamAllOrderById();
+        JsonGenerator generator =
+            objectMapper
+                .getFactory()
+                .createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+
+      generator.setRootValueSeparator(null);
+      Iterator<Order> iterator = orders.iterator();
+
+      while (iterator.hasNext()) {
+        orderWriter.writeValue(generator, iterator.next());
+        generator.writeRaw('\n');
+
+        if (++exported % CLEAR_EVERY == 0) {
+          generator.flush();
+          entityManager.clear();
+        }
+      }
+      generator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return exported;
+  }
+}
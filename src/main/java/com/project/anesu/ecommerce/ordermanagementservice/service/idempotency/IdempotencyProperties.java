@@ -0,0 +1,33 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.idempotency;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+  /** How long a stored response is replayed for the same key. */
+  private Duration ttl = Duration.ofHours(24);
+
+  /** Maximum number of responses kept in memory in front of the table. */
+  private long maxCachedResponses = 10_000;
+
+  /**
+   * How long a request may keep its key claimed before the key is considered abandoned (e.g. the
+   * instance running it died) and may be claimed again.
+   */
+  private Duration claimTimeout = Duration.ofMinutes(1);
+
+  /**
+   * How long a duplicate waits for the request with the same key running on this instance before it
+   * is rejected as still being processed.
+   */
+  private Duration joinTimeout = Duration.ofSeconds(10);
+
+  /** Delay between runs that delete expired responses from the table. */
+  private Duration cleanupInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,264 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.idempotency.IdempotencyRecord;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.IdempotencyRecordRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.IdempotencyKeyReusedException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes a request at most once per {@code Idempotency-Key}.
+ *
+ * <p>A request claims its key by inserting a row into the {@code idempotency_record} table, so only
+ * one request per key runs across all instances. A duplicate that arrives on the same instance
+ * while the first one is still running waits up to {@code idempotency.join-timeout} for its result;
+ * one that arrives on another instance, or waits longer, is rejected with a conflict. Successful
+ * responses are stored in the row and kept in a bounded in-memory cache in front of it, both
+ * expiring after {@code idempotency.ttl}, and a replay is answered from there without running the
+ * request again. Failed requests release the key, so the client can retry them with the same key.
+ *
+ * <p>The row also holds a hash of the request body: reusing a key for a different request is
+ * rejected instead of being answered with the response of the first one.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private final IdempotencyRecordRepository idempotencyRecordRepository;
+  private final IdempotencyProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  private final Cache<String, IdempotencyRecord> responses;
+  private final ConcurrentMap<String, CompletableFuture<IdempotencyRecord>> inFlight =
+      new ConcurrentHashMap<>();
+
+  public IdempotencyStore(
+      IdempotencyRecordRepository idempotencyRecordRepository,
+      IdempotencyProperties properties,
+      MeterRegistry meterRegistry) {
+    this.idempotencyRecordRepository = idempotencyRecordRepository;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.responses =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getMaxCachedResponses())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency.responses");
+  }
+
+  /**
+   * Returns the stored response for the key, or runs the request and stores its response.
+   *
+   * @param key the client supplied idempotency key
+   * @param requestBody the request, to recognise a key that is reused for another request
+   * @param request produces the JSON response of the request
+   * @return the response, marked with {@value #REPLAYED_HEADER} when it was not produced now
+   * @throws IdempotencyKeyReusedException if the key was used for a different request
+   * @throws OrderConflictException if the request with this key is still running elsewhere
+   */
+  public ResponseEntity<String> execute(
+      String key, byte[] requestBody, Supplier<ResponseEntity<String>> request) {
+
+    String requestHash = hash(requestBody);
+    IdempotencyRecord stored = findStored(key);
+    if (stored != null) {
+      return replay(stored, requestHash, "replayed");
+    }
+
+    CompletableFuture<IdempotencyRecord> execution = new CompletableFuture<>();
+    CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, execution);
+    if (running != null) {
+      return replay(await(running), requestHash, "joined");
+    }
+
+    boolean claimed = false;
+    try {
+      claimed = claim(key, requestHash);
+      if (!claimed) {
+        IdempotencyRecord claimedElsewhere =
+            idempotencyRecordRepository
+                .findByKeyAndExpiresAtAfter(key, LocalDateTime.now())
+                .orElseThrow(IdempotencyStore::stillRunning);
+        ResponseEntity<String> response = replay(claimedElsewhere, requestHash, "replayed");
+        execution.complete(claimedElsewhere);
+        return response;
+      }
+
+      ResponseEntity<String> response = request.get();
+      claimed = false;
+      IdempotencyRecord idempotencyRecord = toRecord(key, requestHash, response);
+      if (response.getStatusCode().is2xxSuccessful()) {
+        responses.put(key, idempotencyRecord);
+        store(key, idempotencyRecord);
+      } else {
+        release(key);
+      }
+      execution.complete(idempotencyRecord);
+      count("executed");
+      return response;
+    } catch (RuntimeException e) {
+      if (claimed) {
+        release(key);
+      }
+      execution.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, execution);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:1h}")
+  public void deleteExpiredResponses() {
+    int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+    log.debug("Deleted {} expired idempotency records", deleted);
+  }
+
+  private IdempotencyRecord findStored(String key) {
+    IdempotencyRecord cached = responses.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    return idempotencyRecordRepository
+        .findByKeyAndExpiresAtAfter(key, LocalDateTime.now())
+        .map(
+            idempotencyRecord -> {
+              if (!idempotencyRecord.isInProgress()) {
+                responses.put(key, idempotencyRecord);
+              }
+              return idempotencyRecord;
+            })
+        .orElse(null);
+  }
+
+  /** Inserts the claim for the key, freeing it first when its previous use expired. */
+  private boolean claim(String key, String requestHash) {
+    LocalDateTime now = LocalDateTime.now();
+    idempotencyRecordRepository.deleteExpiredOrAbandoned(
+        key, now, now.minus(properties.getClaimTimeout()));
+    try {
+      idempotencyRecordRepository.insertClaim(key, requestHash, now, now.plus(properties.getTtl()));
+      return true;
+    } catch (DataIntegrityViolationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Stores the response in the claimed row. The request already ran, so if that fails the key stays
+   * claimed rather than being released: other instances answer a retry with a conflict until the
+   * claim times out, and this one replays the response from memory.
+   */
+  private void store(String key, IdempotencyRecord idempotencyRecord) {
+    try {
+      idempotencyRecordRepository.complete(
+          key, idempotencyRecord.getStatusCode(), idempotencyRecord.getResponseBody());
+    } catch (RuntimeException e) {
+      log.error("Could not store the response for Idempotency-Key {}", key, e);
+    }
+  }
+
+  private void release(String key) {
+    try {
+      idempotencyRecordRepository.release(key);
+    } catch (RuntimeException e) {
+      log.warn("Could not release Idempotency-Key {}; it is freed after the claim timeout", key, e);
+    }
+  }
+
+  private ResponseEntity<String> replay(
+      IdempotencyRecord idempotencyRecord, String requestHash, String outcome) {
+    if (!requestHash.equals(idempotencyRecord.getRequestHash())) {
+      count("mismatched");
+      throw new IdempotencyKeyReusedException(
+          "Idempotency-Key was already used for a different request.");
+    }
+    if (idempotencyRecord.isInProgress()) {
+      count("in_progress");
+      throw stillRunning();
+    }
+    return toResponse(idempotencyRecord, outcome);
+  }
+
+  private static OrderConflictException stillRunning() {
+    return new OrderConflictException(
+        "A request with this Idempotency-Key is still being processed.");
+  }
+
+  private static String hash(byte[] requestBody) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(requestBody));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running) {
+    try {
+      return running.get(properties.getJoinTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      count("in_progress");
+      throw stillRunning();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw stillRunning();
+    }
+  }
+
+  private IdempotencyRecord toRecord(
+      String key, String requestHash, ResponseEntity<String> response) {
+    LocalDateTime now = LocalDateTime.now();
+    return new IdempotencyRecord(
+        key,
+        requestHash,
+        response.getStatusCode().value(),
+        response.getBody(),
+        now,
+        now.plus(properties.getTtl()));
+  }
+
+  private ResponseEntity<String> toResponse(IdempotencyRecord idempotencyRecord, String outcome) {
+    count(outcome);
+    HttpStatusCode status = HttpStatus.valueOf(idempotencyRecord.getStatusCode());
+    return ResponseEntity.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(REPLAYED_HEADER, "true")
+        .body(idempotencyRecord.getResponseBody());
+  }
+
+  private void count(String outcome) {
+    meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+  }
+}
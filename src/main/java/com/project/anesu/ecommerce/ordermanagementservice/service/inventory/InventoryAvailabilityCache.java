@@ -0,0 +1,111 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.inventory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.InventoryRequestMerger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers, per product, an upper bound for the available stock that was learned from rejected
+ * inventory requests. Orders asking for more than that bound can be rejected without calling the
+ * Inventory Service.
+ *
+ * <p>The cache only ever knows that stock is <em>insufficient</em>; it is never used to accept an
+ * order. Every accepted deduction and every returned inventory invalidates the affected products,
+ * and entries expire after {@code inventory.availability-cache.ttl} to pick up restocking.
+ */
+@Component
+public class InventoryAvailabilityCache {
+
+  private final InventoryAvailabilityCacheProperties properties;
+  private final Cache<Long, StockLimit> stockLimits;
+
+  private final Counter shortCircuits;
+  private final Timer staleness;
+
+  public InventoryAvailabilityCache(
+      InventoryAvailabilityCacheProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.stockLimits =
+        Caffeine.newBuilder()
+            .expireAfterWrite(properties.getTtl())
+            .maximumSize(properties.getMaxSize())
+            .recordStats()
+            .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, stockLimits, "inventory.availability");
+    this.shortCircuits =
+        Counter.builder("inventory.availability.short.circuits")
+            .description("Orders rejected from the cache without calling the Inventory Service")
+            .register(meterRegistry);
+    this.staleness =
+        Timer.builder("inventory.availability.staleness")
+            .description("Age of a stock limit at the time it rejected an order")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Returns the first product of the request that is known to have less stock than requested.
+   *
+   * @param batchOrderRequest the product ids and quantities to deduct
+   * @return the product id that cannot be fulfilled, or empty if the Inventory Service has to
+   *     decide
+   */
+  public Optional<Long> findUnfulfillableProduct(List<Map<String, Object>> batchOrderRequest) {
+    if (!properties.isEnabled()) {
+      return Optional.empty();
+    }
+
+    for (Map<String, Object> orderItemData :
+        InventoryRequestMerger.merge(List.of(batchOrderRequest))) {
+      Long productId = (Long) orderItemData.get("productId");
+      StockLimit stockLimit = stockLimits.getIfPresent(productId);
+
+      if (stockLimit != null
+          && (Integer) orderItemData.get("quantity") > stockLimit.maxAvailable()) {
+        shortCircuits.increment();
+        staleness.record(Duration.ofNanos(System.nanoTime() - stockLimit.learnedAtNanos()));
+        return Optional.of(productId);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Learns from a rejected request. Only requests for a single product are conclusive: that product
+   * has less stock than was requested.
+   */
+  public void recordRejected(List<Map<String, Object>> batchOrderRequest) {
+    List<Map<String, Object>> perProduct = InventoryRequestMerger.merge(List.of(batchOrderRequest));
+    if (!properties.isEnabled() || perProduct.size() != 1) {
+      return;
+    }
+
+    Long productId = (Long) perProduct.getFirst().get("productId");
+    int maxAvailable = (Integer) perProduct.getFirst().get("quantity") - 1;
+
+    stockLimits
+        .asMap()
+        .merge(
+            productId,
+            new StockLimit(maxAvailable, System.nanoTime()),
+            (known, learned) -> known.maxAvailable() <= learned.maxAvailable() ? known : learned);
+  }
+
+  /** Forgets the stock limits of all products in the request, whose stock has just changed. */
+  public void invalidate(List<Map<String, Object>> batchOrderRequest) {
+    for (Map<String, Object> orderItemData : batchOrderRequest) {
+      stockLimits.invalidate((Long) orderItemData.get("productId"));
+    }
+  }
+
+  private record StockLimit(int maxAvailable, long learnedAtNanos) {}
+}
@@ -0,0 +1,21 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.inventory;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.availability-cache")
+public class InventoryAvailabilityCacheProperties {
+
+  /** Whether orders are checked against known stock limits before calling the inventory. */
+  private boolean enabled = true;
+
+  /** How long a learned stock limit is trusted. */
+  private Duration ttl = Duration.ofSeconds(30);
+
+  /** Maximum number of products with a known stock limit. */
+  private long maxSize = 10_000;
+}
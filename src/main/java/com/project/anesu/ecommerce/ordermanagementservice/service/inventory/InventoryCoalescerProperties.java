@@ -0,0 +1,30 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.inventory;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.coalescer")
+public class InventoryCoalescerProperties {
+
+  /** Whether concurrent validate-and-deduct requests are merged before being sent. */
+  private boolean enabled = true;
+
+  /** How long the first request of a batch waits for others to join it. */
+  private Duration window = Duration.ofMillis(2);
+
+  /** Maximum number of requests merged into one inventory call. */
+  private int maxBatchSize = 50;
+
+  /** Maximum number of merged inventory calls in flight at the same time. */
+  private int maxInFlightBatches = 4;
+
+  /** Maximum number of requests waiting for a batch; further requests are rejected. */
+  private int maxQueuedRequests = 1000;
+
+  /** How long a caller waits for the response to its request before giving up. */
+  private Duration requestTimeout = Duration.ofSeconds(10);
+}
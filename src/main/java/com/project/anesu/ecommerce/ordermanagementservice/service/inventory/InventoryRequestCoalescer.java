@@ -0,0 +1,368 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.inventory;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryUnavailableException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.InventoryRequestMerger;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Collects concurrent validate-and-deduct requests for a short window and sends them to the
+ * inventory service as one merged request.
+ *
+ * <p>When the merged request is accepted every waiting caller receives its response. When it is
+ * rejected, the requests of that batch are sent again one by one, so that each caller gets the
+ * result of its own items.
+ *
+ * <p>A new batch is only cut once one of the {@code maxInFlightBatches} slots is free, so under
+ * load requests keep accumulating into the next batch instead of queueing up as single-request
+ * batches. The queue is bounded by {@code maxQueuedRequests} and callers wait at most {@code
+ * requestTimeout}; both fail with an {@link InventoryUnavailableException}, as does every request
+ * that is still waiting when the coalescer shuts down. A caller that times out after its request
+ * was sent does not create an order, so if the deduction is accepted anyway its items are queued in
+ * the inventory return outbox.
+ *
+ * <p>Requests are only queued while the inventory circuit breaker and bulkhead would let a call
+ * through; otherwise they fail straight away instead of waiting in the queue for a call that is
+ * going to be rejected. Requests resent one by one are sent concurrently, each through the
+ * bulkhead, so that the resends do not hold up the in-flight slot of their batch.
+ */
+@Slf4j
+@Component
+public class InventoryRequestCoalescer {
+
+  private final InventoryClient inventoryClient;
+  private final InventoryReturnOutboxRepository inventoryReturnOutboxRepository;
+  private final InventoryCoalescerProperties properties;
+  private final CircuitBreaker inventoryCircuitBreaker;
+  private final Bulkhead inventoryBulkhead;
+
+  private final BlockingQueue<PendingRequest> queue;
+  private final ExecutorService dispatchExecutor;
+  private final Semaphore inFlightBatches;
+  private final Thread flusher;
+  private volatile boolean running = true;
+
+  private final DistributionSummary batchSize;
+  private final Timer window;
+  private final Counter fallbacks;
+  private final Counter abandonedDeductions;
+
+  public InventoryRequestCoalescer(
+      InventoryClient inventoryClient,
+      InventoryReturnOutboxRepository inventoryReturnOutboxRepository,
+      InventoryCoalescerProperties properties,
+      MeterRegistry meterRegistry,
+      @Qualifier("inventoryExecutor") ExecutorService inventoryExecutor,
+      CircuitBreaker inventoryCircuitBreaker,
+      Bulkhead inventoryBulkhead) {
+    this.inventoryClient = inventoryClient;
+    this.inventoryReturnOutboxRepository = inventoryReturnOutboxRepository;
+    this.properties = properties;
+    this.inventoryCircuitBreaker = inventoryCircuitBreaker;
+    this.inventoryBulkhead = inventoryBulkhead;
+    this.queue = new LinkedBlockingQueue<>(properties.getMaxQueuedRequests());
+
+    this.batchSize =
+        DistributionSummary.builder("inventory.coalescer.batch.size")
+            .description("Number of requests merged into one inventory call")
+            .register(meterRegistry);
+    this.window =
+        Timer.builder("inventory.coalescer.window")
+            .description("Time spent collecting a batch before it is sent")
+            .register(meterRegistry);
+    this.fallbacks =
+        Counter.builder("inventory.coalescer.fallbacks")
+            .description("Rejected batches that were resent request by request")
+            .register(meterRegistry);
+    this.abandonedDeductions =
+        Counter.builder("inventory.coalescer.abandoned")
+            .description("Deductions accepted after their caller gave up, queued for return")
+            .register(meterRegistry);
+    Gauge.builder("inventory.coalescer.queue.depth", queue, BlockingQueue::size)
+        .description("Requests waiting to be added to a batch")
+        .register(meterRegistry);
+    Gauge.builder("inventory.coalescer.window.configured", properties, p -> p.getWindow().toNanos())
+        .description("Configured batching window in nanoseconds")
+        .register(meterRegistry);
+
+    this.dispatchExecutor = inventoryExecutor;
+    this.inFlightBatches = new Semaphore(properties.getMaxInFlightBatches());
+    this.flusher = new Thread(this::collectBatches, "inventory-coalescer");
+    this.flusher.setDaemon(true);
+    if (properties.isEnabled()) {
+      this.flusher.start();
+    }
+  }
+
+  /**
+   * Validates and deducts the given order items, possibly together with concurrent requests.
+   *
+   * @param batchOrderRequest the product ids and quantities to deduct
+   * @return the inventory response for these items
+   */
+  public ResponseEntity<String> validateAndDeduct(List<Map<String, Object>> batchOrderRequest) {
+
+    if (!properties.isEnabled()) {
+      return post(batchOrderRequest);
+    }
+
+    checkPermission();
+    PendingRequest pendingRequest = new PendingRequest(batchOrderRequest);
+    if (!running) {
+      throw shutDown();
+    }
+    if (!queue.offer(pendingRequest)) {
+      throw new InventoryUnavailableException("Too many inventory requests waiting to be sent");
+    }
+    if (!running && queue.remove(pendingRequest)) {
+      throw shutDown();
+    }
+
+    try {
+      return pendingRequest.result.get(
+          properties.getRequestTimeout().toNanos(), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      throw failureOf(e);
+    } catch (TimeoutException e) {
+      // A request that has not been sent yet is skipped; the deduction of one already sent is
+      // returned once it is accepted, see complete().
+      if (!pendingRequest.result.completeExceptionally(e)) {
+        return resultOf(pendingRequest);
+      }
+      throw new InventoryUnavailableException("Timed out waiting for the Inventory Service", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      if (!pendingRequest.result.completeExceptionally(e)) {
+        return resultOf(pendingRequest);
+      }
+      throw new InventoryUnavailableException("Interrupted waiting for the Inventory Service", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    flusher.interrupt();
+
+    List<PendingRequest> pending = new ArrayList<>();
+    queue.drainTo(pending);
+    fail(pending, shutDown());
+  }
+
+  private void collectBatches() {
+    while (running) {
+      try {
+        inFlightBatches.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      List<PendingRequest> batch = new ArrayList<>();
+      try {
+        collect(batch);
+        dispatchExecutor.execute(
+            () -> {
+              try {
+                send(batch);
+              } finally {
+                inFlightBatches.release();
+              }
+            });
+      } catch (InterruptedException e) {
+        inFlightBatches.release();
+        fail(batch, shutDown());
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        // Also covers a dispatch executor that rejects the batch; the collector keeps running.
+        log.warn("Dispatching inventory batch failed: {}", e.getMessage());
+        inFlightBatches.release();
+        fail(batch, new InventoryUnavailableException("Inventory request could not be sent", e));
+      }
+    }
+  }
+
+  private void collect(List<PendingRequest> batch) throws InterruptedException {
+    batch.add(queue.take());
+    queue.drainTo(batch, properties.getMaxBatchSize() - 1);
+
+    long start = System.nanoTime();
+    long deadline = start + properties.getWindow().toNanos();
+
+    while (batch.size() < properties.getMaxBatchSize()) {
+      PendingRequest next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+
+    window.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    batchSize.record(batch.size());
+  }
+
+  private void send(List<PendingRequest> allRequests) {
+
+    // Callers that gave up waiting no longer get their items deducted.
+    List<PendingRequest> batch =
+        allRequests.stream().filter(pendingRequest -> !pendingRequest.result.isDone()).toList();
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    if (batch.size() == 1) {
+      PendingRequest pendingRequest = batch.getFirst();
+      complete(pendingRequest, () -> post(pendingRequest.batchOrderRequest));
+      return;
+    }
+
+    List<List<Map<String, Object>>> requests = new ArrayList<>();
+    for (PendingRequest pendingRequest : batch) {
+      requests.add(pendingRequest.batchOrderRequest);
+    }
+
+    try {
+      ResponseEntity<String> response = post(InventoryRequestMerger.merge(requests));
+      if (response.getStatusCode() == HttpStatus.OK) {
+        batch.forEach(pendingRequest -> complete(pendingRequest, response));
+        return;
+      }
+    } catch (HttpClientErrorException e) {
+      log.debug("Merged inventory request was rejected: {}", e.getMessage());
+    } catch (RuntimeException e) {
+      batch.forEach(pendingRequest -> pendingRequest.result.completeExceptionally(e));
+      return;
+    }
+
+    fallbacks.increment();
+    for (PendingRequest pendingRequest : batch) {
+      try {
+        dispatchExecutor.execute(
+            () -> complete(pendingRequest, () -> post(pendingRequest.batchOrderRequest)));
+      } catch (RuntimeException e) {
+        pendingRequest.result.completeExceptionally(
+            new InventoryUnavailableException("Inventory request could not be sent", e));
+      }
+    }
+  }
+
+  /**
+   * Fails fast while the circuit is open or the bulkhead is full. The permissions are only probed
+   * and given back right away; the actual call acquires them again when it is sent.
+   */
+  private void checkPermission() {
+    if (!inventoryCircuitBreaker.tryAcquirePermission()) {
+      throw new InventoryUnavailableException("Inventory Service circuit is open");
+    }
+    inventoryCircuitBreaker.releasePermission();
+
+    if (!inventoryBulkhead.tryAcquirePermission()) {
+      throw new InventoryUnavailableException("Too many concurrent Inventory Service calls");
+    }
+    inventoryBulkhead.onComplete();
+  }
+
+  private void complete(PendingRequest pendingRequest, Supplier<ResponseEntity<String>> call) {
+    ResponseEntity<String> response;
+    try {
+      response = call.get();
+    } catch (RuntimeException e) {
+      pendingRequest.result.completeExceptionally(e);
+      return;
+    }
+    complete(pendingRequest, response);
+  }
+
+  /**
+   * Hands the response to the caller. If the caller already gave up, an accepted deduction is not
+   * going to be followed by an order, so its items are queued for return to the inventory.
+   */
+  private void complete(PendingRequest pendingRequest, ResponseEntity<String> response) {
+    if (pendingRequest.result.complete(response) || response.getStatusCode() != HttpStatus.OK) {
+      return;
+    }
+
+    List<InventoryReturnOutbox> inventoryReturns = new ArrayList<>();
+    for (Map<String, Object> orderItemData : pendingRequest.batchOrderRequest) {
+      inventoryReturns.add(
+          InventoryReturnOutbox.of(
+              null,
+              (Long) orderItemData.get("productId"),
+              (Integer) orderItemData.get("quantity")));
+    }
+    try {
+      inventoryReturnOutboxRepository.saveAll(inventoryReturns);
+      abandonedDeductions.increment();
+    } catch (RuntimeException e) {
+      log.error("Could not queue the return of abandoned deduction {}", inventoryReturns, e);
+    }
+  }
+
+  private static ResponseEntity<String> resultOf(PendingRequest pendingRequest) {
+    try {
+      return pendingRequest.result.get();
+    } catch (ExecutionException e) {
+      throw failureOf(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InventoryUnavailableException("Interrupted waiting for the Inventory Service", e);
+    }
+  }
+
+  private static RuntimeException failureOf(ExecutionException e) {
+    if (e.getCause() instanceof RuntimeException cause) {
+      return cause;
+    }
+    return new InventoryUnavailableException("Inventory request failed", e.getCause());
+  }
+
+  private static void fail(List<PendingRequest> batch, RuntimeException failure) {
+    batch.forEach(pendingRequest -> pendingRequest.result.completeExceptionally(failure));
+  }
+
+  private static InventoryUnavailableException shutDown() {
+    return new InventoryUnavailableException("Inventory request coalescer is shut down");
+  }
+
+  private ResponseEntity<String> post(List<Map<String, Object>> batchOrderRequest) {
+    return inventoryClient.validateAndDeduct(batchOrderRequest);
+  }
+
+  private static final class PendingRequest {
+
+    private final List<Map<String, Object>> batchOrderRequest;
+    private final CompletableFuture<ResponseEntity<String>> result = new CompletableFuture<>();
+
+    private PendingRequest(List<Map<String, Object>> batchOrderRequest) {
+      this.batchOrderRequest = batchOrderRequest;
+    }
+  }
+}
@@ -0,0 +1,590 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.journal;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEvent;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.SyncFailedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Append-only journal of order lifecycle events, written through memory-mapped segment files.
+ *
+ * <p>A record is a 4-byte body length, a CRC32 of the body and the body: event type code, order id,
+ * timestamp in epoch milliseconds, status code, detail length and the UTF-8 detail. The codes are
+ * the stable {@link OrderEventType#getCode()} and {@link OrderStatus#getCode()}, so reordering
+ * either enum does not change the meaning of existing records. The offset of a record is its
+ * position across all segments; every segment file is named after the offset of its first record. A
+ * new segment is started when the next record does not fit into the current one.
+ *
+ * <p>Appends only copy the record into the mapped segment. A single sync thread forces written
+ * records to disk and every append that arrived while a force was running is covered by the next
+ * one (group commit). With {@code sync-on-append} an append returns once its record is on disk, and
+ * fails if that takes longer than {@code sync-timeout} or the sync thread failed.
+ *
+ * <p>On startup the last segment is scanned up to its last intact record; a record torn by a crash
+ * is cut off and overwritten by the next append.
+ */
+@Slf4j
+@Component
+public class OrderJournal {
+
+  /** Bytes in front of the record body: body length and CRC32 of the body. */
+  public static final int HEADER_SIZE = 8;
+
+  /** Bytes of the body without the detail: type, order id, timestamp, status, detail length. */
+  public static final int FIXED_BODY_SIZE = 1 + 8 + 8 + 1 + 2;
+
+  /** Longer details, such as cancellation reasons, are cut off after this many characters. */
+  public static final int MAX_DETAIL_LENGTH = 1024;
+
+  private static final int MAX_RECORD_SIZE = HEADER_SIZE + FIXED_BODY_SIZE + 3 * MAX_DETAIL_LENGTH;
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final byte NO_STATUS = -1;
+
+  private final OrderJournalProperties properties;
+  private final int segmentSize;
+  private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final Object syncerMonitor = new Object();
+  private final Object syncedMonitor = new Object();
+
+  private FileChannel lockChannel;
+  private FileLock directoryLock;
+  private Segment current;
+  private long writeOffset;
+  private long appendedRecords;
+  private volatile long writtenOffset;
+  private long syncedOffset;
+  private Thread syncer;
+  private volatile boolean running;
+  private volatile RuntimeException syncFailure;
+
+  private final Counter appends;
+  private final Counter failures;
+  private final Timer syncs;
+  private final DistributionSummary recordsPerSync;
+
+  public OrderJournal(OrderJournalProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.segmentSize = Math.toIntExact(properties.getSegmentSize().toBytes());
+    if (segmentSize < MAX_RECORD_SIZE) {
+      throw new IllegalStateException(
+          "order.journal.segment-size must be at least %d bytes.".formatted(MAX_RECORD_SIZE));
+    }
+
+    this.appends =
+        Counter.builder("order.journal.appends")
+            .description("Order events appended to the journal")
+            .register(meterRegistry);
+    this.failures =
+        Counter.builder("order.journal.failures")
+            .description("Order events of committed changes that could not be journaled")
+            .register(meterRegistry);
+    this.syncs =
+        Timer.builder("order.journal.syncs")
+            .description("Time spent forcing journal records to disk")
+            .register(meterRegistry);
+    this.recordsPerSync =
+        DistributionSummary.builder("order.journal.sync.records")
+            .description("Journal records made durable by one force")
+            .register(meterRegistry);
+
+    if (properties.isEnabled()) {
+      open();
+    }
+  }
+
+  /**
+   * Appends an event to the journal.
+   *
+   * @param type the kind of event
+   * @param orderId the ID of the order
+   * @param orderStatus the status of the order after the event, or {@code null}
+   * @param detail cancellation reason or address, or {@code null}
+   * @return the offset of the appended record, or {@code -1} if the journal is disabled
+   * @throws UncheckedIOException if the record could not be synced to disk in time
+   */
+  public long append(OrderEventType type, long orderId, OrderStatus orderStatus, String detail) {
+    if (!properties.isEnabled()) {
+      return -1;
+    }
+
+    byte[] detailBytes = encode(detail);
+    int bodySize = FIXED_BODY_SIZE + detailBytes.length;
+    int recordSize = HEADER_SIZE + bodySize;
+    long offset;
+
+    appendLock.lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException("The order journal is closed.");
+      }
+      if (syncFailure != null) {
+        throw new UncheckedIOException(syncFailed("The order journal sync thread failed"));
+      }
+      if (writeOffset - current.baseOffset + recordSize > segmentSize) {
+        roll();
+      }
+
+      int position = (int) (writeOffset - current.baseOffset);
+      int body = position + HEADER_SIZE;
+      MappedByteBuffer buffer = current.buffer;
+      buffer.put(body, (byte) type.getCode());
+      buffer.putLong(body + 1, orderId);
+      buffer.putLong(body + 9, System.currentTimeMillis());
+      buffer.put(body + 17, orderStatus == null ? NO_STATUS : (byte) orderStatus.getCode());
+      buffer.putShort(body + 18, (short) detailBytes.length);
+      buffer.put(body + FIXED_BODY_SIZE, detailBytes);
+      buffer.putInt(position + 4, checksum(buffer, body, bodySize));
+      buffer.putInt(position, bodySize);
+
+      offset = writeOffset;
+      writeOffset += recordSize;
+      appendedRecords++;
+      writtenOffset = writeOffset;
+    } finally {
+      appendLock.unlock();
+    }
+
+    appends.increment();
+    synchronized (syncerMonitor) {
+      syncerMonitor.notify();
+    }
+    if (properties.isSyncOnAppend()) {
+      awaitSynced(offset + recordSize);
+    }
+    return offset;
+  }
+
+  /**
+   * Appends an event once the current transaction has committed, or right away when there is no
+   * transaction, so that rolled back changes never show up in the journal. The change is already
+   * committed when the event is appended, so a failing append is logged and counted instead of
+   * failing the caller.
+   */
+  public void appendAfterCommit(
+      OrderEventType type, Long orderId, OrderStatus orderStatus, String detail) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      appendCommitted(type, orderId, orderStatus, detail);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            appendCommitted(type, orderId, orderStatus, detail);
+          }
+        });
+  }
+
+  /**
+   * Passes every event from the given offset up to the last appended one to the consumer, in
+   * journal order. Events are read from the segment files, so the journal can be replayed while it
+   * is being written.
+   *
+   * @param fromOffset {@code 0}, the offset of an event, or the result of an earlier replay
+   * @param consumer receives the events
+   * @return the offset to continue replaying from
+   * @throws IllegalArgumentException if no record starts at {@code fromOffset}
+   */
+  public long replay(long fromOffset, Consumer<OrderEvent> consumer) {
+    long limit = writtenOffset;
+    Map.Entry<Long, Path> first = segments.floorEntry(fromOffset);
+    if (first == null || fromOffset > limit) {
+      throw new IllegalArgumentException("No journal record starts at offset " + fromOffset);
+    }
+
+    long offset = fromOffset;
+    for (Map.Entry<Long, Path> segment : segments.tailMap(first.getKey(), true).entrySet()) {
+      long baseOffset = segment.getKey();
+      if (offset >= limit) {
+        break;
+      }
+      if (offset < baseOffset) {
+        log.warn("Order journal ends at offset {} before segment {}", offset, baseOffset);
+        break;
+      }
+
+      try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+        int end = (int) Math.min(channel.size(), limit - baseOffset);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+        int position = (int) (offset - baseOffset);
+
+        while (position < end) {
+          int recordSize = recordSize(buffer, position, end);
+          if (recordSize == 0) {
+            if (baseOffset + position == fromOffset) {
+              throw new IllegalArgumentException(
+                  "No journal record starts at offset " + fromOffset);
+            }
+            break;
+          }
+          consumer.accept(read(buffer, baseOffset, position));
+          position += recordSize;
+        }
+        offset = baseOffset + position;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return offset;
+  }
+
+  /** Offset the next appended event will get. */
+  public long endOffset() {
+    return writtenOffset;
+  }
+
+  @PreDestroy
+  public void close() {
+    appendLock.lock();
+    try {
+      if (!running) {
+        return;
+      }
+      running = false;
+    } finally {
+      appendLock.unlock();
+    }
+
+    synchronized (syncerMonitor) {
+      syncerMonitor.notifyAll();
+    }
+    try {
+      syncer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    current.buffer.force();
+    markSynced(writeOffset);
+    try {
+      current.channel.close();
+      directoryLock.release();
+      lockChannel.close();
+    } catch (IOException e) {
+      log.warn("Could not close the order journal", e);
+    }
+  }
+
+  private void appendCommitted(
+      OrderEventType type, Long orderId, OrderStatus orderStatus, String detail) {
+    try {
+      append(type, orderId, orderStatus, detail);
+    } catch (RuntimeException e) {
+      failures.increment();
+      log.error("Could not journal {} of order {} ({})", type, orderId, orderStatus, e);
+    }
+  }
+
+  private void open() {
+    Path directory = properties.getDirectory();
+    try {
+      Files.createDirectories(directory);
+      lockChannel =
+          FileChannel.open(
+              directory.resolve("journal.lock"),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE);
+      directoryLock = lockChannel.tryLock();
+      if (directoryLock == null) {
+        closeQuietly(lockChannel);
+        throw new IllegalStateException("Order journal " + directory + " is in use.");
+      }
+
+      try (Stream<Path> files = Files.list(directory)) {
+        files
+            .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+            .forEach(file -> segments.put(baseOffsetOf(file), file));
+      }
+
+      if (segments.isEmpty()) {
+        current = openSegment(0);
+        writeOffset = 0;
+      } else {
+        current = openSegment(segments.lastKey());
+        writeOffset = current.baseOffset + recover(current);
+      }
+    } catch (OverlappingFileLockException e) {
+      closeQuietly(lockChannel);
+      throw new IllegalStateException("Order journal " + directory + " is in use.", e);
+    } catch (IOException e) {
+      closeQuietly(lockChannel);
+      throw new UncheckedIOException(e);
+    }
+
+    writtenOffset = writeOffset;
+    syncedOffset = writeOffset;
+    current.syncedPosition = (int) (writeOffset - current.baseOffset);
+    running = true;
+
+    long recoveredOffset = writeOffset;
+    syncer = new Thread(() -> syncContinuously(recoveredOffset), "order-journal-sync");
+    syncer.setDaemon(true);
+    syncer.start();
+  }
+
+  /** Returns the end of the last intact record and clears whatever follows it. */
+  private static int recover(Segment segment) {
+    MappedByteBuffer buffer = segment.buffer;
+    int limit = buffer.capacity();
+    int position = 0;
+    int recordSize;
+    while ((recordSize = recordSize(buffer, position, limit)) > 0) {
+      position += recordSize;
+    }
+
+    if (position + 4 <= limit && buffer.getInt(position) != 0) {
+      log.warn("Discarding torn order journal record at offset {}", segment.baseOffset + position);
+      for (int i = position; i < limit; i++) {
+        buffer.put(i, (byte) 0);
+      }
+      buffer.force();
+    }
+    return position;
+  }
+
+  private void roll() {
+    Segment previous = current;
+    previous.buffer.force();
+    markSynced(writeOffset);
+    try {
+      previous.channel.close();
+      current = openSegment(writeOffset);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Segment openSegment(long baseOffset) throws IOException {
+    Path file = properties.getDirectory().resolve("%020d%s".formatted(baseOffset, SEGMENT_SUFFIX));
+    FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = Math.max(channel.size(), segmentSize);
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    segments.put(baseOffset, file);
+    return new Segment(baseOffset, channel, buffer);
+  }
+
+  private void syncContinuously(long lastSynced) {
+    try {
+      syncUntilClosed(lastSynced);
+    } catch (RuntimeException | Error e) {
+      log.error("Order journal sync thread failed", e);
+      syncFailure =
+          e instanceof RuntimeException runtimeException
+              ? runtimeException
+              : new IllegalStateException(e);
+      synchronized (syncedMonitor) {
+        syncedMonitor.notifyAll();
+      }
+      if (e instanceof Error error) {
+        throw error;
+      }
+    }
+  }
+
+  private void syncUntilClosed(long lastSynced) {
+    while (true) {
+      synchronized (syncerMonitor) {
+        while (running && writtenOffset <= lastSynced) {
+          try {
+            syncerMonitor.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+      if (!running) {
+        return;
+      }
+
+      Segment segment;
+      long target;
+      long records;
+      appendLock.lock();
+      try {
+        segment = current;
+        target = writeOffset;
+        records = appendedRecords;
+        appendedRecords = 0;
+      } finally {
+        appendLock.unlock();
+      }
+
+      long start = System.nanoTime();
+      int from = Math.max(segment.syncedPosition, 0);
+      int to = (int) (target - segment.baseOffset);
+      if (to > from) {
+        segment.buffer.force(from, to - from);
+        segment.syncedPosition = to;
+      }
+      syncs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      recordsPerSync.record(records);
+
+      markSynced(target);
+      lastSynced = target;
+    }
+  }
+
+  private void markSynced(long offset) {
+    synchronized (syncedMonitor) {
+      if (offset > syncedOffset) {
+        syncedOffset = offset;
+        syncedMonitor.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until the journal is synced up to the offset. Throws instead of returning when the sync
+   * thread failed, the sync takes longer than {@code sync-timeout} or the thread is interrupted, as
+   * the record may then not be durable.
+   */
+  private void awaitSynced(long offset) {
+    long deadline = System.nanoTime() + properties.getSyncTimeout().toNanos();
+    synchronized (syncedMonitor) {
+      while (syncedOffset < offset) {
+        if (syncFailure != null) {
+          throw new UncheckedIOException(syncFailed("The order journal sync thread failed"));
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw new UncheckedIOException(
+              syncFailed(
+                  "Order journal record was not synced within " + properties.getSyncTimeout()));
+        }
+        try {
+          TimeUnit.NANOSECONDS.timedWait(syncedMonitor, remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new UncheckedIOException(syncFailed("Interrupted while syncing the order journal"));
+        }
+      }
+    }
+  }
+
+  private SyncFailedException syncFailed(String message) {
+    SyncFailedException exception = new SyncFailedException(message);
+    exception.initCause(syncFailure);
+    return exception;
+  }
+
+  /** Size of the record at the given position, or {@code 0} at the end or at a broken record. */
+  private static int recordSize(ByteBuffer buffer, int position, int limit) {
+    if (position + HEADER_SIZE > limit) {
+      return 0;
+    }
+    int bodySize = buffer.getInt(position);
+    if (bodySize < FIXED_BODY_SIZE || bodySize > limit - position - HEADER_SIZE) {
+      return 0;
+    }
+    int body = position + HEADER_SIZE;
+    int detailLength = Short.toUnsignedInt(buffer.getShort(body + 18));
+    if (FIXED_BODY_SIZE + detailLength != bodySize
+        || buffer.getInt(position + 4) != checksum(buffer, body, bodySize)) {
+      return 0;
+    }
+    return HEADER_SIZE + bodySize;
+  }
+
+  private static OrderEvent read(ByteBuffer buffer, long baseOffset, int position) {
+    int body = position + HEADER_SIZE;
+    byte status = buffer.get(body + 17);
+    int detailLength = Short.toUnsignedInt(buffer.getShort(body + 18));
+
+    String detail = null;
+    if (detailLength > 0) {
+      byte[] detailBytes = new byte[detailLength];
+      buffer.get(body + FIXED_BODY_SIZE, detailBytes);
+      detail = new String(detailBytes, StandardCharsets.UTF_8);
+    }
+
+    return new OrderEvent(
+        baseOffset + position,
+        OrderEventType.fromCode(buffer.get(body)),
+        buffer.getLong(body + 1),
+        Instant.ofEpochMilli(buffer.getLong(body + 9)),
+        status == NO_STATUS ? null : OrderStatus.fromCode(status),
+        detail);
+  }
+
+  private static int checksum(ByteBuffer buffer, int body, int bodySize) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(body, bodySize));
+    return (int) crc.getValue();
+  }
+
+  private static byte[] encode(String detail) {
+    if (detail == null) {
+      return new byte[0];
+    }
+    String truncated =
+        detail.length() > MAX_DETAIL_LENGTH ? detail.substring(0, MAX_DETAIL_LENGTH) : detail;
+    return truncated.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("Could not close {}", channel, e);
+    }
+  }
+
+  private static long baseOffsetOf(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static final class Segment {
+
+    private final long baseOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int syncedPosition;
+
+    private Segment(long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+      this.baseOffset = baseOffset;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.journal;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.journal")
+public class OrderJournalProperties {
+
+  /** Whether order lifecycle events are written to the journal. */
+  private boolean enabled = true;
+
+  /** Directory of the journal segment files. */
+  private Path directory = Path.of("journal");
+
+  /** Size of one segment file; a new segment is started when the current one is full. */
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+  /**
+   * Whether an append waits until its record has been forced to disk. Appends arriving while a
+   * force is running share the next one.
+   */
+  private boolean syncOnAppend = true;
+
+  /** Maximum time an append waits for its record to be forced to disk with sync-on-append. */
+  private Duration syncTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,54 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.journal;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionHook;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Writes every status change, and the reason of every cancellation, to the order journal. */
+@Component
+@AllArgsConstructor
+public class OrderJournalTransitionHook implements OrderTransitionHook {
+
+  private final OrderJournal orderJournal;
+
+  @Override
+  public boolean appliesTo(OrderStatus from, OrderStatus to) {
+    return true;
+  }
+
+  @Override
+  public void afterTransition(Order order, OrderStatus from) {
+    if (order.getOrderStatus() == OrderStatus.CANCELLED) {
+      orderJournal.appendAfterCommit(
+          OrderEventType.CANCELLED,
+          order.getId(),
+          OrderStatus.CANCELLED,
+          order.getCancellationReason());
+    } else {
+      orderJournal.appendAfterCommit(
+          OrderEventType.STATUS_CHANGED, order.getId(), order.getOrderStatus(), null);
+    }
+  }
+
+  @Override
+  public boolean supportsBulk() {
+    return true;
+  }
+
+  @Override
+  public void afterBulkTransition(
+      List<Long> orderIds, OrderStatus from, OrderStatus to, String cancellationReason) {
+    for (Long orderId : orderIds) {
+      if (to == OrderStatus.CANCELLED) {
+        orderJournal.appendAfterCommit(
+            OrderEventType.CANCELLED, orderId, OrderStatus.CANCELLED, cancellationReason);
+      } else {
+        orderJournal.appendAfterCommit(OrderEventType.STATUS_CHANGED, orderId, to, null);
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.outbox;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.outbox")
+public class InventoryOutboxProperties {
+
+  /** Whether the relay sends pending inventory returns to the Inventory Service. */
+  private boolean relayEnabled = true;
+
+  /** Delay between the end of one relay run and the start of the next. */
+  private Duration pollInterval = Duration.ofSeconds(1);
+
+  /** Maximum number of outbox rows merged into one inventory return request. */
+  private int batchSize = 100;
+
+  /** Delay before the first retry of a failed return; doubled on every further attempt. */
+  private Duration initialBackoff = Duration.ofSeconds(1);
+
+  /** Upper bound for the retry delay. */
+  private Duration maxBackoff = Duration.ofMinutes(5);
+
+  /** Number of failed attempts after which a return is dead-lettered and no longer retried. */
+  private int maxAttempts = 20;
+}
@@ -0,0 +1,199 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.outbox;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryAvailabilityCache;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.InventoryRequestMerger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Drains the inventory return outbox. Due rows are read in batches, their quantities are merged per
+ * product and sent as one return request.
+ *
+ * <p>Accepted batches are deleted. A batch the Inventory Service rejects with a client error is
+ * split in halves and each half is sent on its own, so that a row rejected for good only holds back
+ * itself; such a row is dead-lettered. Batches that fail otherwise are rescheduled with exponential
+ * backoff, and rows that failed {@link InventoryOutboxProperties#getMaxAttempts()} times are
+ * dead-lettered as well.
+ *
+ * <p>Every return is delivered at least once: the return API has no idempotency key, so a batch
+ * whose response was lost after the Inventory Service applied it is sent, and applied, again.
+ *
+ * <p>The relay assumes a single running instance of the service.
+ */
+@Slf4j
+@Component
+public class InventoryReturnRelay {
+
+  private final InventoryReturnOutboxRepository outboxRepository;
+  private final InventoryClient inventoryClient;
+  private final InventoryOutboxProperties properties;
+  private final InventoryAvailabilityCache inventoryAvailabilityCache;
+
+  private final Counter deliveredRows;
+  private final Counter failedBatches;
+  private final Counter deadLetteredRows;
+
+  public InventoryReturnRelay(
+      InventoryReturnOutboxRepository outboxRepository,
+      InventoryClient inventoryClient,
+      InventoryOutboxProperties properties,
+      InventoryAvailabilityCache inventoryAvailabilityCache,
+      MeterRegistry meterRegistry) {
+    this.outboxRepository = outboxRepository;
+    this.inventoryClient = inventoryClient;
+    this.properties = properties;
+    this.inventoryAvailabilityCache = inventoryAvailabilityCache;
+
+    this.deliveredRows =
+        Counter.builder("inventory.outbox.delivered")
+            .description("Outbox rows returned to the Inventory Service")
+            .register(meterRegistry);
+    this.failedBatches =
+        Counter.builder("inventory.outbox.failures")
+            .description("Return batches that failed and were split up or rescheduled")
+            .register(meterRegistry);
+    this.deadLetteredRows =
+        Counter.builder("inventory.outbox.dead.lettered")
+            .description("Outbox rows that were rejected for good or failed too often")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval:1s}")
+  public void relayPendingReturns() {
+    if (properties.isRelayEnabled()) {
+      relay();
+    }
+  }
+
+  /**
+   * Sends all due outbox rows, one batch at a time, until no due rows are left or rows had to be
+   * rescheduled.
+   *
+   * @return the number of rows that were delivered
+   */
+  public int relay() {
+    RelayRun run = new RelayRun();
+
+    while (!run.rescheduled) {
+      List<InventoryReturnOutbox> batch =
+          outboxRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+              LocalDateTime.now(), Limit.of(properties.getBatchSize()));
+      if (batch.isEmpty()) {
+        break;
+      }
+
+      send(batch, run);
+      if (batch.size() < properties.getBatchSize()) {
+        break;
+      }
+    }
+    return run.delivered;
+  }
+
+  private void send(List<InventoryReturnOutbox> batch, RelayRun run) {
+    try {
+      List<Map<String, Object>> returnRequest = getReturnRequest(batch);
+      ResponseEntity<String> response = inventoryClient.returnInventory(returnRequest);
+      if (response.getStatusCode() == HttpStatus.OK) {
+        inventoryAvailabilityCache.invalidate(returnRequest);
+        outboxRepository.deleteAllInBatch(batch);
+        deliveredRows.increment(batch.size());
+        run.delivered += batch.size();
+        return;
+      }
+      log.warn("Inventory return was not accepted: {}", response.getBody());
+    } catch (HttpClientErrorException e) {
+      if (!isTransient(e)) {
+        failedBatches.increment();
+        reject(batch, run, e);
+        return;
+      }
+      log.warn("Inventory return failed: {}", e.getMessage());
+    } catch (RuntimeException e) {
+      log.warn("Inventory return failed: {}", e.getMessage());
+    }
+
+    failedBatches.increment();
+    reschedule(batch);
+    run.rescheduled = true;
+  }
+
+  /** Sends both halves of a rejected batch on their own, and dead-letters a rejected single row. */
+  private void reject(List<InventoryReturnOutbox> batch, RelayRun run, HttpClientErrorException e) {
+    if (batch.size() == 1) {
+      InventoryReturnOutbox entry = batch.getFirst();
+      log.warn("Inventory return {} was rejected: {}", entry.getId(), e.getMessage());
+      entry.setAttempts(entry.getAttempts() + 1);
+      deadLetter(entry, LocalDateTime.now());
+      outboxRepository.saveAll(batch);
+      return;
+    }
+
+    int half = batch.size() / 2;
+    send(batch.subList(0, half), run);
+    send(batch.subList(half, batch.size()), run);
+  }
+
+  private boolean isTransient(HttpClientErrorException e) {
+    return e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS
+        || e.getStatusCode() == HttpStatus.REQUEST_TIMEOUT;
+  }
+
+  private void reschedule(List<InventoryReturnOutbox> batch) {
+    LocalDateTime now = LocalDateTime.now();
+
+    for (InventoryReturnOutbox entry : batch) {
+      entry.setAttempts(entry.getAttempts() + 1);
+      if (entry.getAttempts() >= properties.getMaxAttempts()) {
+        log.warn("Inventory return {} failed {} times", entry.getId(), entry.getAttempts());
+        deadLetter(entry, now);
+      } else {
+        entry.setNextAttemptAt(now.plus(getBackoff(entry.getAttempts())));
+      }
+    }
+    outboxRepository.saveAll(batch);
+  }
+
+  private void deadLetter(InventoryReturnOutbox entry, LocalDateTime now) {
+    entry.setNextAttemptAt(null);
+    entry.setDeadLetteredAt(now);
+    deadLetteredRows.increment();
+  }
+
+  private Duration getBackoff(int attempts) {
+    Duration backoff =
+        properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+    return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+  }
+
+  private List<Map<String, Object>> getReturnRequest(List<InventoryReturnOutbox> batch) {
+    List<List<Map<String, Object>>> returnRequests = new ArrayList<>();
+
+    for (InventoryReturnOutbox entry : batch) {
+      returnRequests.add(
+          List.of(Map.of("productId", entry.getProductId(), "quantity", entry.getQuantity())));
+    }
+    return InventoryRequestMerger.merge(returnRequests);
+  }
+
+  /** Outcome of one relay run: the rows delivered so far, and whether rows were rescheduled. */
+  private static final class RelayRun {
+    private int delivered;
+    private boolean rescheduled;
+  }
+}
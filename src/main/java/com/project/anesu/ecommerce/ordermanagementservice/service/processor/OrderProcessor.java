@@ -0,0 +1,267 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.processor;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderLeaseRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves placed orders to processing in the background.
+ *
+ * <p>Every run claims a batch of the oldest placed orders by inserting a lease for each of them
+ * into the {@code order_lease} table, so that runs on other threads or instances skip them. The
+ * order rows themselves are left alone, which keeps them in the second-level cache. The claimed
+ * orders are then processed in parallel through {@link OrderService#processPendingOrder}, which
+ * still applies the transition with its usual checks, and their leases are released. Orders that
+ * could not be processed keep their lease until it expires and are picked up by a later run.
+ *
+ * <p>Batch size and worker count are read from {@link OrderProcessorProperties} at the start of
+ * every batch, so changes made at runtime apply to the next batch.
+ */
+@Slf4j
+@Component
+public class OrderProcessor {
+
+  private final OrderRepository orderRepository;
+  private final OrderLeaseRepository orderLeaseRepository;
+  private final OrderService orderService;
+  private final OrderProcessorProperties properties;
+  private final TransactionTemplate transactionTemplate;
+
+  private final String instanceId = UUID.randomUUID().toString();
+  private final AtomicLong claims = new AtomicLong();
+  private final ThreadPoolExecutor workers;
+  private volatile double lagSeconds;
+
+  private final Counter processed;
+  private final Counter claimConflicts;
+  private final Counter failures;
+  private final Timer batches;
+
+  public OrderProcessor(
+      OrderRepository orderRepository,
+      OrderLeaseRepository orderLeaseRepository,
+      OrderService orderService,
+      OrderProcessorProperties properties,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.orderRepository = orderRepository;
+    this.orderLeaseRepository = orderLeaseRepository;
+    this.orderService = orderService;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+    this.workers =
+        new ThreadPoolExecutor(
+            properties.getWorkers(),
+            properties.getWorkers(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            Thread.ofPlatform().name("order-processor-", 0).daemon().factory());
+
+    this.processed =
+        Counter.builder("order.processor.processed")
+            .description("Placed orders moved to processing in the background")
+            .register(meterRegistry);
+    this.claimConflicts =
+        Counter.builder("order.processor.claim.conflicts")
+            .description("Orders that were claimed or changed by someone else first")
+            .register(meterRegistry);
+    this.failures =
+        Counter.builder("order.processor.failures")
+            .description("Claimed orders that could not be processed and keep their lease")
+            .register(meterRegistry);
+    this.batches =
+        Timer.builder("order.processor.batches")
+            .description("Time spent claiming and processing one batch")
+            .register(meterRegistry);
+    Gauge.builder("order.processor.lag", this, processor -> processor.lagSeconds)
+        .description("Age of the oldest placed order at the start of the last run")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    Gauge.builder("order.processor.workers", workers, ThreadPoolExecutor::getMaximumPoolSize)
+        .description("Configured number of processor threads")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${order.processor.poll-interval:1s}")
+  public void processPlacedOrders() {
+    if (properties.isEnabled()) {
+      processClaimableOrders();
+    }
+  }
+
+  /**
+   * Claims and processes placed orders, one batch at a time, until a batch comes back smaller than
+   * the batch size.
+   *
+   * @return the number of orders that were moved to processing
+   */
+  public int processClaimableOrders() {
+    updateLag();
+    int processedOrders = 0;
+
+    while (!Thread.currentThread().isInterrupted()) {
+      int batchSize = properties.getBatchSize();
+      resizeWorkers(properties.getWorkers());
+
+      long start = System.nanoTime();
+      List<Long> candidates =
+          orderRepository.findClaimableIds(
+              OrderStatus.ORDER_PLACED, LocalDateTime.now(), Limit.of(batchSize));
+      if (candidates.isEmpty()) {
+        break;
+      }
+
+      String claimedBy = instanceId + ":" + claims.incrementAndGet();
+      List<Long> claimed = claim(candidates, claimedBy);
+      claimConflicts.increment(candidates.size() - claimed.size());
+      processedOrders += process(claimed, claimedBy);
+      batches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+      if (candidates.size() < batchSize) {
+        break;
+      }
+    }
+    return processedOrders;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Leases the candidates that are still claimable. Expired leases are dropped first; a run that
+   * races another one for the same orders fails on the primary key and leaves them to it.
+   */
+  private List<Long> claim(List<Long> candidates, String claimedBy) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime claimedUntil = now.plus(properties.getLeaseDuration());
+
+    try {
+      return transactionTemplate.execute(
+          status -> {
+            orderLeaseRepository.deleteExpired(now);
+            int claimedCount =
+                orderLeaseRepository.claim(
+                    candidates, OrderStatus.ORDER_PLACED, claimedBy, claimedUntil);
+            return claimedCount == 0
+                ? List.of()
+                : orderLeaseRepository.findOrderIdsByClaimedBy(claimedBy);
+          });
+    } catch (DataIntegrityViolationException e) {
+      log.debug("Orders were claimed by another run at the same time: {}", e.getMessage());
+      return List.of();
+    }
+  }
+
+  private int process(List<Long> orderIds, String claimedBy) {
+    List<Callable<Outcome>> tasks = new ArrayList<>(orderIds.size());
+    for (Long orderId : orderIds) {
+      tasks.add(() -> advance(orderId));
+    }
+
+    int processedOrders = 0;
+    List<Long> done = new ArrayList<>(orderIds.size());
+    try {
+      List<Future<Outcome>> results = workers.invokeAll(tasks);
+      for (int i = 0; i < results.size(); i++) {
+        Outcome outcome = results.get(i).get();
+        if (outcome == Outcome.PROCESSED) {
+          processedOrders++;
+        }
+        if (outcome != Outcome.FAILED) {
+          done.add(orderIds.get(i));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      log.warn("Order processor task failed", e.getCause());
+    }
+    release(claimedBy, done);
+    return processedOrders;
+  }
+
+  private Outcome advance(Long orderId) {
+    try {
+      orderService.processPendingOrder(orderId);
+      processed.increment();
+      return Outcome.PROCESSED;
+    } catch (OrderConflictException e) {
+      claimConflicts.increment();
+      log.debug("Order {} was changed before it could be processed: {}", orderId, e.getMessage());
+      return Outcome.CONFLICT;
+    } catch (RuntimeException e) {
+      failures.increment();
+      log.warn("Could not process order {}: {}", orderId, e.getMessage());
+      return Outcome.FAILED;
+    }
+  }
+
+  private void release(String claimedBy, List<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> orderLeaseRepository.release(claimedBy, orderIds));
+    } catch (RuntimeException e) {
+      log.warn("Could not release order leases of {}; they expire on their own", claimedBy, e);
+    }
+  }
+
+  private void resizeWorkers(int size) {
+    if (size < 1 || size == workers.getMaximumPoolSize()) {
+      return;
+    }
+    if (size > workers.getMaximumPoolSize()) {
+      workers.setMaximumPoolSize(size);
+      workers.setCorePoolSize(size);
+    } else {
+      workers.setCorePoolSize(size);
+      workers.setMaximumPoolSize(size);
+    }
+  }
+
+  private void updateLag() {
+    lagSeconds =
+        orderRepository
+            .findOldestOrderDate(OrderStatus.ORDER_PLACED)
+            .map(orderDate -> Duration.between(orderDate, LocalDateTime.now()).toMillis() / 1000.0)
+            .orElse(0.0);
+  }
+
+  private enum Outcome {
+    PROCESSED,
+    CONFLICT,
+    FAILED
+  }
+}
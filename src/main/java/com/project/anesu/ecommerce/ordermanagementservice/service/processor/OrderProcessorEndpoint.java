@@ -0,0 +1,56 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.processor;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows and changes the batch size and worker count of the {@link OrderProcessor} at runtime, via
+ * {@code GET} and {@code POST /actuator/orderprocessor}. Only reading is allowed by default;
+ * changing the settings has to be enabled with {@code
+ * management.endpoint.orderprocessor.access=unrestricted}, behind access control.
+ */
+@Component
+@AllArgsConstructor
+@Endpoint(id = "orderprocessor", defaultAccess = Access.READ_ONLY)
+public class OrderProcessorEndpoint {
+
+  private final OrderProcessorProperties properties;
+
+  @ReadOperation
+  public Map<String, Object> settings() {
+    return Map.of(
+        "enabled", properties.isEnabled(),
+        "batchSize", properties.getBatchSize(),
+        "workers", properties.getWorkers(),
+        "maxBatchSize", properties.getMaxBatchSize(),
+        "maxWorkers", properties.getMaxWorkers());
+  }
+
+  @WriteOperation
+  public Map<String, Object> updateSettings(
+      @Nullable Integer batchSize, @Nullable Integer workers) {
+    if (batchSize != null && (batchSize < 1 || batchSize > properties.getMaxBatchSize())) {
+      String message =
+          "Batch size must be between 1 and %d.".formatted(properties.getMaxBatchSize());
+      throw new InvalidEndpointRequestException(message, message);
+    }
+    if (workers != null && (workers < 1 || workers > properties.getMaxWorkers())) {
+      String message = "Workers must be between 1 and %d.".formatted(properties.getMaxWorkers());
+      throw new InvalidEndpointRequestException(message, message);
+    }
+    if (batchSize != null) {
+      properties.setBatchSize(batchSize);
+    }
+    if (workers != null) {
+      properties.setWorkers(workers);
+    }
+    return settings();
+  }
+}
@@ -0,0 +1,33 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.processor;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.processor")
+public class OrderProcessorProperties {
+
+  /** Whether placed orders are claimed and moved to processing in the background. */
+  private boolean enabled = false;
+
+  /** Delay between the end of one processor run and the start of the next. */
+  private Duration pollInterval = Duration.ofSeconds(1);
+
+  /** Maximum number of orders claimed at once; can be changed at runtime. */
+  private int batchSize = 100;
+
+  /** Number of threads processing the claimed orders in parallel; can be changed at runtime. */
+  private int workers = 4;
+
+  /** Largest batch size that can be set at runtime. */
+  private int maxBatchSize = 1000;
+
+  /** Largest number of workers that can be set at runtime. */
+  private int maxWorkers = 32;
+
+  /** How long a claim is held; orders of a run that died are claimed again after this. */
+  private Duration leaseDuration = Duration.ofMinutes(1);
+}
@@ -0,0 +1,33 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.rest;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.client")
+public class InventoryClientProperties {
+
+  /** Base URL of the Inventory Service, without a trailing slash. */
+  private String baseUrl = "http://localhost:9091";
+
+  /** Maximum time to establish a TCP connection. */
+  private Duration connectTimeout = Duration.ofSeconds(1);
+
+  /** Maximum time to wait for response data once the request has been sent. */
+  private Duration readTimeout = Duration.ofSeconds(3);
+
+  /** Maximum time to wait for a free connection from the pool. */
+  private Duration poolAcquireTimeout = Duration.ofMillis(500);
+
+  /** Maximum number of pooled connections. */
+  private int maxConnections = 200;
+
+  /** Maximum number of pooled connections to a single inventory node. */
+  private int maxConnectionsPerRoute = 100;
+
+  /** Idle connections are closed after this time. */
+  private Duration idleTimeout = Duration.ofSeconds(30);
+}
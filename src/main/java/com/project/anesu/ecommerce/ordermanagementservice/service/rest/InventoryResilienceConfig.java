@@ -0,0 +1,78 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.rest;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Circuit breaker and bulkhead shared by all calls to the Inventory Service.
+ *
+ * <p>Client errors are rejections of the order itself and are ignored by the circuit breaker;
+ * timeouts, I/O errors and server errors count as failures.
+ */
+@Configuration
+public class InventoryResilienceConfig {
+
+  static final String INVENTORY = "inventory";
+
+  @Bean
+  public CircuitBreaker inventoryCircuitBreaker(
+      InventoryResilienceProperties properties, MeterRegistry meterRegistry) {
+
+    CircuitBreakerConfig config =
+        CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(properties.getSlidingWindowSize())
+            .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+            .failureRateThreshold(properties.getFailureRateThreshold())
+            .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+            .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+            .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+            .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            .ignoreExceptions(HttpClientErrorException.class, BulkheadFullException.class)
+            .build();
+
+    CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+    CircuitBreaker circuitBreaker = registry.circuitBreaker(INVENTORY);
+    circuitBreaker
+        .getEventPublisher()
+        .onStateTransition(
+            event ->
+                Counter.builder("inventory.circuitbreaker.transitions")
+                    .description("State transitions of the Inventory Service circuit breaker")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment());
+    return circuitBreaker;
+  }
+
+  @Bean
+  public Bulkhead inventoryBulkhead(
+      InventoryResilienceProperties properties, MeterRegistry meterRegistry) {
+
+    BulkheadConfig config =
+        BulkheadConfig.custom()
+            .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+            .maxWaitDuration(properties.getMaxWaitDuration())
+            .build();
+
+    BulkheadRegistry registry = BulkheadRegistry.of(config);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+    return registry.bulkhead(INVENTORY);
+  }
+}
@@ -0,0 +1,39 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.rest;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.resilience")
+public class InventoryResilienceProperties {
+
+  /** Percentage of failed calls in the sliding window that opens the circuit. */
+  private float failureRateThreshold = 50;
+
+  /** Calls slower than this are counted as slow. */
+  private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+  /** Percentage of slow calls in the sliding window that opens the circuit. */
+  private float slowCallRateThreshold = 80;
+
+  /** Number of most recent calls the failure and slow-call rates are computed over. */
+  private int slidingWindowSize = 20;
+
+  /** Minimum number of calls in the window before the rates are evaluated. */
+  private int minimumNumberOfCalls = 10;
+
+  /** Time the circuit stays open before probe calls are let through. */
+  private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+  /** Number of probe calls permitted while the circuit is half-open. */
+  private int permittedCallsInHalfOpenState = 3;
+
+  /** Maximum number of concurrent calls to the Inventory Service. */
+  private int maxConcurrentCalls = 50;
+
+  /** Maximum time to wait for a free bulkhead slot; zero rejects immediately. */
+  private Duration maxWaitDuration = Duration.ZERO;
+}
@@ -0,0 +1,80 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.rest;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderValidationEndpoints;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * {@link InventoryClient} backed by the pooled {@link RestTemplate}. Every call is timed per
+ * endpoint and outcome under {@code inventory.client.requests}.
+ *
+ * <p>Calls go through the inventory circuit breaker and bulkhead. When either rejects a call, no
+ * request is sent and an {@link InventoryUnavailableException} is thrown straight away.
+ */
+@Component
+@AllArgsConstructor
+public class RestInventoryClient implements InventoryClient {
+
+  private final RestTemplate restTemplate;
+  private final InventoryClientProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final CircuitBreaker inventoryCircuitBreaker;
+  private final Bulkhead inventoryBulkhead;
+
+  @Override
+  public ResponseEntity<String> validateAndDeduct(List<Map<String, Object>> batchOrderRequest) {
+    return post(OrderValidationEndpoints.VALIDATE_AND_DEDUCT_PRODUCT, batchOrderRequest);
+  }
+
+  @Override
+  public ResponseEntity<String> returnInventory(List<Map<String, Object>> batchOrderRequest) {
+    return post(OrderValidationEndpoints.ADD_RETURNED_INVENTORY, batchOrderRequest);
+  }
+
+  private ResponseEntity<String> post(
+      OrderValidationEndpoints endpoint, List<Map<String, Object>> batchOrderRequest) {
+
+    String url = properties.getBaseUrl() + endpoint.getPath();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "IO_ERROR";
+
+    try {
+      ResponseEntity<String> response =
+          inventoryCircuitBreaker.executeSupplier(
+              () ->
+                  inventoryBulkhead.executeSupplier(
+                      () -> restTemplate.postForEntity(url, batchOrderRequest, String.class)));
+      outcome = response == null ? "UNKNOWN" : String.valueOf(response.getStatusCode().value());
+      return response;
+    } catch (RestClientResponseException e) {
+      outcome = String.valueOf(e.getStatusCode().value());
+      throw e;
+    } catch (CallNotPermittedException e) {
+      outcome = "CIRCUIT_OPEN";
+      throw new InventoryUnavailableException("Inventory Service circuit is open", e);
+    } catch (BulkheadFullException e) {
+      outcome = "BULKHEAD_FULL";
+      throw new InventoryUnavailableException("Too many concurrent Inventory Service calls", e);
+    } finally {
+      sample.stop(
+          Timer.builder("inventory.client.requests")
+              .description("Calls to the Inventory Service")
+              .tag("endpoint", endpoint.name())
+              .tag("outcome", outcome)
+              .register(meterRegistry));
+    }
+  }
+}
@@ -1,14 +1,66 @@
 package com.project.anesu.ecommerce.ordermanagementservice.service.rest;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
+  @Bean(destroyMethod = "close")
+  public PoolingHttpClientConnectionManager inventoryConnectionManager(
+      InventoryClientProperties properties) {
+
+    ConnectionConfig connectionConfig =
+        ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+            .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+            .build();
+
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(properties.getMaxConnections())
+        .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+        .setDefaultConnectionConfig(connectionConfig)
+        .build();
+  }
+
   @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public RestTemplate restTemplate(
+      PoolingHttpClientConnectionManager inventoryConnectionManager,
+      InventoryClientProperties properties) {
+
+    RequestConfig requestConfig =
+        RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(properties.getPoolAcquireTimeout()))
+            .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+            .build();
+
+    CloseableHttpClient httpClient =
+        HttpClients.custom()
+            .setConnectionManager(inventoryConnectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+            .build();
+
+    return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+  }
+
+  @Bean
+  public MeterBinder inventoryConnectionPoolMetrics(
+      PoolingHttpClientConnectionManager inventoryConnectionManager) {
+
+    return new PoolingHttpClientConnectionManagerMetricsBinder(
+        inventoryConnectionManager, "inventory");
   }
 }
@@ -0,0 +1,290 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.stream;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatusEvent;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes order status changes to Server-Sent Events subscribers.
+ *
+ * <p>Publishing never blocks: an event is only offered to the bounded buffer of every matching
+ * subscriber. A small pool of sender threads drains the buffers, at most one thread per subscriber
+ * at a time and at most {@code order.stream.max-events-per-turn} events before the thread moves on
+ * to the next subscriber, so a busy subscriber does not hold up the others. When a buffer is full
+ * the {@link OrderStreamProperties.OverflowPolicy} decides whether the oldest event is dropped or
+ * the subscriber is disconnected.
+ *
+ * <p>Only the sender thread draining a subscriber ever calls its emitter: {@link SseEmitter} sends
+ * and completes under the emitter's monitor, so completing a stream from another thread would block
+ * for as long as a write to it is stuck. Other threads only mark a subscriber as closed and leave
+ * completing it to the sender. A subscriber whose write is still blocked after {@code
+ * order.stream.send-timeout} is detected by the heartbeat and no longer receives events; the
+ * blocked write itself ends with the connector's write timeout, after which the sender completes
+ * the stream.
+ */
+@Slf4j
+@Component
+public class OrderStatusBroadcaster {
+
+  private static final Object HEARTBEAT = new Object();
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+  private final OrderStreamProperties properties;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ExecutorService senders;
+
+  private final Counter sentEvents;
+  private final Counter droppedEvents;
+  private final Counter slowDisconnects;
+  private final Counter stalledDisconnects;
+  private final Counter rejectedSubscriptions;
+
+  public OrderStatusBroadcaster(OrderStreamProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.senders =
+        Executors.newFixedThreadPool(
+            properties.getSenderThreads(),
+            Thread.ofPlatform().name("order-stream-", 0).daemon().factory());
+
+    Gauge.builder("order.stream.subscribers", subscribers, Set::size)
+        .description("Open order status streams")
+        .register(meterRegistry);
+    this.sentEvents =
+        Counter.builder("order.stream.events")
+            .description("Order status events written to subscribers")
+            .register(meterRegistry);
+    this.droppedEvents =
+        Counter.builder("order.stream.dropped")
+            .description("Order status events dropped because a subscriber fell behind")
+            .register(meterRegistry);
+    this.slowDisconnects =
+        Counter.builder("order.stream.disconnects")
+            .description("Subscribers disconnected because they fell behind")
+            .register(meterRegistry);
+    this.stalledDisconnects =
+        Counter.builder("order.stream.stalled")
+            .description("Subscribers disconnected because a write to them blocked too long")
+            .register(meterRegistry);
+    this.rejectedSubscriptions =
+        Counter.builder("order.stream.rejected")
+            .description("Subscriptions rejected because too many streams were open")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Opens a stream of status changes.
+   *
+   * @param customerId only changes of this customer's orders, or {@code null} for all customers
+   * @param orderIds only changes of these orders, or empty for all orders
+   * @return the emitter to return from the request handler
+   * @throws TooManySubscribersException if {@code order.stream.max-subscribers} streams are open
+   */
+  public SseEmitter subscribe(Long customerId, Collection<Long> orderIds) {
+    return register(new SseEmitter(properties.getTimeout().toMillis()), customerId, orderIds);
+  }
+
+  /** Registers an already created emitter; see {@link #subscribe}. */
+  public SseEmitter register(SseEmitter emitter, Long customerId, Collection<Long> orderIds) {
+    if (subscribers.size() >= properties.getMaxSubscribers()) {
+      rejectedSubscriptions.increment();
+      throw new TooManySubscribersException("Too many open order streams, try again later.");
+    }
+    Subscriber subscriber =
+        new Subscriber(
+            emitter,
+            customerId,
+            orderIds == null ? Set.of() : Set.copyOf(orderIds),
+            new ArrayBlockingQueue<>(properties.getBufferSize()));
+
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> close(subscriber));
+    emitter.onError(error -> close(subscriber));
+    subscribers.add(subscriber);
+
+    // Flushes the response headers, so that the client sees the stream as open right away.
+    subscriber.buffer.offer(HEARTBEAT);
+    schedule(subscriber);
+    return emitter;
+  }
+
+  /** Offers the event to every subscriber whose filter matches it. */
+  public void publish(OrderStatusEvent event) {
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.matches(event)) {
+        offer(subscriber, event);
+      }
+    }
+  }
+
+  /** Whether anyone is subscribed, so that publishers can skip building events. */
+  public boolean hasSubscribers() {
+    return !subscribers.isEmpty();
+  }
+
+  @Scheduled(fixedRateString = "${order.stream.heartbeat-interval:15s}")
+  public void sendHeartbeats() {
+    long stalledSince = System.nanoTime() - properties.getSendTimeout().toNanos();
+    for (Subscriber subscriber : subscribers) {
+      long sendStarted = subscriber.sendStarted;
+      if (sendStarted != 0 && sendStarted - stalledSince < 0) {
+        log.debug("Closing order stream whose write is blocked");
+        if (close(subscriber)) {
+          stalledDisconnects.increment();
+        }
+        continue;
+      }
+      if (subscriber.buffer.offer(HEARTBEAT)) {
+        schedule(subscriber);
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    subscribers.forEach(this::close);
+    senders.shutdown();
+    if (!senders.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      senders.shutdownNow();
+    }
+  }
+
+  private void offer(Subscriber subscriber, OrderStatusEvent event) {
+    if (!subscriber.buffer.offer(event)) {
+      if (properties.getOverflowPolicy() == OrderStreamProperties.OverflowPolicy.DISCONNECT) {
+        slowDisconnects.increment();
+        close(subscriber);
+        return;
+      }
+      while (!subscriber.buffer.offer(event)) {
+        if (subscriber.buffer.poll() != null) {
+          droppedEvents.increment();
+        }
+      }
+    }
+    schedule(subscriber);
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    for (int sent = 0; ; sent++) {
+      if (subscriber.closed) {
+        complete(subscriber);
+        return;
+      }
+      if (sent == properties.getMaxEventsPerTurn()) {
+        // Requeue behind the other subscribers; draining stays set, so nobody else schedules it.
+        senders.execute(() -> drain(subscriber));
+        return;
+      }
+      Object item = subscriber.buffer.poll();
+      if (item == null) {
+        subscriber.draining.set(false);
+        if ((subscriber.buffer.isEmpty() && !subscriber.closed)
+            || !subscriber.draining.compareAndSet(false, true)) {
+          return;
+        }
+        continue;
+      }
+
+      subscriber.sendStarted = System.nanoTime();
+      try {
+        if (item == HEARTBEAT) {
+          subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+          OrderStatusEvent event = (OrderStatusEvent) item;
+          subscriber.emitter.send(
+              SseEmitter.event()
+                  .name("order-status")
+                  .id(String.valueOf(event.getOrderId()))
+                  .data(event, MediaType.APPLICATION_JSON));
+          sentEvents.increment();
+        }
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Closing order stream: {}", e.getMessage());
+        subscribers.remove(subscriber);
+        subscriber.closed = true;
+        subscriber.buffer.clear();
+        return;
+      } finally {
+        subscriber.sendStarted = 0;
+      }
+    }
+  }
+
+  /**
+   * Stops publishing to the subscriber and has a sender thread complete its stream, right away or
+   * once the write in progress returns.
+   *
+   * @return whether the subscriber was still open
+   */
+  private boolean close(Subscriber subscriber) {
+    if (!subscribers.remove(subscriber)) {
+      return false;
+    }
+    subscriber.closed = true;
+    subscriber.buffer.clear();
+    schedule(subscriber);
+    return true;
+  }
+
+  /** Completes the stream; only called by the sender thread that owns the subscriber. */
+  private void complete(Subscriber subscriber) {
+    subscriber.buffer.clear();
+    try {
+      subscriber.emitter.complete();
+    } catch (RuntimeException e) {
+      log.debug("Could not complete order stream: {}", e.getMessage());
+    }
+  }
+
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final Long customerId;
+    private final Set<Long> orderIds;
+    private final BlockingQueue<Object> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /** {@link System#nanoTime()} at which the current write started, 0 while not writing. */
+    private volatile long sendStarted;
+
+    /** Set once the stream is to be completed; the sender completes it and stops draining. */
+    private volatile boolean closed;
+
+    private Subscriber(
+        SseEmitter emitter, Long customerId, Set<Long> orderIds, BlockingQueue<Object> buffer) {
+      this.emitter = emitter;
+      this.customerId = customerId;
+      this.orderIds = orderIds;
+      this.buffer = buffer;
+    }
+
+    private boolean matches(OrderStatusEvent event) {
+      return (customerId == null || customerId.equals(event.getCustomerId()))
+          && (orderIds.isEmpty() || orderIds.contains(event.getOrderId()));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.stream;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatusEvent;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionHook;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes every status change to the order stream once its transaction has committed, so that
+ * subscribers never see a change that is rolled back.
+ */
+@Component
+@AllArgsConstructor
+public class OrderStatusStreamHook implements OrderTransitionHook {
+
+  /** Number of order IDs per lookup, to keep the IN list within what databases accept. */
+  private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+  private final OrderStatusBroadcaster orderStatusBroadcaster;
+  private final OrderRepository orderRepository;
+
+  @Override
+  public boolean appliesTo(OrderStatus from, OrderStatus to) {
+    return true;
+  }
+
+  @Override
+  public void afterTransition(Order order, OrderStatus from) {
+    if (orderStatusBroadcaster.hasSubscribers()) {
+      publishAfterCommit(
+          List.of(
+              new OrderStatusEvent(
+                  order.getId(),
+                  order.getCustomerId(),
+                  from,
+                  order.getOrderStatus(),
+                  LocalDateTime.now())));
+    }
+  }
+
+  @Override
+  public boolean supportsBulk() {
+    return true;
+  }
+
+  @Override
+  public void afterBulkTransition(
+      List<Long> orderIds, OrderStatus from, OrderStatus to, String cancellationReason) {
+    if (!orderStatusBroadcaster.hasSubscribers()) {
+      return;
+    }
+    LocalDateTime changedAt = LocalDateTime.now();
+    List<OrderStatusEvent> events = new ArrayList<>(orderIds.size());
+    for (int start = 0; start < orderIds.size(); start += LOOKUP_CHUNK_SIZE) {
+      List<Long> chunk =
+          orderIds.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, orderIds.size()));
+      for (OrderView order : orderRepository.findViewsByIds(chunk)) {
+        events.add(new OrderStatusEvent(order.getId(), order.getCustomerId(), from, to, changedAt));
+      }
+    }
+    publishAfterCommit(events);
+  }
+
+  private void publishAfterCommit(List<OrderStatusEvent> events) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      events.forEach(orderStatusBroadcaster::publish);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            events.forEach(orderStatusBroadcaster::publish);
+          }
+        });
+  }
+}
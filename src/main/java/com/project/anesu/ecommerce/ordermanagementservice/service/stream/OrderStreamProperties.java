@@ -0,0 +1,50 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.stream;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.stream")
+public class OrderStreamProperties {
+
+  /** What happens to a subscriber whose buffer is full when a new event arrives. */
+  public enum OverflowPolicy {
+    /** Drop the oldest buffered event to make room for the new one. */
+    DROP_OLDEST,
+    /** Close the stream; the client reconnects and reloads the orders it shows. */
+    DISCONNECT
+  }
+
+  /** Maximum number of events buffered for one subscriber that has not received them yet. */
+  private int bufferSize = 256;
+
+  /** Policy for subscribers that do not keep up with the events. */
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+  /** Interval of the comment lines that keep idle streams open and detect closed connections. */
+  private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+  /** Time after which a stream is closed and has to be reopened by the client. */
+  private Duration timeout = Duration.ofMinutes(30);
+
+  /** Number of threads writing buffered events to the subscribers. */
+  private int senderThreads = 2;
+
+  /**
+   * Maximum number of events written to one subscriber before its sender thread moves on to the
+   * other subscribers.
+   */
+  private int maxEventsPerTurn = 32;
+
+  /**
+   * Time after which a write that is still blocked on the connection closes the stream. Checked
+   * with every heartbeat.
+   */
+  private Duration sendTimeout = Duration.ofSeconds(10);
+
+  /** Maximum number of open streams; further subscriptions are rejected. */
+  private int maxSubscribers = 1000;
+}
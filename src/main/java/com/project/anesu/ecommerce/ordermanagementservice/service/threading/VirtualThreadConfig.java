@@ -0,0 +1,34 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.threading;
+
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryCoalescerProperties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Threading setup for request handling and outbound inventory calls.
+ *
+ * <p>With {@code spring.threads.virtual.enabled=true} Tomcat serves every request on a virtual
+ * thread and the inventory executor starts a new virtual thread per task; the number of concurrent
+ * inventory calls is bounded by the inventory bulkhead, not by the executor. JDBC access needs no
+ * extra bound: only threads holding one of Hikari's connections run driver code, and threads
+ * waiting for a connection park without pinning their carrier.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+  @Bean
+  public ExecutorService inventoryExecutor(
+      Environment environment, InventoryCoalescerProperties properties) {
+
+    if (Threading.VIRTUAL.isActive(environment)) {
+      return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inventory-", 0).factory());
+    }
+    return Executors.newFixedThreadPool(
+        properties.getMaxInFlightBatches(),
+        Thread.ofPlatform().name("inventory-", 0).daemon().factory());
+  }
+}
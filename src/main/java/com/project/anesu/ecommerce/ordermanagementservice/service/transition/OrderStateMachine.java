@@ -0,0 +1,212 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.transition;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import org.springframework.stereotype.Component;
+
+/**
+ * The allowed order status transitions and the single place where they are applied.
+ *
+ * <p>{@link #TRANSITIONS} is compiled at startup into a table indexed by the ordinals of the
+ * current and the target status. The guards, hooks and meters of every edge are resolved at the
+ * same time, so checking and applying a transition only reads arrays.
+ *
+ * <p>Every outcome is counted in {@code order.transitions}, tagged with {@code from}, {@code to}
+ * and {@code outcome} ({@code applied} or {@code rejected}); the time spent applying a transition
+ * is recorded per edge in {@code order.transition.duration}.
+ */
+@Component
+public class OrderStateMachine {
+
+  /** The statuses an order can be moved to from each status. */
+  public static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS =
+      Map.of(
+          OrderStatus.ORDER_PLACED, EnumSet.of(OrderStatus.PROCESSING, OrderStatus.CANCELLED),
+          OrderStatus.PROCESSING, EnumSet.of(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.CANCELLED),
+          OrderStatus.OUT_FOR_DELIVERY, EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED),
+          OrderStatus.DELIVERED, EnumSet.noneOf(OrderStatus.class),
+          OrderStatus.CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+  private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+  private final boolean[][] allowed;
+  private final OrderTransitionGuard[][][] guards;
+  private final OrderTransitionHook[][][] hooks;
+  private final Counter[][] applied;
+  private final Counter[][] rejected;
+  private final Timer[][] duration;
+
+  public OrderStateMachine(
+      List<OrderTransitionGuard> guards,
+      List<OrderTransitionHook> hooks,
+      MeterRegistry meterRegistry) {
+    int size = STATUSES.length;
+    this.allowed = new boolean[size][size];
+    this.guards = new OrderTransitionGuard[size][size][];
+    this.hooks = new OrderTransitionHook[size][size][];
+    this.applied = new Counter[size][size];
+    this.rejected = new Counter[size][size];
+    this.duration = new Timer[size][size];
+
+    for (OrderStatus from : STATUSES) {
+      for (OrderStatus to : STATUSES) {
+        int i = from.ordinal();
+        int j = to.ordinal();
+        allowed[i][j] = TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+        rejected[i][j] = counter(meterRegistry, from, to, "rejected");
+        if (!allowed[i][j]) {
+          continue;
+        }
+        this.guards[i][j] =
+            applicable(guards, guard -> guard.appliesTo(from, to))
+                .toArray(OrderTransitionGuard[]::new);
+        this.hooks[i][j] =
+            applicable(hooks, hook -> hook.appliesTo(from, to)).toArray(OrderTransitionHook[]::new);
+        applied[i][j] = counter(meterRegistry, from, to, "applied");
+        duration[i][j] =
+            Timer.builder("order.transition.duration")
+                .description("Time spent applying an order status transition")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meterRegistry);
+      }
+    }
+  }
+
+  /** Whether an order may be moved from {@code from} to {@code to}. Does not allocate. */
+  public boolean canTransition(OrderStatus from, OrderStatus to) {
+    return allowed[from.ordinal()][to.ordinal()];
+  }
+
+  /**
+   * Whether the transition can be applied with a set-based update, which checks no guards and only
+   * runs hooks that support bulk transitions.
+   */
+  public boolean canTransitionInBulk(OrderStatus from, OrderStatus to) {
+    if (!canTransition(from, to) || guards[from.ordinal()][to.ordinal()].length > 0) {
+      return false;
+    }
+    for (OrderTransitionHook hook : hooks[from.ordinal()][to.ordinal()]) {
+      if (!hook.supportsBulk()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves the order to the given status: checks the transition table and the guards of the edge,
+   * sets the status, saves the order and runs the hooks of the edge.
+   *
+   * @param order the order in its current status
+   * @param to the status to move the order to
+   * @param save persists the order, including any further changes of the caller
+   * @return the saved order
+   * @throws OrderConflictException if the transition is not allowed from the current status
+   */
+  public Order apply(Order order, OrderStatus to, UnaryOperator<Order> save) {
+    OrderStatus from = order.getOrderStatus();
+    int i = from.ordinal();
+    int j = to.ordinal();
+
+    if (!allowed[i][j]) {
+      rejected[i][j].increment();
+      throw new OrderConflictException(
+          "Order %d is %s and cannot be moved to %s.".formatted(order.getId(), from, to));
+    }
+
+    long start = System.nanoTime();
+    try {
+      for (OrderTransitionGuard guard : guards[i][j]) {
+        guard.check(order, to);
+      }
+    } catch (RuntimeException e) {
+      rejected[i][j].increment();
+      throw e;
+    }
+
+    order.setOrderStatus(to);
+    order.setStatusChangedAt(LocalDateTime.now());
+    Order saved = save.apply(order);
+    for (OrderTransitionHook hook : hooks[i][j]) {
+      hook.afterTransition(saved, from);
+    }
+
+    applied[i][j].increment();
+    duration[i][j].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return saved;
+  }
+
+  /**
+   * Runs the bulk hooks of the edge and records the outcome of a set-based transition.
+   *
+   * @param from the status the orders were moved from
+   * @param to the status the orders were moved to
+   * @param transitioned the IDs of the orders that were moved
+   * @param rejectedCount the number of orders that were not in {@code from}
+   * @param nanos the time spent on the update
+   */
+  public void afterBulkTransition(
+      OrderStatus from, OrderStatus to, List<Long> transitioned, int rejectedCount, long nanos) {
+    afterBulkTransition(from, to, transitioned, rejectedCount, nanos, null);
+  }
+
+  /**
+   * Runs the bulk hooks of the edge and records the outcome of a set-based transition that also
+   * stored a cancellation reason on the orders.
+   *
+   * @param cancellationReason the reason stored on all orders that were moved
+   * @see #afterBulkTransition(OrderStatus, OrderStatus, List, int, long)
+   */
+  public void afterBulkTransition(
+      OrderStatus from,
+      OrderStatus to,
+      List<Long> transitioned,
+      int rejectedCount,
+      long nanos,
+      String cancellationReason) {
+    int i = from.ordinal();
+    int j = to.ordinal();
+    if (!transitioned.isEmpty()) {
+      for (OrderTransitionHook hook : hooks[i][j]) {
+        hook.afterBulkTransition(transitioned, from, to, cancellationReason);
+      }
+    }
+    applied[i][j].increment(transitioned.size());
+    rejected[i][j].increment(rejectedCount);
+    duration[i][j].record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  private static <T> List<T> applicable(List<T> candidates, Predicate<T> appliesTo) {
+    List<T> applicable = new ArrayList<>();
+    for (T candidate : candidates) {
+      if (appliesTo.test(candidate)) {
+        applicable.add(candidate);
+      }
+    }
+    return applicable;
+  }
+
+  private static Counter counter(
+      MeterRegistry meterRegistry, OrderStatus from, OrderStatus to, String outcome) {
+    return Counter.builder("order.transitions")
+        .description("Order status transitions by edge and outcome")
+        .tag("from", from.name())
+        .tag("to", to.name())
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,23 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.transition;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+
+/**
+ * Extra condition for transitions the {@link OrderStateMachine} allows. Guards are Spring beans;
+ * the state machine asks every guard once at startup which edges it applies to.
+ */
+public interface OrderTransitionGuard {
+
+  /** Whether the guard has to be checked for transitions from {@code from} to {@code to}. */
+  boolean appliesTo(OrderStatus from, OrderStatus to);
+
+  /**
+   * Checks whether the order may be moved to the given status.
+   *
+   * @param order the order, still in its current status
+   * @param to the status the order is about to be moved to
+   * @throws RuntimeException to reject the transition, typically an {@code OrderConflictException}
+   */
+  void check(Order order, OrderStatus to);
+}
@@ -0,0 +1,44 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.transition;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import java.util.List;
+
+/**
+ * Callback for transitions applied by the {@link OrderStateMachine}. Hooks are Spring beans; the
+ * state machine asks every hook once at startup which edges it applies to. They run inside the
+ * transaction of the transition, so writes of a hook commit or roll back together with it.
+ */
+public interface OrderTransitionHook {
+
+  /** Whether the hook has to run for transitions from {@code from} to {@code to}. */
+  boolean appliesTo(OrderStatus from, OrderStatus to);
+
+  /**
+   * Called after the order has been moved and saved.
+   *
+   * @param order the saved order, already in its new status
+   * @param from the status the order was in before
+   */
+  void afterTransition(Order order, OrderStatus from);
+
+  /**
+   * Whether the hook can also handle transitions applied to many orders with one set-based update.
+   * Edges with hooks that cannot are not offered in bulk.
+   */
+  default boolean supportsBulk() {
+    return false;
+  }
+
+  /**
+   * Called after a set-based transition, instead of {@link #afterTransition} per order. Only called
+   * on hooks that {@link #supportsBulk() support bulk transitions}; does nothing by default.
+   *
+   * @param orderIds the IDs of the orders that were moved
+   * @param from the status the orders were in before
+   * @param to the status the orders are in now
+   * @param cancellationReason the reason stored on all orders, if they were cancelled
+   */
+  default void afterBulkTransition(
+      List<Long> orderIds, OrderStatus from, OrderStatus to, String cancellationReason) {}
+}
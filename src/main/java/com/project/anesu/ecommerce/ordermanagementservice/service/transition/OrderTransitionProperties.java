@@ -0,0 +1,18 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.transition;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.transition")
+public class OrderTransitionProperties {
+
+  /** How often a status transition is attempted when it conflicts with a concurrent change. */
+  private int maxAttempts = 3;
+
+  /** Pause before the second attempt; every further attempt waits one more multiple of it. */
+  private Duration backoff = Duration.ofMillis(20);
+}
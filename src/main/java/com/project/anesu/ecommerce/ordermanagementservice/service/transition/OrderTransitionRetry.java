@@ -0,0 +1,78 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.transition;
+
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Supplier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs an order status transition in its own transaction and runs it again when its versioned
+ * update loses against a concurrent change of the same order.
+ *
+ * <p>Every attempt reads the order anew, so it checks the expected status against the committed
+ * state. After {@code maxAttempts} lost updates the transition fails with an {@link
+ * OrderConflictException}.
+ */
+@Component
+public class OrderTransitionRetry {
+
+  private final TransactionTemplate transaction;
+  private final OrderTransitionProperties properties;
+  private final Counter retried;
+  private final Counter exhausted;
+
+  public OrderTransitionRetry(
+      PlatformTransactionManager transactionManager,
+      OrderTransitionProperties properties,
+      MeterRegistry meterRegistry) {
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+    this.retried =
+        Counter.builder("order.transition.conflicts")
+            .description("Status transitions that lost against a concurrent change of the order")
+            .tag("outcome", "retried")
+            .register(meterRegistry);
+    this.exhausted =
+        Counter.builder("order.transition.conflicts")
+            .description("Status transitions that lost against a concurrent change of the order")
+            .tag("outcome", "exhausted")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Runs the given transition until it commits or {@code maxAttempts} is reached.
+   *
+   * @param orderId the ID of the order, for the error message
+   * @param transition reads, checks and updates the order
+   * @return the result of the successful attempt
+   * @throws OrderConflictException if every attempt conflicted with a concurrent change
+   */
+  public <T> T execute(Long orderId, Supplier<T> transition) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transaction.execute(status -> transition.get());
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= properties.getMaxAttempts()) {
+          exhausted.increment();
+          throw new OrderConflictException(
+              "Order %d was changed concurrently, please retry.".formatted(orderId));
+        }
+        retried.increment();
+        backOff(attempt);
+      }
+    }
+  }
+
+  private void backOff(int attempt) {
+    try {
+      Thread.sleep(properties.getBackoff().multipliedBy(attempt));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OrderConflictException("Interrupted while retrying a status transition.");
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.util;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Strong entity tags derived from version columns. An order or customer is tagged with its own id
+ * and version plus a checksum of the ids and versions of its addresses, since adding, changing or
+ * removing an address does not change the version of the owning row.
+ */
+public final class ETags {
+
+  private ETags() {}
+
+  public static String of(Long id, Long version, List<Address> addresses) {
+    CRC32 checksum = new CRC32();
+    for (Address address : addresses) {
+      checksum.update(
+          (address.getId() + ":" + address.getVersion() + ";").getBytes(StandardCharsets.US_ASCII));
+    }
+    return "\"" + id + "-" + version + "-" + Long.toHexString(checksum.getValue()) + "\"";
+  }
+}
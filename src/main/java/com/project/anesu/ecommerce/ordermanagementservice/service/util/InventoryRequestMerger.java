@@ -0,0 +1,34 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Combines several inventory requests into one, summing the quantities per product. */
+public final class InventoryRequestMerger {
+
+  private InventoryRequestMerger() {}
+
+  public static List<Map<String, Object>> merge(Iterable<List<Map<String, Object>>> requests) {
+    Map<Object, Integer> quantityPerProduct = new LinkedHashMap<>();
+
+    for (List<Map<String, Object>> request : requests) {
+      for (Map<String, Object> orderItemData : request) {
+        quantityPerProduct.merge(
+            orderItemData.get("productId"), (Integer) orderItemData.get("quantity"), Integer::sum);
+      }
+    }
+
+    List<Map<String, Object>> mergedRequest = new ArrayList<>();
+    quantityPerProduct.forEach(
+        (productId, quantity) -> {
+          Map<String, Object> orderItemData = new HashMap<>();
+          orderItemData.put("productId", productId);
+          orderItemData.put("quantity", quantity);
+          mergedRequest.add(orderItemData);
+        });
+    return mergedRequest;
+  }
+}
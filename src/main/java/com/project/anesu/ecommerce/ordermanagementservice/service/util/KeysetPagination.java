@@ -0,0 +1,73 @@
+package com.project.anesu.ecommerce.ordermanagementservice.service.util;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidPageRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page size limits and the opaque cursor format for keyset pagination. A cursor holds the sort key
+ * of the last row of a page, so the next page is read with a range predicate on an index instead of
+ * an offset.
+ */
+public final class KeysetPagination {
+
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 200;
+
+  private static final String SEPARATOR = "|";
+
+  private KeysetPagination() {}
+
+  public static int getPageSize(Integer requestedPageSize) {
+    if (requestedPageSize == null) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    if (requestedPageSize < 1) {
+      throw new InvalidPageRequestException("Page size must be at least 1.");
+    }
+    return Math.min(requestedPageSize, MAX_PAGE_SIZE);
+  }
+
+  public static String encodeCursor(Object... sortKey) {
+    StringBuilder cursor = new StringBuilder();
+    for (Object value : sortKey) {
+      if (!cursor.isEmpty()) {
+        cursor.append(SEPARATOR);
+      }
+      cursor.append(value);
+    }
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static String[] decodeCursor(String cursor, int sortKeyLength) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] sortKey = decoded.split("\\" + SEPARATOR, -1);
+      if (sortKey.length == sortKeyLength) {
+        return sortKey;
+      }
+    } catch (IllegalArgumentException e) {
+      // reported below
+    }
+    throw new InvalidPageRequestException("Invalid cursor.");
+  }
+
+  /**
+   * Builds a page from rows that were queried with a limit of {@code pageSize + 1}. The extra row
+   * only tells whether another page exists and is not returned.
+   */
+  public static <T> KeysetPage<T> toPage(
+      List<T> rows, int pageSize, Function<T, String> cursorOfLastItem) {
+
+    if (rows.size() <= pageSize) {
+      return new KeysetPage<>(rows, null);
+    }
+    List<T> items = rows.subList(0, pageSize);
+    return new KeysetPage<>(items, cursorOfLastItem.apply(items.getLast()));
+  }
+}
@@ -9,6 +9,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class OrderValidator {
 
+  private static final int MAX_BATCH_SIZE = 500;
+
   public void validateNewOrder(Order order, List<OrderItem> orderItems) {
     validateNewlyCreatedOrder(order);
 
@@ -21,6 +23,17 @@ public class OrderValidator {
     }
   }
 
+  public void validateNewOrderBatch(List<Order> orders) {
+    if (orders == null || orders.isEmpty()) {
+      throw new InvalidOrderException("Batch must contain at least one order.");
+    }
+
+    if (orders.size() > MAX_BATCH_SIZE) {
+      throw new InvalidOrderException(
+          "Batch cannot contain more than %d orders.".formatted(MAX_BATCH_SIZE));
+    }
+  }
+
   private void validateNewlyCreatedOrder(Order order) throws InvalidOrderException {
     if (order == null) {
       throw new InvalidOrderException("Order cannot be null.");
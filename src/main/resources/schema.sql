@@ -0,0 +1,126 @@
+-- Schema of the order management service. Run by Spring's SQL initialization before JPA starts;
+-- Hibernate only validates the entities against it (spring.jpa.hibernate.ddl-auto=validate).
+-- Every statement is idempotent, as application contexts in tests share one in-memory database.
+--
+-- Indexes are created before the foreign keys that use them, so that the database reuses them
+-- instead of adding its own.
+
+create sequence if not exists customer_seq start with 1 increment by 50;
+create sequence if not exists customer_order_seq start with 1 increment by 50;
+create sequence if not exists order_item_seq start with 1 increment by 50;
+create sequence if not exists address_seq start with 1 increment by 50;
+create sequence if not exists inventory_return_outbox_seq start with 1 increment by 50;
+
+-- Numbers order changes for GET /api/orders/changes (Order.changeSequence)
+create sequence if not exists customer_order_change_seq start with 1 increment by 1;
+
+create table if not exists customer (
+    id bigint not null,
+    version bigint,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    phone_number varchar(255),
+    birth_date date,
+    primary key (id)
+);
+
+-- order_status holds OrderStatus codes (see OrderStatusConverter)
+create table if not exists customer_order (
+    id bigint not null,
+    version bigint,
+    change_sequence bigint,
+    customer_id bigint,
+    total_price double precision not null,
+    order_status smallint,
+    order_date timestamp(6),
+    status_changed_at timestamp(6),
+    cancellation_reason varchar(255),
+    primary key (id)
+);
+
+create table if not exists order_item (
+    id bigint not null,
+    order_id bigint,
+    product_id bigint,
+    quantity integer not null,
+    primary key (id)
+);
+
+create table if not exists address (
+    id bigint not null,
+    version bigint,
+    customer_id bigint,
+    order_id bigint,
+    street_name varchar(255),
+    street_number varchar(255),
+    city varchar(255),
+    state varchar(255),
+    zip_code varchar(255),
+    primary key (id)
+);
+
+-- Read by order id only, so the primary key is the only index
+create table if not exists customer_order_archive (
+    id bigint not null,
+    version bigint,
+    archived_at timestamp(6),
+    payload blob not null,
+    primary key (id)
+);
+
+-- Leases of placed orders by background processor runs; only holds the leases in flight, so the
+-- primary key is the only index
+create table if not exists order_lease (
+    order_id bigint not null,
+    claimed_by varchar(64),
+    claimed_until timestamp(6),
+    primary key (order_id)
+);
+
+create table if not exists inventory_return_outbox (
+    id bigint not null,
+    order_id bigint,
+    product_id bigint,
+    quantity integer not null,
+    created_at timestamp(6),
+    attempts integer not null,
+    next_attempt_at timestamp(6),
+    dead_lettered_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists idempotency_record (
+    idempotency_key varchar(255) not null,
+    request_hash varchar(64),
+    status_code integer not null,
+    response_body clob,
+    created_at timestamp(6),
+    expires_at timestamp(6),
+    primary key (idempotency_key)
+);
+
+-- Order listing, search by customer (also serves lookups by customer_id alone), search by status
+-- and background processing, and the change feed
+create index if not exists idx_customer_order_order_date_id on customer_order (order_date, id);
+create index if not exists idx_customer_order_customer_id_order_date_id
+    on customer_order (customer_id, order_date, id);
+create index if not exists idx_customer_order_order_status_order_date_id
+    on customer_order (order_status, order_date, id);
+create index if not exists idx_customer_order_change_sequence on customer_order (change_sequence);
+
+-- Foreign keys: items and delivery addresses of an order, addresses of a customer
+create index if not exists idx_order_item_order_id on order_item (order_id);
+create index if not exists idx_address_order_id on address (order_id);
+create index if not exists idx_address_customer_id on address (customer_id);
+
+create index if not exists idx_inventory_return_outbox_next_attempt
+    on inventory_return_outbox (next_attempt_at, id);
+create index if not exists idx_idempotency_record_expires_at on idempotency_record (expires_at);
+
+alter table order_item add constraint if not exists fk_order_item_order
+    foreign key (order_id) references customer_order (id);
+alter table address add constraint if not exists fk_address_order
+    foreign key (order_id) references customer_order (id);
+alter table address add constraint if not exists fk_address_customer
+    foreign key (customer_id) references customer (id);
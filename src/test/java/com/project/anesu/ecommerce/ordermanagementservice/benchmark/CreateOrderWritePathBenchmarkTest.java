@@ -0,0 +1,112 @@
+package com.project.anesu.ecommerce.ordermanagementservice.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Measures JDBC statements and latency per {@code createOrder} for an order with 20 items and a
+ * delivery address. Run with {@code mvn test -Pbenchmark}; compare against the unbatched write path
+ * with {@code -Dspring.jpa.properties.hibernate.jdbc.batch_size=0}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+class CreateOrderWritePathBenchmarkTest {
+
+  private static final int WARMUP_ORDERS = 500;
+  private static final int MEASURED_ORDERS = 2_000;
+  private static final int ITEMS_PER_ORDER = 20;
+
+  @Autowired private OrderService orderService;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private RestTemplate restTemplate;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @Test
+  void createOrderWithTwentyItemsAndAddress() {
+
+    when(restTemplate.postForEntity(anyString(), any(), eq(String.class)))
+        .thenReturn(ResponseEntity.ok("OK"));
+
+    for (int i = 0; i < WARMUP_ORDERS; i++) {
+      createOrder();
+    }
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    long[] latencies = new long[MEASURED_ORDERS];
+    for (int i = 0; i < MEASURED_ORDERS; i++) {
+      long start = System.nanoTime();
+      createOrder();
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+
+    log.info(
+        "createOrder(%d items + address): %.2f statements/order, p50=%.3f ms, p99=%.3f ms"
+            .formatted(
+                ITEMS_PER_ORDER,
+                (double) statistics.getPrepareStatementCount() / MEASURED_ORDERS,
+                latencies[MEASURED_ORDERS / 2] / 1_000_000.0,
+                latencies[MEASURED_ORDERS * 99 / 100] / 1_000_000.0));
+  }
+
+  private void createOrder() {
+    List<OrderItem> orderItems = new ArrayList<>();
+    for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+      OrderItem orderItem = new OrderItem();
+      orderItem.setProductId(100L + i);
+      orderItem.setQuantity(1);
+      orderItems.add(orderItem);
+    }
+
+    Address address = new Address();
+    address.setStreetName("Haut str");
+    address.setStreetNumber("10");
+    address.setCity("Berlin");
+
+    Order order = new Order();
+    order.setCustomerId(1L);
+    order.setDeliveryAddress(new ArrayList<>(List.of(address)));
+    address.setOrder(order);
+
+    orderService.createOrder(order, orderItems);
+  }
+}
@@ -0,0 +1,96 @@
+package com.project.anesu.ecommerce.ordermanagementservice.benchmark;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournal;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * JMH benchmark of order journal appends from several threads, with and without waiting for the
+ * group-commit force. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderJournalAppendBenchmarkTest {
+
+  private static final String CANCELLATION_REASON = "Customer found a cheaper offer elsewhere.";
+
+  @Param({"true", "false"})
+  public boolean syncOnAppend;
+
+  private final AtomicLong orderIds = new AtomicLong();
+  private Path directory;
+  private OrderJournal orderJournal;
+
+  @Setup(Level.Trial)
+  public void openJournal() throws IOException {
+    directory = Files.createTempDirectory("order-journal-benchmark");
+    OrderJournalProperties properties = new OrderJournalProperties();
+    properties.setDirectory(directory);
+    properties.setSegmentSize(DataSize.ofMegabytes(64));
+    properties.setSyncOnAppend(syncOnAppend);
+    orderJournal = new OrderJournal(properties, new SimpleMeterRegistry());
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteJournal() throws IOException {
+    orderJournal.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public long appendCancellation() {
+    return orderJournal.append(
+        OrderEventType.CANCELLED,
+        orderIds.incrementAndGet(),
+        OrderStatus.CANCELLED,
+        CANCELLATION_REASON);
+  }
+
+  @Test
+  void measureAppendThroughput() throws RunnerException {
+    Options options =
+        new OptionsBuilder()
+            .include(OrderJournalAppendBenchmarkTest.class.getSimpleName())
+            .forks(0)
+            .threads(8)
+            .warmupIterations(2)
+            .warmupTime(TimeValue.seconds(2))
+            .measurementIterations(3)
+            .measurementTime(TimeValue.seconds(3))
+            .build();
+    new Runner(options).run();
+  }
+}
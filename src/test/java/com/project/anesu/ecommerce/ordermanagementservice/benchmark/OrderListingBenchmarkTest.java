@@ -0,0 +1,128 @@
+package com.project.anesu.ecommerce.ordermanagementservice.benchmark;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
+import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Compares the latency of the first and a deep page of the order listing between keyset and offset
+ * pagination over {@value #ORDERS} orders, and against loading all orders at once. Run with {@code
+ * mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.datasource.url=jdbc:h2:mem:order-listing-benchmark"
+    })
+class OrderListingBenchmarkTest {
+
+  private static final int ORDERS = 500_000;
+  private static final int PAGE_SIZE = 50;
+  private static final int DEEP_PAGE = ORDERS / PAGE_SIZE - 10;
+  private static final int RUNS = 50;
+
+  @Autowired private OrderService orderService;
+  @Autowired private OrderRepository orderRepository;
+  @PersistenceContext private EntityManager entityManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void compareFirstAndDeepPageBetweenKeysetAndOffset() {
+
+    insertOrders();
+
+    String deepCursor = walkToPage(DEEP_PAGE);
+
+    report("keyset first", () -> orderService.getOrders(null, PAGE_SIZE).getItems());
+    report("keyset deep ", () -> orderService.getOrders(deepCursor, PAGE_SIZE).getItems());
+    report("offset first", () -> findPageByOffset(0));
+    report("offset deep ", () -> findPageByOffset(DEEP_PAGE * PAGE_SIZE));
+
+    long start = System.nanoTime();
+    int loaded = orderRepository.findAll().size();
+    log.info(
+        "findAll     : %d orders in %7.2f ms"
+            .formatted(loaded, (System.nanoTime() - start) / 1_000_000.0));
+  }
+
+  private List<Order> findPageByOffset(int offset) {
+    return entityManager
+        .createQuery("select o from Order o order by o.orderDate desc, o.id desc", Order.class)
+        .setFirstResult(offset)
+        .setMaxResults(PAGE_SIZE)
+        .getResultList();
+  }
+
+  private void insertOrders() {
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    List<Object[]> rows = new ArrayList<>();
+
+    for (long id = 1; id <= ORDERS; id++) {
+      rows.add(
+          new Object[] {
+            id, id % 1_000, "ORDER_PLACED", Timestamp.valueOf(start.plusSeconds(id / 3))
+          });
+      if (rows.size() == 10_000) {
+        insert(rows);
+        rows.clear();
+      }
+    }
+    insert(rows);
+  }
+
+  private void insert(List<Object[]> rows) {
+    jdbcTemplate.batchUpdate(
+        "insert into customer_order (id, customer_id, total_price, order_status, order_date)"
+            + " values (?, ?, 0, ?, ?)",
+        rows);
+  }
+
+  private String walkToPage(int pageNumber) {
+    String cursor = null;
+    for (int i = 0; i < pageNumber; i++) {
+      KeysetPage<OrderView> page = orderService.getOrders(cursor, PAGE_SIZE);
+      cursor = page.getNextCursor();
+    }
+    return cursor;
+  }
+
+  private void report(String label, Supplier<List<?>> query) {
+    for (int i = 0; i < 10; i++) {
+      query.get();
+    }
+
+    long[] latencies = new long[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      query.get();
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+
+    log.info(
+        "%s: p50=%7.2f ms p99=%7.2f ms"
+            .formatted(
+                label,
+                latencies[RUNS / 2] / 1_000_000.0,
+                latencies[RUNS * 99 / 100] / 1_000_000.0));
+  }
+}
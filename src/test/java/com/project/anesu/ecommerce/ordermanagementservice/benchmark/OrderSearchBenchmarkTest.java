@@ -0,0 +1,145 @@
+package com.project.anesu.ecommerce.ordermanagementservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Searches {@value #ORDERS} orders by customer, by status and by date range, logs the latency and
+ * the query plan of each search and checks that the plan uses the matching index. Run with {@code
+ * mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.datasource.url=jdbc:h2:mem:order-search-benchmark"
+    })
+class OrderSearchBenchmarkTest {
+
+  private static final int ORDERS = 1_000_000;
+  private static final int CUSTOMERS = 10_000;
+  private static final int PAGE_SIZE = 50;
+  private static final int RUNS = 50;
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+  private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+  @Autowired private OrderService orderService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void searchUsesCompositeIndexes() {
+
+    insertOrders();
+    jdbcTemplate.execute("analyze");
+
+    LocalDateTime from = START.plusDays(30);
+    LocalDateTime to = from.plusDays(1);
+
+    report(
+        "by customer        ",
+        new OrderSearchCriteria(4_242L, null, null, null),
+        "where customer_id = 4242",
+        "IDX_CUSTOMER_ORDER_CUSTOMER_ID_ORDER_DATE_ID");
+    report(
+        "by status          ",
+        new OrderSearchCriteria(null, OrderStatus.CANCELLED, null, null),
+        "where order_status = 'CANCELLED'",
+        "IDX_CUSTOMER_ORDER_ORDER_STATUS_ORDER_DATE_ID");
+    report(
+        "by customer and day",
+        new OrderSearchCriteria(4_242L, null, from, to),
+        "where customer_id = 4242 and order_date >= '%s' and order_date < '%s'".formatted(from, to),
+        "IDX_CUSTOMER_ORDER_CUSTOMER_ID_ORDER_DATE_ID");
+    report(
+        "by day             ",
+        new OrderSearchCriteria(null, null, from, to),
+        "where order_date >= '%s' and order_date < '%s'".formatted(from, to),
+        "IDX_CUSTOMER_ORDER_ORDER_DATE_ID");
+  }
+
+  private void report(String label, OrderSearchCriteria criteria, String where, String index) {
+
+    String orderBy =
+        " order by order_date desc, id desc fetch first " + (PAGE_SIZE + 1) + " rows only";
+    String plan =
+        jdbcTemplate.queryForObject(
+            "explain select id from customer_order " + where + orderBy, String.class);
+
+    long[] search = measure(() -> orderService.searchOrders(criteria, null, PAGE_SIZE));
+    long[] indexed = measure(() -> query("select id from customer_order " + where + orderBy));
+    long[] tableScan =
+        measure(() -> query("select id from customer_order use index () " + where + orderBy));
+
+    log.info(
+        "%s: search p50=%7.2f ms p99=%7.2f ms | sql p50 indexed=%7.2f ms table scan=%7.2f ms%n%s"
+            .formatted(
+                label,
+                search[RUNS / 2] / 1_000_000.0,
+                search[RUNS * 99 / 100] / 1_000_000.0,
+                indexed[RUNS / 2] / 1_000_000.0,
+                tableScan[RUNS / 2] / 1_000_000.0,
+                plan));
+    assertThat(plan.toUpperCase()).contains(index);
+  }
+
+  /** Runs the query with a unique comment, so that H2 cannot answer it from its result cache. */
+  private void query(String sql) {
+    jdbcTemplate.queryForList(sql + " -- " + System.nanoTime(), Long.class);
+  }
+
+  private long[] measure(Runnable search) {
+    for (int i = 0; i < 10; i++) {
+      search.run();
+    }
+    long[] latencies = new long[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      search.run();
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+    return latencies;
+  }
+
+  private void insertOrders() {
+    List<Object[]> rows = new ArrayList<>();
+
+    for (long id = 1; id <= ORDERS; id++) {
+      rows.add(
+          new Object[] {
+            id,
+            id % CUSTOMERS,
+            STATUSES[(int) (id % STATUSES.length)].name(),
+            Timestamp.valueOf(START.plusSeconds(id * 10))
+          });
+      if (rows.size() == 10_000) {
+        insert(rows);
+        rows.clear();
+      }
+    }
+    insert(rows);
+  }
+
+  private void insert(List<Object[]> rows) {
+    jdbcTemplate.batchUpdate(
+        "insert into customer_order (id, customer_id, total_price, order_status, order_date)"
+            + " values (?, ?, 0, ?, ?)",
+        rows);
+  }
+}
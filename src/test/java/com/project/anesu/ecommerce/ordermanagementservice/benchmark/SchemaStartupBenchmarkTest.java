@@ -0,0 +1,74 @@
+package com.project.anesu.ecommerce.ordermanagementservice.benchmark;
+
+import com.project.anesu.ecommerce.ordermanagementservice.OrderManagementServiceApplication;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares application startup time with the schema from {@code schema.sql} and Hibernate only
+ * validating it, against Hibernate updating the schema itself. Each mode has its own database that
+ * is created by a first, unmeasured start; the measured starts then alternate between the modes and
+ * find their schema in place, as a restarted instance would. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class SchemaStartupBenchmarkTest {
+
+  private static final int STARTS = 10;
+
+  @Test
+  void compareStartupBetweenValidatedAndUpdatedSchema() {
+    List<String> validate = args("validate", "--spring.jpa.hibernate.ddl-auto=validate");
+    List<String> update =
+        args("update", "--spring.jpa.hibernate.ddl-auto=update", "--spring.sql.init.mode=never");
+
+    // Creates both schemas and warms up the JIT before anything is measured
+    start(validate);
+    start(update);
+
+    long[] validateMillis = new long[STARTS];
+    long[] updateMillis = new long[STARTS];
+    for (int i = 0; i < STARTS; i++) {
+      validateMillis[i] = start(validate);
+      updateMillis[i] = start(update);
+    }
+
+    report("validate", validateMillis);
+    report("update", updateMillis);
+  }
+
+  private List<String> args(String mode, String... schemaArgs) {
+    List<String> args = new ArrayList<>(List.of(schemaArgs));
+    args.add("--server.port=0");
+    args.add("--spring.jpa.show-sql=false");
+    args.add("--spring.datasource.url=jdbc:h2:mem:startup-" + mode + ";DB_CLOSE_DELAY=-1");
+    return args;
+  }
+
+  private void report(String mode, long[] millis) {
+    Arrays.sort(millis);
+    log.info(
+        "%-8s startup: mean=%6.1f ms median=%5d ms best=%5d ms over %d starts"
+            .formatted(
+                mode,
+                Arrays.stream(millis).average().orElse(0),
+                millis[STARTS / 2],
+                millis[0],
+                STARTS));
+  }
+
+  private long start(List<String> args) {
+    long start = System.nanoTime();
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(OrderManagementServiceApplication.class)
+            .run(args.toArray(String[]::new))) {
+      return (System.nanoTime() - start) / 1_000_000;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.project.anesu.ecommerce.ordermanagementservice.benchmark;
+
+import com.project.anesu.ecommerce.ordermanagementservice.OrderManagementServiceApplication;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares throughput and p99 latency of create and cancel between platform-thread and
+ * virtual-thread mode, against a local inventory stub that answers after {@value
+ * #INVENTORY_LATENCY_MS} ms. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+  private static final long INVENTORY_LATENCY_MS = 50;
+  private static final int CONCURRENT_CLIENTS = 800;
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+  private static final Pattern ORDER_ID = Pattern.compile("^\\{\"id\":(\\d+)");
+
+  private HttpServer inventoryStub;
+  private ExecutorService stubExecutor;
+
+  @BeforeEach
+  void startInventoryStub() throws IOException {
+    stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    inventoryStub = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+    inventoryStub.createContext("/", this::respondAfterDelay);
+    inventoryStub.setExecutor(stubExecutor);
+    inventoryStub.start();
+  }
+
+  @AfterEach
+  void stopInventoryStub() {
+    inventoryStub.stop(0);
+    stubExecutor.close();
+  }
+
+  @Test
+  void compareCreateAndCancelBetweenPlatformAndVirtualThreads() throws Exception {
+    run("platform", false);
+    run("virtual", true);
+  }
+
+  private void run(String mode, boolean virtualThreads) throws Exception {
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(OrderManagementServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--inventory.client.base-url=http://localhost:"
+                    + inventoryStub.getAddress().getPort(),
+                "--inventory.client.pool-acquire-timeout=30s",
+                "--inventory.client.read-timeout=30s")) {
+
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      String baseUrl = "http://localhost:" + port + "/api/orders";
+
+      drive(baseUrl, WARMUP);
+      Result result = drive(baseUrl, MEASUREMENT);
+
+      log.info(
+          "%-8s create: %7.1f ops/s p99=%7.1f ms | cancel: %7.1f ops/s p99=%7.1f ms"
+              .formatted(
+                  mode,
+                  result.create.size() / (double) MEASUREMENT.toSeconds(),
+                  percentile(result.create, 0.99),
+                  result.cancel.size() / (double) MEASUREMENT.toSeconds(),
+                  percentile(result.cancel, 0.99)));
+    }
+  }
+
+  private Result drive(String baseUrl, Duration duration) throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    Result result = new Result();
+
+    try (HttpClient client =
+            HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+      List<Future<Result>> futures = new ArrayList<>();
+      for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+        futures.add(clients.submit(() -> createAndCancelUntil(client, baseUrl, deadline)));
+      }
+      for (Future<Result> future : futures) {
+        Result clientResult = future.get();
+        result.create.addAll(clientResult.create);
+        result.cancel.addAll(clientResult.cancel);
+      }
+    }
+    return result;
+  }
+
+  private Result createAndCancelUntil(HttpClient client, String baseUrl, long deadline)
+      throws Exception {
+
+    Result result = new Result();
+    while (System.nanoTime() < deadline) {
+      long start = System.nanoTime();
+      HttpResponse<String> created =
+          client.send(
+              HttpRequest.newBuilder(URI.create(baseUrl + "/create-order"))
+                  .header("Content-Type", "application/json")
+                  .POST(
+                      HttpRequest.BodyPublishers.ofString(
+                          "{\"customerId\":1,\"orderItem\":[{\"productId\":101,\"quantity\":1}]}"))
+                  .build(),
+              HttpResponse.BodyHandlers.ofString());
+      result.create.add(System.nanoTime() - start);
+
+      Matcher matcher = ORDER_ID.matcher(created.body());
+      if (created.statusCode() != 200 || !matcher.find()) {
+        continue;
+      }
+
+      start = System.nanoTime();
+      client.send(
+          HttpRequest.newBuilder(URI.create(baseUrl + "/" + matcher.group(1) + "/cancel"))
+              .PUT(HttpRequest.BodyPublishers.ofString("Benchmark"))
+              .build(),
+          HttpResponse.BodyHandlers.discarding());
+      result.cancel.add(System.nanoTime() - start);
+    }
+    return result;
+  }
+
+  private void respondAfterDelay(HttpExchange exchange) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    try {
+      Thread.sleep(INVENTORY_LATENCY_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    byte[] body = "OK".getBytes();
+    exchange.sendResponseHeaders(200, body.length);
+    exchange.getResponseBody().write(body);
+    exchange.close();
+  }
+
+  private static double percentile(List<Long> latencies, double percentile) {
+    if (latencies.isEmpty()) {
+      return Double.NaN;
+    }
+    List<Long> sorted = latencies.stream().sorted().toList();
+    return sorted.get((int) Math.min(sorted.size() - 1, sorted.size() * percentile)) / 1_000_000.0;
+  }
+
+  private static final class Result {
+    private final List<Long> create = new ArrayList<>();
+    private final List<Long> cancel = new ArrayList<>();
+  }
+}
@@ -0,0 +1,148 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderLease;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderLeaseRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.processor.OrderProcessor;
+import com.project.anesu.ecommerce.ordermanagementservice.service.processor.OrderProcessorEndpoint;
+import com.project.anesu.ecommerce.ordermanagementservice.service.processor.OrderProcessorProperties;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BackgroundOrderProcessingTest {
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private OrderLeaseRepository orderLeaseRepository;
+  @Autowired private OrderProcessorEndpoint orderProcessorEndpoint;
+  @Autowired private OrderProcessor orderProcessor;
+  @Autowired private OrderProcessorProperties orderProcessorProperties;
+
+  private int batchSize;
+  private int workers;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+    batchSize = orderProcessorProperties.getBatchSize();
+    workers = orderProcessorProperties.getWorkers();
+  }
+
+  @AfterEach
+  void tearDown() {
+    orderProcessorProperties.setBatchSize(batchSize);
+    orderProcessorProperties.setWorkers(workers);
+  }
+
+  @Test
+  void shouldMovePlacedOrdersToProcessing_AndSkipOrdersLeasedByAnotherInstance() {
+
+    // Given
+    Long first = saveOrder(null, null).getId();
+    Long second = saveOrder(null, null).getId();
+    Long leased = saveOrder("other-instance:1", LocalDateTime.now().plusMinutes(5)).getId();
+    Long expired = saveOrder("other-instance:2", LocalDateTime.now().minusMinutes(5)).getId();
+    orderProcessorProperties.setBatchSize(1);
+
+    // When
+    int processed = orderProcessor.processClaimableOrders();
+
+    // Then
+    assertThat(processed).isGreaterThanOrEqualTo(3);
+    assertEquals(OrderStatus.PROCESSING, getOrderStatus(first));
+    assertEquals(OrderStatus.PROCESSING, getOrderStatus(second));
+    assertEquals(OrderStatus.PROCESSING, getOrderStatus(expired));
+    assertEquals(OrderStatus.ORDER_PLACED, getOrderStatus(leased));
+    assertEquals(List.of(leased), orderLeaseRepository.findOrderIdsByClaimedBy("other-instance:1"));
+    assertFalse(orderLeaseRepository.existsById(first));
+  }
+
+  @Test
+  void shouldChangeBatchSizeAndWorkersAtRuntime_WithinTheConfiguredMaxima() {
+
+    // When
+    Map<String, Object> settings = orderProcessorEndpoint.updateSettings(25, 8);
+
+    // Then
+    assertEquals(25, settings.get("batchSize"));
+    assertEquals(8, orderProcessorProperties.getWorkers());
+    assertThrows(
+        InvalidEndpointRequestException.class,
+        () -> orderProcessorEndpoint.updateSettings(null, 0));
+    assertThrows(
+        InvalidEndpointRequestException.class,
+        () ->
+            orderProcessorEndpoint.updateSettings(
+                orderProcessorProperties.getMaxBatchSize() + 1, null));
+  }
+
+  @Test
+  void shouldOnlyExposeTheSettingsForReading_OverTheWebByDefault() {
+
+    RestAssured.given()
+        .when()
+        .get("/actuator/orderprocessor")
+        .then()
+        .statusCode(200)
+        .body("maxWorkers", equalTo(orderProcessorProperties.getMaxWorkers()));
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body("{\"batchSize\": 25}")
+        .when()
+        .post("/actuator/orderprocessor")
+        .then()
+        .statusCode(405);
+    assertNotEquals(25, orderProcessorProperties.getBatchSize());
+  }
+
+  private OrderStatus getOrderStatus(Long orderId) {
+    return orderRepository.findViewById(orderId).orElseThrow().getOrderStatus();
+  }
+
+  private Order saveOrder(String claimedBy, LocalDateTime claimedUntil) {
+    Order order = new Order();
+    order.setCustomerId(1L);
+    order.setOrderStatus(OrderStatus.ORDER_PLACED);
+    order.setOrderDate(LocalDateTime.now().minusDays(1));
+    Order savedOrder = orderRepository.save(order);
+    if (claimedBy != null) {
+      orderLeaseRepository.save(new OrderLease(savedOrder.getId(), claimedBy, claimedUntil));
+    }
+    return savedOrder;
+  }
+}
@@ -0,0 +1,247 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.controller.customer.CustomerServiceRestEndpoints;
+import com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.CustomerRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetTest {
+
+  private static final String ORDER_BY_ID =
+      OrderServiceRestEndpoints.LANDING_PAGE + OrderServiceRestEndpoints.GET_ORDER_BY_ID;
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+  }
+
+  @Test
+  void shouldAnswerMatchingIfNoneMatchWith304_AndChangeETagWhenTheOrderChanges() {
+
+    // Given
+    Long orderId = saveOrder(OrderStatus.ORDER_PLACED).getId();
+    String eTag = getOrderETag(orderId);
+
+    // When
+    RestAssured.given()
+        .header("If-None-Match", eTag)
+        .when()
+        .get(ORDER_BY_ID, orderId)
+        .then()
+        .statusCode(304)
+        .header("ETag", equalTo(eTag))
+        .body(emptyString());
+
+    RestAssured.given()
+        .when()
+        .put(
+            OrderServiceRestEndpoints.LANDING_PAGE + OrderServiceRestEndpoints.PROCESS_ORDER,
+            orderId)
+        .then()
+        .statusCode(200);
+
+    // Then
+    String eTagAfterTransition =
+        RestAssured.given()
+            .header("If-None-Match", eTag)
+            .when()
+            .get(ORDER_BY_ID, orderId)
+            .then()
+            .statusCode(200)
+            .body("orderStatus", equalTo("PROCESSING"))
+            .extract()
+            .header("ETag");
+    assertNotEquals(eTag, eTagAfterTransition);
+  }
+
+  @Test
+  void shouldChangeOrderETag_WhenOnlyADeliveryAddressIsUpdated() {
+
+    // Given
+    Order order = saveOrder(OrderStatus.ORDER_PLACED);
+    Long addressId = order.getDeliveryAddress().getFirst().getId();
+    String eTag = getOrderETag(order.getId());
+
+    // When
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body("{ \"streetName\": \"Victor street\", \"city\": \"London\" }")
+        .when()
+        .put(
+            OrderServiceRestEndpoints.LANDING_PAGE
+                + OrderServiceRestEndpoints.UPDATE_DELIVERY_ADDRESS,
+            order.getId(),
+            addressId)
+        .then()
+        .statusCode(200);
+
+    // Then
+    RestAssured.given()
+        .header("If-None-Match", eTag)
+        .when()
+        .get(ORDER_BY_ID, order.getId())
+        .then()
+        .statusCode(200)
+        .header("ETag", not(equalTo(eTag)))
+        .body("deliveryAddress[0].city", equalTo("London"));
+  }
+
+  @Test
+  void shouldServeDeliveredOrder_FromCachedJson() {
+
+    // Given
+    Long orderId = saveOrder(OrderStatus.DELIVERED).getId();
+    double hitsBefore = orderJsonCacheHits();
+
+    // When
+    String first = RestAssured.given().when().get(ORDER_BY_ID, orderId).asString();
+    String second =
+        RestAssured.given()
+            .when()
+            .get(ORDER_BY_ID, orderId)
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .body("orderItem[0].productId", equalTo(101))
+            .extract()
+            .asString();
+
+    // Then
+    assertEquals(first, second);
+    assertEquals(hitsBefore + 1, orderJsonCacheHits());
+  }
+
+  @Test
+  void shouldAnswerMatchingIfNoneMatchWith304_ForCustomers() {
+
+    // Given
+    Customer customer = new Customer();
+    customer.setFirstName("Marge");
+    customer.setLastName("Smith");
+    customer.setEmail("marge.smith@gmail.com");
+    customer.setPhoneNumber("+49 040 567 56");
+    customer.setBirthDate(LocalDate.of(1978, 8, 9));
+    Long customerId = customerRepository.save(customer).getId();
+    String customerById =
+        CustomerServiceRestEndpoints.LANDING_PAGE + CustomerServiceRestEndpoints.GET_CUSTOMER_BY_ID;
+
+    String eTag =
+        RestAssured.given()
+            .when()
+            .get(customerById, customerId)
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+
+    // When
+    RestAssured.given()
+        .header("If-None-Match", eTag)
+        .when()
+        .get(customerById, customerId)
+        .then()
+        .statusCode(304);
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body("{ \"streetName\": \"Elm Street\", \"city\": \"Springfield\" }")
+        .when()
+        .post(
+            CustomerServiceRestEndpoints.LANDING_PAGE
+                + CustomerServiceRestEndpoints.LINK_CUSTOMER_DELIVERY_ADDRESSES,
+            customerId)
+        .then()
+        .statusCode(200);
+
+    // Then
+    RestAssured.given()
+        .header("If-None-Match", eTag)
+        .when()
+        .get(customerById, customerId)
+        .then()
+        .statusCode(200)
+        .body("savedAddresses[0].city", equalTo("Springfield"));
+  }
+
+  private String getOrderETag(Long orderId) {
+    return RestAssured.given()
+        .when()
+        .get(ORDER_BY_ID, orderId)
+        .then()
+        .statusCode(200)
+        .extract()
+        .header("ETag");
+  }
+
+  private double orderJsonCacheHits() {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", "order.json")
+        .tag("result", "hit")
+        .functionCounter()
+        .count();
+  }
+
+  private Order saveOrder(OrderStatus orderStatus) {
+    Order order = new Order();
+    order.setCustomerId(1L);
+    order.setOrderStatus(orderStatus);
+    order.setOrderDate(LocalDateTime.now());
+
+    OrderItem orderItem = new OrderItem();
+    orderItem.setProductId(101L);
+    orderItem.setQuantity(1);
+    orderItem.setOrder(order);
+    order.setOrderItem(new ArrayList<>(List.of(orderItem)));
+
+    Address address = new Address();
+    address.setStreetName("Haut str");
+    address.setCity("Berlin");
+    address.setOrder(order);
+    order.setDeliveryAddress(new ArrayList<>(List.of(address)));
+    return orderRepository.save(order);
+  }
+}
@@ -96,7 +96,7 @@ class CustomerAddressServiceTest {
             .body("savedAddresses[0].city", equalTo("Spring Ville"))
             .extract()
             .jsonPath()
-            .getLong("id");
+            .getLong("savedAddresses[0].id");
 
     String updateAddressRequestBody =
         """
@@ -153,7 +153,7 @@ class CustomerAddressServiceTest {
             .body("savedAddresses[0].city", equalTo("Springfield"))
             .extract()
             .jsonPath()
-            .getLong("id");
+            .getLong("savedAddresses[0].id");
 
     String deleteAddressRequestBody =
         """
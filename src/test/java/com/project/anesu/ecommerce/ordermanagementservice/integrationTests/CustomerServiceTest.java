@@ -2,6 +2,7 @@ package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
 
 import static com.project.anesu.ecommerce.ordermanagementservice.controller.customer.CustomerServiceRestEndpoints.*;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
@@ -188,7 +189,17 @@ class CustomerServiceTest {
         .when()
         .get(LANDING_PAGE + GET_ALL_CUSTOMERS)
         .then()
-        .statusCode(200);
+        .statusCode(200)
+        .body("items.size()", greaterThanOrEqualTo(2));
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .queryParam("cursor", "%%%")
+        .when()
+        .get(LANDING_PAGE + GET_ALL_CUSTOMERS)
+        .then()
+        .statusCode(400)
+        .body("message", equalTo("Invalid cursor."));
   }
 
   @Test
@@ -0,0 +1,204 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.CustomerService;
+import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(
+    properties = {
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "inventory.outbox.relay-enabled=false"
+    })
+class EntityCacheTest {
+
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerService customerService;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Statistics statistics;
+  private TransactionTemplate transactionTemplate;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void shouldServeRepeatedOrderReads_WithItemsAndAddresses_FromTheCache() {
+
+    // Given
+    Long orderId = saveOrder().getId();
+    readOrder(orderId);
+    statistics.clear();
+
+    // When
+    String cityOfSecondRead = readOrder(orderId);
+
+    // Then
+    assertEquals("Berlin", cityOfSecondRead);
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertTrue(statistics.getSecondLevelCacheHitCount() >= 4);
+  }
+
+  @Test
+  void shouldReturnNewStatus_AfterTransitionOfACachedOrder() {
+
+    // Given
+    Long orderId = saveOrder().getId();
+    readOrder(orderId);
+
+    // When
+    orderService.processPendingOrder(orderId);
+    statistics.clear();
+
+    // Then
+    assertEquals(
+        OrderStatus.PROCESSING,
+        inTransaction(() -> orderService.getOrderById(orderId).getOrderStatus()));
+    assertEquals(0, statistics.getPrepareStatementCount());
+
+    orderService.sendOrderOutForDelivery(orderId);
+    assertEquals(
+        OrderStatus.OUT_FOR_DELIVERY,
+        inTransaction(() -> orderService.getOrderById(orderId).getOrderStatus()));
+  }
+
+  @Test
+  void shouldReturnUpdatedCustomerAndAddresses_AfterWritesToACachedCustomer() {
+
+    // Given
+    Long customerId = customerService.createCustomer(getCustomer("Marge")).getId();
+    inTransaction(() -> customerService.getCustomerById(customerId).getSavedAddresses().size());
+
+    // When
+    customerService.updateCustomer(customerId, getCustomer("Homer"));
+    Address address = new Address();
+    address.setCity("Springfield");
+    inTransaction(() -> customerService.linkDeliveryAddressToCustomer(customerId, address));
+
+    // Then
+    Customer customer = inTransaction(() -> readCustomer(customerId));
+    assertEquals("Homer", customer.getFirstName());
+    assertEquals("Springfield", customer.getSavedAddresses().getFirst().getCity());
+
+    statistics.clear();
+    inTransaction(() -> readCustomer(customerId));
+    assertEquals(0, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void shouldPublishHitAndMissMetricsPerRegion() {
+
+    // Given
+    Long orderId = saveOrder().getId();
+
+    // When
+    readOrder(orderId);
+    readOrder(orderId);
+
+    // Then
+    for (String result : List.of("hit", "miss")) {
+      double count =
+          meterRegistry
+              .get("cache.gets")
+              .tag("cache", Order.class.getName())
+              .tag("result", result)
+              .functionCounter()
+              .count();
+      assertTrue(count > 0, result);
+    }
+  }
+
+  private Customer readCustomer(Long customerId) {
+    Customer customer = customerService.getCustomerById(customerId);
+    customer.getSavedAddresses().size();
+    return customer;
+  }
+
+  private String readOrder(Long orderId) {
+    return inTransaction(
+        () -> {
+          Order order = orderService.getOrderById(orderId);
+          order.getOrderItem().size();
+          return order.getDeliveryAddress().getFirst().getCity();
+        });
+  }
+
+  private <T> T inTransaction(Supplier<T> action) {
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  private Order saveOrder() {
+    Order order = new Order();
+    order.setCustomerId(1L);
+    order.setOrderStatus(OrderStatus.ORDER_PLACED);
+    order.setOrderDate(LocalDateTime.now());
+
+    List<OrderItem> orderItems = new ArrayList<>();
+    for (long productId = 101; productId <= 102; productId++) {
+      OrderItem orderItem = new OrderItem();
+      orderItem.setProductId(productId);
+      orderItem.setQuantity(1);
+      orderItem.setOrder(order);
+      orderItems.add(orderItem);
+    }
+    order.setOrderItem(orderItems);
+
+    Address address = new Address();
+    address.setCity("Berlin");
+    address.setOrder(order);
+    order.setDeliveryAddress(new ArrayList<>(List.of(address)));
+    return orderRepository.save(order);
+  }
+
+  private Customer getCustomer(String firstName) {
+    Customer customer = new Customer();
+    customer.setFirstName(firstName);
+    customer.setLastName("Simpson");
+    customer.setEmail(firstName.toLowerCase() + ".simpson@gmail.com");
+    customer.setPhoneNumber("+49 040 567 56");
+    customer.setBirthDate(LocalDate.of(1978, 8, 9));
+    return customer;
+  }
+}
@@ -0,0 +1,221 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryUnavailableException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.rest.InventoryClientProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.rest.InventoryResilienceConfig;
+import com.project.anesu.ecommerce.ordermanagementservice.service.rest.InventoryResilienceProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.rest.RestInventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.service.rest.RestTemplateConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+class InventoryClientTest {
+
+  private static final List<Map<String, Object>> BATCH_ORDER_REQUEST =
+      List.of(Map.of("productId", 101L, "quantity", 2));
+
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+  private HttpServer inventoryStub;
+  private PoolingHttpClientConnectionManager connectionManager;
+  private SimpleMeterRegistry meterRegistry;
+  private CircuitBreaker circuitBreaker;
+  private Bulkhead bulkhead;
+  private RestInventoryClient cut;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    inventoryStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    inventoryStub.createContext("/api/stock/validate-and-deduct-product", this::respondOk);
+    inventoryStub.createContext("/api/stock/add-returned-inventory", this::respondSlowly);
+    inventoryStub.setExecutor(Executors.newCachedThreadPool());
+    inventoryStub.start();
+
+    InventoryClientProperties properties = new InventoryClientProperties();
+    properties.setBaseUrl("http://localhost:" + inventoryStub.getAddress().getPort());
+    properties.setReadTimeout(Duration.ofMillis(200));
+
+    InventoryResilienceProperties resilienceProperties = new InventoryResilienceProperties();
+    resilienceProperties.setSlidingWindowSize(2);
+    resilienceProperties.setMinimumNumberOfCalls(2);
+    resilienceProperties.setWaitDurationInOpenState(Duration.ofMillis(300));
+    resilienceProperties.setPermittedCallsInHalfOpenState(1);
+    resilienceProperties.setMaxConcurrentCalls(1);
+
+    RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+    InventoryResilienceConfig resilienceConfig = new InventoryResilienceConfig();
+    connectionManager = restTemplateConfig.inventoryConnectionManager(properties);
+    meterRegistry = new SimpleMeterRegistry();
+    circuitBreaker = resilienceConfig.inventoryCircuitBreaker(resilienceProperties, meterRegistry);
+    bulkhead = resilienceConfig.inventoryBulkhead(resilienceProperties, meterRegistry);
+
+    cut =
+        new RestInventoryClient(
+            restTemplateConfig.restTemplate(connectionManager, properties),
+            properties,
+            meterRegistry,
+            circuitBreaker,
+            bulkhead);
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionManager.close();
+    inventoryStub.stop(0);
+  }
+
+  @Test
+  void shouldReusePooledConnectionAcrossInventoryCalls() {
+
+    for (int i = 0; i < 20; i++) {
+      ResponseEntity<String> response = cut.validateAndDeduct(BATCH_ORDER_REQUEST);
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    assertThat(clientPorts).hasSize(1);
+    assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    assertEquals(
+        20,
+        meterRegistry
+            .get("inventory.client.requests")
+            .tag("endpoint", "VALIDATE_AND_DEDUCT_PRODUCT")
+            .tag("outcome", "200")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void shouldFailFast_WhenInventoryServiceDoesNotRespondWithinReadTimeout() {
+
+    assertThrows(ResourceAccessException.class, () -> cut.returnInventory(BATCH_ORDER_REQUEST));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("inventory.client.requests")
+            .tag("endpoint", "ADD_RETURNED_INVENTORY")
+            .tag("outcome", "IO_ERROR")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void shouldRejectCallsWithoutContactingInventory_WhileCircuitIsOpen_AndCloseAfterSuccessfulProbe()
+      throws InterruptedException {
+
+    // Given
+    assertThrows(ResourceAccessException.class, () -> cut.returnInventory(BATCH_ORDER_REQUEST));
+    assertThrows(ResourceAccessException.class, () -> cut.returnInventory(BATCH_ORDER_REQUEST));
+    assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+    // When
+    long start = System.nanoTime();
+    assertThrows(
+        InventoryUnavailableException.class, () -> cut.validateAndDeduct(BATCH_ORDER_REQUEST));
+    long rejectionNanos = System.nanoTime() - start;
+
+    // Then
+    assertThat(rejectionNanos).isLessThan(Duration.ofMillis(50).toNanos());
+    assertThat(clientPorts).isEmpty();
+
+    Thread.sleep(500);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+    assertEquals(HttpStatus.OK, cut.validateAndDeduct(BATCH_ORDER_REQUEST).getStatusCode());
+    assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("inventory.client.requests")
+            .tag("endpoint", "VALIDATE_AND_DEDUCT_PRODUCT")
+            .tag("outcome", "CIRCUIT_OPEN")
+            .timer()
+            .count());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("inventory.circuitbreaker.transitions")
+            .tag("from", "CLOSED")
+            .tag("to", "OPEN")
+            .counter()
+            .count());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("inventory.circuitbreaker.transitions")
+            .tag("from", "HALF_OPEN")
+            .tag("to", "CLOSED")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void shouldRejectCall_WhenBulkheadIsFull() {
+
+    // Given
+    CompletableFuture<Void> inFlight =
+        CompletableFuture.runAsync(() -> cut.returnInventory(BATCH_ORDER_REQUEST));
+    while (bulkhead.getMetrics().getAvailableConcurrentCalls() > 0) {
+      Thread.onSpinWait();
+    }
+
+    // When / Then
+    assertThrows(
+        InventoryUnavailableException.class, () -> cut.validateAndDeduct(BATCH_ORDER_REQUEST));
+    assertThat(clientPorts).isEmpty();
+    assertEquals(
+        1,
+        meterRegistry
+            .get("inventory.client.requests")
+            .tag("endpoint", "VALIDATE_AND_DEDUCT_PRODUCT")
+            .tag("outcome", "BULKHEAD_FULL")
+            .timer()
+            .count());
+
+    assertThat(inFlight).failsWithin(Duration.ofSeconds(2));
+  }
+
+  private void respondOk(HttpExchange exchange) throws IOException {
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    exchange.getRequestBody().readAllBytes();
+
+    byte[] body = "OK".getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, body.length);
+    exchange.getResponseBody().write(body);
+    exchange.close();
+  }
+
+  private void respondSlowly(HttpExchange exchange) throws IOException {
+    try {
+      Thread.sleep(1_000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    respondOk(exchange);
+  }
+}
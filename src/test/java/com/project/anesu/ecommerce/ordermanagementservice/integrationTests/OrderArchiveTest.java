@@ -0,0 +1,176 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.archive.ArchivedOrder;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.ArchivedOrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.archive.OrderArchiveProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.archive.OrderArchiver;
+import io.restassured.RestAssured;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderArchiveTest {
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private ArchivedOrderRepository archivedOrderRepository;
+  @Autowired private OrderArchiver orderArchiver;
+  @Autowired private OrderArchiveProperties orderArchiveProperties;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+  }
+
+  @Test
+  void shouldMoveOldTerminalOrdersToTheArchive_AndStillServeThemById() {
+
+    // Given
+    LocalDateTime longAgo = LocalDateTime.now().minusYears(1);
+    Long delivered = saveOrder(OrderStatus.DELIVERED, longAgo).getId();
+    Long cancelled = saveOrder(OrderStatus.CANCELLED, longAgo).getId();
+    Long recentlyDelivered = saveOrder(OrderStatus.DELIVERED, LocalDateTime.now()).getId();
+    Long stillPlaced = saveOrder(OrderStatus.ORDER_PLACED, longAgo).getId();
+    String deliveredJson = getOrderJson(delivered);
+
+    // When
+    int archived = orderArchiver.archiveOrders();
+
+    // Then
+    assertEquals(2, archived);
+    assertFalse(orderRepository.existsById(delivered));
+    assertFalse(orderRepository.existsById(cancelled));
+    assertTrue(archivedOrderRepository.existsById(delivered));
+    assertTrue(orderRepository.existsById(recentlyDelivered));
+    assertTrue(orderRepository.existsById(stillPlaced));
+
+    assertEquals(deliveredJson, getOrderJson(delivered));
+    RestAssured.given().when().put(LANDING_PAGE + PROCESS_ORDER, cancelled).then().statusCode(409);
+  }
+
+  @Test
+  void shouldSkipAnOrderThatCannotBeArchived_AndArchiveTheRestOfItsChunk() {
+
+    // Given
+    LocalDateTime longAgo = LocalDateTime.now().minusYears(1);
+    Long first = saveOrder(OrderStatus.DELIVERED, longAgo).getId();
+    Long failing = saveOrder(OrderStatus.DELIVERED, longAgo).getId();
+    Long last = saveOrder(OrderStatus.CANCELLED, longAgo).getId();
+    archivedOrderRepository.save(
+        new ArchivedOrder(failing, 0L, LocalDateTime.now(), new byte[] {1}));
+
+    // When
+    orderArchiver.archiveOrders();
+
+    // Then
+    assertFalse(orderRepository.existsById(first));
+    assertFalse(orderRepository.existsById(last));
+    assertTrue(orderRepository.existsById(failing));
+  }
+
+  @Test
+  void shouldKeepTerminalOrders_UntilTheyWereDeliveredOrCancelledLongEnoughAgo() {
+
+    // Given
+    Order order = saveOrder(OrderStatus.DELIVERED, LocalDateTime.now().minusYears(1));
+    order.setStatusChangedAt(LocalDateTime.now());
+    Long recentlyDelivered = orderRepository.save(order).getId();
+
+    // When
+    orderArchiver.archiveOrders();
+
+    // Then
+    assertTrue(orderRepository.existsById(recentlyDelivered));
+  }
+
+  @Test
+  void shouldStopAfterTheMaximumNumberOfChunksPerRun_AndLeaveTheRestForTheNextRun() {
+
+    // Given
+    LocalDateTime longAgo = LocalDateTime.now().minusYears(1);
+    List<Long> orderIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      orderIds.add(saveOrder(OrderStatus.DELIVERED, longAgo).getId());
+    }
+    int batchSize = orderArchiveProperties.getBatchSize();
+    int maxBatchesPerRun = orderArchiveProperties.getMaxBatchesPerRun();
+    orderArchiveProperties.setBatchSize(1);
+    orderArchiveProperties.setMaxBatchesPerRun(2);
+
+    try {
+      // When
+      int archived = orderArchiver.archiveOrders();
+
+      // Then
+      assertTrue(archived <= 2);
+      assertTrue(orderIds.stream().anyMatch(orderRepository::existsById));
+    } finally {
+      orderArchiveProperties.setBatchSize(batchSize);
+      orderArchiveProperties.setMaxBatchesPerRun(maxBatchesPerRun);
+    }
+  }
+
+  private String getOrderJson(Long orderId) {
+    return RestAssured.given()
+        .when()
+        .get(LANDING_PAGE + GET_ORDER_BY_ID, orderId)
+        .then()
+        .statusCode(200)
+        .extract()
+        .asString();
+  }
+
+  private Order saveOrder(OrderStatus orderStatus, LocalDateTime orderDate) {
+    Order order = new Order();
+    order.setCustomerId(5L);
+    order.setTotalPrice(19.99);
+    order.setOrderStatus(orderStatus);
+    // Stored with microsecond precision, as the service creates orders.
+    order.setOrderDate(orderDate.truncatedTo(ChronoUnit.MICROS));
+    order.setStatusChangedAt(orderDate);
+
+    OrderItem orderItem = new OrderItem();
+    orderItem.setProductId(7L);
+    orderItem.setQuantity(2);
+    orderItem.setOrder(order);
+    order.setOrderItem(List.of(orderItem));
+
+    Address address = new Address();
+    address.setStreetName("Haut str");
+    address.setCity("Berlin");
+    address.setOrder(order);
+    order.setDeliveryAddress(new ArrayList<>(List.of(address)));
+    return orderRepository.save(order);
+  }
+}
@@ -0,0 +1,135 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderChangeFeedTest {
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+  }
+
+  @Test
+  void shouldReturnOnlyOrdersChangedSinceTheCursor_InTheOrderOfTheirLatestChange() {
+
+    // Given
+    String cursor = readFeedToTheEnd();
+    Long first = saveOrder().getId();
+    Long second = saveOrder().getId();
+    Long third = saveOrder().getId();
+
+    RestAssured.given().when().put(LANDING_PAGE + PROCESS_ORDER, first).then().statusCode(200);
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body("{\"orderIds\": [%d], \"transition\": \"PROCESS\"}".formatted(second))
+        .when()
+        .put(LANDING_PAGE + BULK_TRANSITION)
+        .then()
+        .statusCode(200);
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body("{\"streetName\": \"Haut str\", \"city\": \"Berlin\"}")
+        .when()
+        .post(LANDING_PAGE + ADD_DELIVERY_ADDRESS, third)
+        .then()
+        .statusCode(200);
+
+    // When
+    JsonPath firstPage = getChanges(cursor, 2);
+    JsonPath secondPage = getChanges(firstPage.getString("nextCursor"), 2);
+    JsonPath caughtUp = getChanges(secondPage.getString("nextCursor"), 2);
+
+    // Then
+    assertEquals(List.of(first, second), firstPage.getList("items.id", Long.class));
+    assertEquals(List.of("PROCESSING", "PROCESSING"), firstPage.getList("items.orderStatus"));
+    assertTrue(firstPage.getBoolean("hasMore"));
+    assertEquals(List.of(third), secondPage.getList("items.id", Long.class));
+    assertEquals("Haut str", secondPage.getString("items[0].deliveryAddress[0].streetName"));
+    assertFalse(secondPage.getBoolean("hasMore"));
+    assertTrue(caughtUp.getList("items").isEmpty());
+    assertEquals(secondPage.getString("nextCursor"), caughtUp.getString("nextCursor"));
+  }
+
+  @Test
+  void shouldRejectAnInvalidCursor() {
+
+    RestAssured.given()
+        .queryParam("since", "not-a-cursor")
+        .when()
+        .get(LANDING_PAGE + ORDER_CHANGES)
+        .then()
+        .statusCode(400)
+        .body("message", equalTo("Invalid cursor."));
+  }
+
+  private String readFeedToTheEnd() {
+    String cursor = null;
+    JsonPath page;
+    do {
+      page = getChanges(cursor, 200);
+      cursor = page.getString("nextCursor");
+    } while (page.getBoolean("hasMore"));
+    return cursor;
+  }
+
+  private JsonPath getChanges(String since, int limit) {
+    var request = RestAssured.given().queryParam("limit", limit);
+    if (since != null) {
+      request.queryParam("since", since);
+    }
+    return request
+        .when()
+        .get(LANDING_PAGE + ORDER_CHANGES)
+        .then()
+        .statusCode(200)
+        .extract()
+        .jsonPath();
+  }
+
+  private Order saveOrder() {
+    Order order = new Order();
+    order.setCustomerId(3L);
+    order.setOrderStatus(OrderStatus.ORDER_PLACED);
+    order.setOrderDate(LocalDateTime.now());
+    order.setDeliveryAddress(new ArrayList<Address>());
+    return orderRepository.save(order);
+  }
+}
@@ -0,0 +1,180 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.export.OrderExporter;
+import io.restassured.RestAssured;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderExportTest {
+
+  private static final int EXPORTED_ORDERS = 3_000;
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private OrderExporter orderExporter;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @PersistenceContext private EntityManager entityManager;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+
+    if (orderRepository.count() < EXPORTED_ORDERS) {
+      List<Order> orders = new ArrayList<>();
+      for (int i = 0; i < EXPORTED_ORDERS; i++) {
+        orders.add(getOrderWithItemsAndAddress(i));
+      }
+      orderRepository.saveAll(orders);
+    }
+  }
+
+  @Test
+  void shouldKeepPersistenceContextBounded_WhileExportingAllOrders() throws IOException {
+
+    // Given
+    long expectedOrders = orderRepository.count();
+    PersistenceContextProbe probe = new PersistenceContextProbe();
+
+    // When
+    long exported = orderExporter.export(probe);
+
+    // Then
+    assertEquals(expectedOrders, exported);
+    assertEquals(expectedOrders, probe.lines);
+
+    int entitiesPerOrder = 4;
+    assertThat(probe.maxManagedEntities)
+        .isPositive()
+        .isLessThanOrEqualTo(2 * OrderExporter.CLEAR_EVERY * entitiesPerOrder)
+        .isLessThan((int) expectedOrders * entitiesPerOrder / 2);
+
+    JsonNode lastOrder = objectMapper.readTree(probe.lastLine());
+    assertThat(lastOrder.get("orderItem")).hasSize(2);
+    assertThat(lastOrder.get("deliveryAddress")).hasSize(1);
+  }
+
+  @Test
+  void shouldNotFillTheSecondLevelCache_WhileExportingAllOrders() {
+
+    // Given
+    Long lastOrderId =
+        entityManager.createQuery("select max(o.id) from Order o", Long.class).getSingleResult();
+    Cache cache = entityManagerFactory.getCache();
+    cache.evictAll();
+
+    // When
+    orderExporter.export(new ByteArrayOutputStream());
+
+    // Then
+    assertFalse(cache.contains(Order.class, lastOrderId));
+  }
+
+  @Test
+  void shouldStreamOrdersAsNdjson() {
+
+    String body =
+        RestAssured.given()
+            .when()
+            .get(LANDING_PAGE + EXPORT_ORDERS)
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .extract()
+            .asString();
+
+    assertEquals(orderRepository.count(), body.lines().count());
+  }
+
+  private Order getOrderWithItemsAndAddress(int i) {
+    Order order = new Order();
+    order.setCustomerId((long) i % 100);
+    order.setOrderStatus(OrderStatus.ORDER_PLACED);
+    order.setOrderDate(LocalDateTime.now());
+
+    List<OrderItem> orderItems = new ArrayList<>();
+    for (long productId = 101; productId <= 102; productId++) {
+      OrderItem orderItem = new OrderItem();
+      orderItem.setProductId(productId);
+      orderItem.setQuantity(1);
+      orderItem.setOrder(order);
+      orderItems.add(orderItem);
+    }
+    order.setOrderItem(orderItems);
+
+    Address address = new Address();
+    address.setStreetName("Haut str");
+    address.setCity("Berlin");
+    address.setOrder(order);
+    order.setDeliveryAddress(new ArrayList<>(List.of(address)));
+    return order;
+  }
+
+  /**
+   * Records the size of the persistence context every time the exporter writes to the stream. It
+   * runs inside the export transaction, so the shared entity manager resolves to the one used by
+   * the export.
+   */
+  private class PersistenceContextProbe extends ByteArrayOutputStream {
+
+    private int maxManagedEntities;
+    private long lines;
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+      super.write(bytes, offset, length);
+      for (int i = offset; i < offset + length; i++) {
+        if (bytes[i] == '\n') {
+          lines++;
+        }
+      }
+      int managedEntities = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+      maxManagedEntities = Math.max(maxManagedEntities, managedEntities);
+    }
+
+    private String lastLine() {
+      List<String> allLines = toString().lines().toList();
+      return allLines.getLast();
+    }
+  }
+}
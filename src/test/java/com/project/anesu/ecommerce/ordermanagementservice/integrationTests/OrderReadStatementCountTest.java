@@ -0,0 +1,137 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import io.restassured.RestAssured;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Counts the SQL statements of the order read endpoints. Reading an order or a page of orders has
+ * to cost one query for the orders, one for their items and one for their delivery addresses, no
+ * matter how many orders are returned.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "inventory.outbox.relay-enabled=false"
+    })
+class OrderReadStatementCountTest {
+
+  private static final int PAGE_SIZE = 20;
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void shouldListPageOfOrders_WithThreeStatements() {
+
+    // Given
+    saveOrders(PAGE_SIZE);
+    statistics.clear();
+
+    // When
+    RestAssured.given()
+        .queryParam("limit", PAGE_SIZE)
+        .when()
+        .get(LANDING_PAGE + GET_ALL_ORDERS)
+        .then()
+        .statusCode(200)
+        .body("items", hasSize(PAGE_SIZE))
+        .body("items[0].orderItem", hasSize(2))
+        .body("items[0].deliveryAddress", hasSize(1));
+
+    // Then
+    assertEquals(3, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void shouldGetOrderById_WithoutStatements_OnceTheOrderIsCached() {
+
+    // Given
+    Long orderId = saveOrders(1).getFirst().getId();
+    // ETag and body are built from the cached entity, which is loaded by the first read
+    RestAssured.given().when().get(LANDING_PAGE + "/" + orderId).then().statusCode(200);
+    statistics.clear();
+
+    // When
+    RestAssured.given()
+        .when()
+        .get(LANDING_PAGE + "/" + orderId)
+        .then()
+        .statusCode(200)
+        .body("orderItem", hasSize(2))
+        .body("deliveryAddress[0].city", equalTo("Berlin"));
+
+    // Then
+    assertEquals(0, statistics.getPrepareStatementCount());
+  }
+
+  private List<Order> saveOrders(int count) {
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Order order = new Order();
+      order.setCustomerId(1L);
+      order.setOrderStatus(OrderStatus.ORDER_PLACED);
+      order.setOrderDate(LocalDateTime.now().plusYears(1));
+
+      List<OrderItem> orderItems = new ArrayList<>();
+      for (long productId = 101; productId <= 102; productId++) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setProductId(productId);
+        orderItem.setQuantity(1);
+        orderItem.setOrder(order);
+        orderItems.add(orderItem);
+      }
+      order.setOrderItem(orderItems);
+
+      Address address = new Address();
+      address.setCity("Berlin");
+      address.setOrder(order);
+      order.setDeliveryAddress(new ArrayList<>(List.of(address)));
+      orders.add(order);
+    }
+    return orderRepository.saveAll(orders);
+  }
+}
@@ -1,20 +1,36 @@
 package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
 
 import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEvent;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
 import com.project.anesu.ecommerce.ordermanagementservice.model.repository.CustomerRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournal;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.path.json.JsonPath;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +48,8 @@ class OrderServiceTest {
   @LocalServerPort int port;
 
   @Autowired private CustomerRepository customerRepository;
+  @Autowired private InventoryReturnOutboxRepository inventoryReturnOutboxRepository;
+  @Autowired private OrderJournal orderJournal;
 
   @Autowired RestTemplate restTemplate;
 
@@ -62,6 +80,72 @@ class OrderServiceTest {
     customerId = savedCustomer.getId();
   }
 
+  @Test
+  void shouldReplayCreatedOrder_WhenRequestIsRetriedWithSameIdempotencyKey() {
+
+    successfulInventoryValidationFromProductService();
+    String createOrderRequestBody = getOrderRequestBodyBeforeAddressConfirmation();
+    String idempotencyKey = "retry-" + customerId;
+
+    Long orderId =
+        RestAssured.given()
+            .contentType(ContentType.JSON)
+            .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+            .body(createOrderRequestBody)
+            .when()
+            .post(LANDING_PAGE + CREATE_ORDER)
+            .then()
+            .statusCode(200)
+            .body("orderStatus", equalTo("ORDER_PLACED"))
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+        .body(createOrderRequestBody)
+        .when()
+        .post(LANDING_PAGE + CREATE_ORDER)
+        .then()
+        .statusCode(200)
+        .header("Idempotent-Replayed", "true")
+        .body("id", equalTo(orderId.intValue()))
+        .body("orderItem", hasSize(2));
+
+    verify(restTemplate, times(1))
+        .postForEntity(contains("validate-and-deduct"), any(), eq(String.class));
+  }
+
+  @Test
+  void shouldRejectIdempotencyKey_WhenReusedForDifferentOrder() {
+
+    successfulInventoryValidationFromProductService();
+    String createOrderRequestBody = getOrderRequestBodyBeforeAddressConfirmation();
+    String idempotencyKey = "reused-" + customerId;
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+        .body(createOrderRequestBody)
+        .when()
+        .post(LANDING_PAGE + CREATE_ORDER)
+        .then()
+        .statusCode(200);
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+        .body(createOrderRequestBody.replace("\"quantity\": 2", "\"quantity\": 3"))
+        .when()
+        .post(LANDING_PAGE + CREATE_ORDER)
+        .then()
+        .statusCode(422);
+
+    verify(restTemplate, times(1))
+        .postForEntity(contains("validate-and-deduct"), any(), eq(String.class));
+  }
+
   @Test
   void shouldSuccessfullyCreateOrderAndLinkAddressWhenInventoryValidationHasPassed() {
 
@@ -134,6 +218,48 @@ class OrderServiceTest {
         .body("message", containsString("Order validation failed"));
   }
 
+  @Test
+  void shouldCreateOrdersInBatch_WithASingleInventoryValidationRequest() {
+
+    successfulInventoryValidationFromProductService();
+
+    String createOrdersRequestBody =
+        String.format(
+            """
+                [
+                  {
+                    "customerId": %d,
+                    "orderItem": [ { "productId": 101, "quantity": 2 } ]
+                  },
+                  {
+                    "customerId": %d,
+                    "orderItem": [ { "productId": 101, "quantity": 1 } ]
+                  },
+                  {
+                    "orderItem": [ { "productId": 102, "quantity": 1 } ]
+                  }
+                ]
+                """,
+            customerId, customerId);
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body(createOrdersRequestBody)
+        .when()
+        .post(LANDING_PAGE + CREATE_ORDERS_BATCH)
+        .then()
+        .statusCode(200)
+        .body("", hasSize(3))
+        .body("[0].created", equalTo(true))
+        .body("[0].orderId", notNullValue())
+        .body("[1].created", equalTo(true))
+        .body("[2].created", equalTo(false))
+        .body("[2].message", equalTo("Customer ID cannot be null."));
+
+    verify(restTemplate, times(1))
+        .postForEntity(contains("validate-and-deduct"), any(), eq(String.class));
+  }
+
   @Test
   void shouldRetrieveAllOrdersFromTheDatabase() {
     successfulInventoryValidationFromProductService();
@@ -227,12 +353,28 @@ class OrderServiceTest {
         .body("orderItem", hasSize(2))
         .body("deliveryAddress[0].streetName", equalTo("Victor street"));
 
-    RestAssured.given()
-        .contentType(ContentType.JSON)
-        .when()
-        .get(LANDING_PAGE + GET_ALL_ORDERS)
-        .then()
-        .statusCode(200);
+    List<Long> pagedOrderIds = new ArrayList<>();
+    String cursor = null;
+    do {
+      JsonPath page =
+          RestAssured.given()
+              .contentType(ContentType.JSON)
+              .queryParams(
+                  cursor == null ? Map.of("limit", 1) : Map.of("limit", 1, "cursor", cursor))
+              .when()
+              .get(LANDING_PAGE + GET_ALL_ORDERS)
+              .then()
+              .statusCode(200)
+              .body("items", hasSize(1))
+              .extract()
+              .jsonPath();
+
+      pagedOrderIds.add(page.getLong("items[0].id"));
+      cursor = page.getString("nextCursor");
+    } while (cursor != null);
+
+    assertThat(pagedOrderIds).doesNotHaveDuplicates().contains(orderIdOne, orderIdTwo);
+    assertThat(pagedOrderIds.indexOf(orderIdTwo)).isLessThan(pagedOrderIds.indexOf(orderIdOne));
   }
 
   @Test
@@ -379,6 +521,260 @@ class OrderServiceTest {
         .body("orderStatus", equalTo("DELIVERED"));
   }
 
+  @Test
+  void shouldSearchOrdersByCustomerStatusAndDateRange() {
+
+    successfulInventoryValidationFromProductService();
+    List<Long> orderIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      orderIds.add(
+          RestAssured.given()
+              .contentType(ContentType.JSON)
+              .body(getOrderRequestBodyBeforeAddressConfirmation())
+              .when()
+              .post(LANDING_PAGE + CREATE_ORDER)
+              .then()
+              .statusCode(200)
+              .extract()
+              .jsonPath()
+              .getLong("id"));
+    }
+
+    RestAssured.given()
+        .when()
+        .put(LANDING_PAGE + PROCESS_ORDER, orderIds.getFirst())
+        .then()
+        .statusCode(200);
+
+    RestAssured.given()
+        .queryParam("customerId", customerId)
+        .queryParam("orderStatus", "PROCESSING")
+        .when()
+        .get(LANDING_PAGE + SEARCH_ORDERS)
+        .then()
+        .statusCode(200)
+        .body("items.id", equalTo(List.of(orderIds.getFirst().intValue())))
+        .body("items[0].orderItem", hasSize(2))
+        .body("nextCursor", nullValue());
+
+    List<Long> pagedOrderIds = new ArrayList<>();
+    String cursor = null;
+    do {
+      JsonPath page =
+          RestAssured.given()
+              .queryParam("customerId", customerId)
+              .queryParam("from", LocalDate.now().minusDays(1) + "T00:00:00")
+              .queryParam("to", LocalDate.now().plusDays(1) + "T00:00:00")
+              .queryParam("limit", 2)
+              .queryParams(cursor == null ? Map.of() : Map.of("cursor", cursor))
+              .when()
+              .get(LANDING_PAGE + SEARCH_ORDERS)
+              .then()
+              .statusCode(200)
+              .extract()
+              .jsonPath();
+
+      pagedOrderIds.addAll(page.getList("items.id", Long.class));
+      cursor = page.getString("nextCursor");
+    } while (cursor != null);
+
+    assertThat(pagedOrderIds).containsExactlyInAnyOrderElementsOf(orderIds);
+
+    RestAssured.given()
+        .queryParam("from", "2025-02-01T00:00:00")
+        .queryParam("to", "2025-01-01T00:00:00")
+        .when()
+        .get(LANDING_PAGE + SEARCH_ORDERS)
+        .then()
+        .statusCode(400)
+        .body("message", equalTo("'from' must be before 'to'."));
+  }
+
+  @Test
+  void shouldTransitionOrdersInBulk_AndReportOrdersInTheWrongStatus() {
+
+    successfulInventoryValidationFromProductService();
+    List<Long> orderIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      orderIds.add(
+          RestAssured.given()
+              .contentType(ContentType.JSON)
+              .body(getOrderRequestBodyBeforeAddressConfirmation())
+              .when()
+              .post(LANDING_PAGE + CREATE_ORDER)
+              .then()
+              .statusCode(200)
+              .extract()
+              .jsonPath()
+              .getLong("id"));
+    }
+
+    RestAssured.given()
+        .when()
+        .put(LANDING_PAGE + PROCESS_ORDER, orderIds.getFirst())
+        .then()
+        .statusCode(200);
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body(
+            Map.of(
+                "orderIds",
+                List.of(orderIds.get(0), orderIds.get(1), orderIds.get(2), -1L),
+                "transition",
+                "PROCESS"))
+        .when()
+        .put(LANDING_PAGE + BULK_TRANSITION)
+        .then()
+        .statusCode(200)
+        .body("transition", equalTo("PROCESS"))
+        .body(
+            "transitioned",
+            equalTo(List.of(orderIds.get(1).intValue(), orderIds.get(2).intValue())))
+        .body("rejected", equalTo(List.of(orderIds.getFirst().intValue(), -1)));
+
+    RestAssured.given()
+        .when()
+        .get(LANDING_PAGE + GET_ORDER_BY_ID, orderIds.get(2))
+        .then()
+        .statusCode(200)
+        .body("orderStatus", equalTo("PROCESSING"));
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body(Map.of("orderIds", List.of(), "transition", "PROCESS"))
+        .when()
+        .put(LANDING_PAGE + BULK_TRANSITION)
+        .then()
+        .statusCode(400)
+        .body("message", equalTo("At least one order ID is required."));
+  }
+
+  @Test
+  void shouldCancelOrdersInBulk_AndReportOrdersThatCannotBeCancelled() {
+
+    successfulInventoryValidationFromProductService();
+    List<Long> orderIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      orderIds.add(
+          RestAssured.given()
+              .contentType(ContentType.JSON)
+              .body(getOrderRequestBodyBeforeAddressConfirmation())
+              .when()
+              .post(LANDING_PAGE + CREATE_ORDER)
+              .then()
+              .statusCode(200)
+              .extract()
+              .jsonPath()
+              .getLong("id"));
+    }
+
+    RestAssured.given()
+        .when()
+        .put(LANDING_PAGE + PROCESS_ORDER, orderIds.get(1))
+        .then()
+        .statusCode(200);
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body("Duplicate order")
+        .when()
+        .put(LANDING_PAGE + CANCEL_ORDER, orderIds.get(2))
+        .then()
+        .statusCode(200);
+
+    RestAssured.given()
+        .contentType(ContentType.JSON)
+        .body(
+            Map.of(
+                "orderIds",
+                List.of(orderIds.get(0), orderIds.get(1), orderIds.get(2), -1L),
+                "reason",
+                "Shipment wave failed"))
+        .when()
+        .put(LANDING_PAGE + BULK_CANCELLATION)
+        .then()
+        .statusCode(200)
+        .body("cancelled", equalTo(List.of(orderIds.get(0).intValue(), orderIds.get(1).intValue())))
+        .body("rejected", equalTo(List.of(orderIds.get(2).intValue(), -1)));
+
+    RestAssured.given()
+        .when()
+        .get(LANDING_PAGE + GET_ORDER_BY_ID, orderIds.get(1))
+        .then()
+        .statusCode(200)
+        .body("orderStatus", equalTo("CANCELLED"))
+        .body("cancellationReason", equalTo("Shipment wave failed"));
+  }
+
+  @Test
+  void shouldLetExactlyOneOfConcurrentDeliverAndCancelWin_AndAnswerTheOtherWithConflict()
+      throws Exception {
+
+    successfulInventoryValidationFromProductService();
+    Long orderId =
+        RestAssured.given()
+            .contentType(ContentType.JSON)
+            .body(getOrderRequestBodyBeforeAddressConfirmation())
+            .when()
+            .post(LANDING_PAGE + CREATE_ORDER)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+    RestAssured.given().when().put(LANDING_PAGE + PROCESS_ORDER, orderId).then().statusCode(200);
+    RestAssured.given()
+        .when()
+        .put(LANDING_PAGE + PROCESS_ORDER, orderId)
+        .then()
+        .statusCode(409)
+        .body(
+            "message",
+            equalTo(
+                "Order %d is PROCESSING and cannot be moved to PROCESSING.".formatted(orderId)));
+    RestAssured.given()
+        .when()
+        .put(LANDING_PAGE + SEND_ORDER_FOR_DELIVERY, orderId)
+        .then()
+        .statusCode(200);
+
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> deliver =
+          executor.submit(
+              () -> {
+                start.await();
+                return RestAssured.given()
+                    .when()
+                    .put(LANDING_PAGE + MARK_AS_DELIVERED, orderId)
+                    .statusCode();
+              });
+      Future<Integer> cancel =
+          executor.submit(
+              () -> {
+                start.await();
+                return RestAssured.given()
+                    .body("Changed my mind")
+                    .when()
+                    .put(LANDING_PAGE + CANCEL_ORDER, orderId)
+                    .statusCode();
+              });
+      start.countDown();
+
+      assertThat(List.of(deliver.get(), cancel.get())).containsExactlyInAnyOrder(200, 409);
+      String expectedStatus = deliver.get() == 200 ? "DELIVERED" : "CANCELLED";
+      RestAssured.given()
+          .when()
+          .get(LANDING_PAGE + GET_ORDER_BY_ID, orderId)
+          .then()
+          .statusCode(200)
+          .body("orderStatus", equalTo(expectedStatus));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   void shouldRetrieveOrderByGivenOrderId() {
 
@@ -543,6 +939,7 @@ class OrderServiceTest {
   @Test
   void shouldCancelOrder_AndReturnDeductedInventoryBackTo_ProductServiceSuccessfully() {
 
+    long journalOffset = orderJournal.endOffset();
     successfulInventoryValidationFromProductService();
     String createOrderRequestBody = getOrderRequestBodyBeforeAddressConfirmation();
 
@@ -613,11 +1010,27 @@ class OrderServiceTest {
         .put(LANDING_PAGE + CANCEL_ORDER, orderId)
         .then()
         .statusCode(200);
+
+    List<OrderEvent> events = new ArrayList<>();
+    orderJournal.replay(
+        journalOffset,
+        event -> {
+          if (event.getOrderId() == orderId) {
+            events.add(event);
+          }
+        });
+    assertThat(events)
+        .extracting(OrderEvent::getType, OrderEvent::getOrderStatus)
+        .containsExactly(
+            tuple(OrderEventType.CREATED, OrderStatus.ORDER_PLACED),
+            tuple(OrderEventType.ADDRESS_CHANGED, OrderStatus.ORDER_PLACED),
+            tuple(OrderEventType.CANCELLED, OrderStatus.CANCELLED));
+    assertThat(events.get(1).getDetail()).isEqualTo("Haut str, 10, Berlin, Berlin");
+    assertThat(events.get(2).getDetail()).contains("Valid cancellation reason.");
   }
 
   @Test
-  void
-      shouldCancelOrder_ShouldThrowExceptionWhenAnErrorOccurs_WhileReturningInventoryBackTo_ProductDatabase() {
+  void shouldCancelOrder_AndKeepInventoryReturnInOutbox_WhenProductServiceRejectsTheReturn() {
 
     successfulInventoryValidationFromProductService();
     String createOrderRequestBody = getOrderRequestBodyBeforeAddressConfirmation();
@@ -688,9 +1101,13 @@ class OrderServiceTest {
         .when()
         .put(LANDING_PAGE + CANCEL_ORDER, orderId)
         .then()
-        .log()
-        .all()
-        .statusCode(400);
+        .statusCode(200)
+        .body("orderStatus", equalTo("CANCELLED"));
+
+    assertThat(inventoryReturnOutboxRepository.findAll())
+        .filteredOn(entry -> orderId.equals(entry.getOrderId()))
+        .extracting(InventoryReturnOutbox::getProductId, InventoryReturnOutbox::getQuantity)
+        .containsExactlyInAnyOrder(tuple(101L, 2), tuple(102L, 1));
   }
 
   private String getOrderRequestBodyBeforeAddressConfirmation() {
@@ -0,0 +1,107 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static com.project.anesu.ecommerce.ordermanagementservice.controller.order.OrderServiceRestEndpoints.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import io.restassured.RestAssured;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderStatusStreamTest {
+
+  @LocalServerPort int port;
+
+  @Autowired private OrderRepository orderRepository;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+  }
+
+  @Test
+  void shouldPushTheStatusChangeOfASubscribedOrder() throws Exception {
+
+    // Given
+    Long otherOrderId = saveOrder().getId();
+    Long orderId = saveOrder().getId();
+    HttpClient httpClient = HttpClient.newHttpClient();
+    HttpRequest request =
+        HttpRequest.newBuilder(
+                URI.create(
+                    "http://localhost:%d%s%s?orderIds=%d"
+                        .formatted(port, LANDING_PAGE, STREAM_ORDER_STATUS, orderId)))
+            .timeout(Duration.ofSeconds(10))
+            .build();
+    HttpResponse<Stream<String>> response =
+        httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+
+    try (Stream<String> lines = response.body()) {
+      Iterator<String> iterator = lines.iterator();
+      CompletableFuture<String> firstEvent =
+          CompletableFuture.supplyAsync(
+              () -> {
+                while (iterator.hasNext()) {
+                  String line = iterator.next();
+                  if (line.startsWith("data:")) {
+                    return line;
+                  }
+                }
+                return null;
+              });
+
+      // When
+      RestAssured.given()
+          .when()
+          .put(LANDING_PAGE + PROCESS_ORDER, otherOrderId)
+          .then()
+          .statusCode(200);
+      RestAssured.given().when().put(LANDING_PAGE + PROCESS_ORDER, orderId).then().statusCode(200);
+
+      // Then
+      assertThat(response.headers().firstValue("Content-Type"))
+          .hasValueSatisfying(value -> assertThat(value).startsWith("text/event-stream"));
+      assertThat(firstEvent.get(10, TimeUnit.SECONDS))
+          .contains("\"orderId\":" + orderId)
+          .contains("\"previousStatus\":\"ORDER_PLACED\"")
+          .contains("\"orderStatus\":\"PROCESSING\"");
+    }
+  }
+
+  private Order saveOrder() {
+    Order order = new Order();
+    order.setCustomerId(7L);
+    order.setOrderStatus(OrderStatus.ORDER_PLACED);
+    order.setOrderDate(LocalDateTime.now());
+    return orderRepository.save(order);
+  }
+}
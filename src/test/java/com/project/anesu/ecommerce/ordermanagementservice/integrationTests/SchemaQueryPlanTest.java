@@ -0,0 +1,72 @@
+package com.project.anesu.ecommerce.ordermanagementservice.integrationTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SchemaQueryPlanTest {
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @TestConfiguration
+  static class mockRestTemplateTestConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+      return mock(RestTemplate.class);
+    }
+  }
+
+  @Test
+  void shouldReadOrdersAndTheirChildRowsThroughTheDeclaredIndexes() {
+
+    // Given
+    Map<String, String> indexByQuery =
+        Map.of(
+            "select id from customer_order where customer_id = 1 order by order_date desc, id desc",
+            "idx_customer_order_customer_id_order_date_id",
+            "select id from customer_order where order_status = 2 order by order_date, id",
+            "idx_customer_order_order_status_order_date_id",
+            "select id from customer_order where change_sequence > 10 order by change_sequence",
+            "idx_customer_order_change_sequence",
+            "select id from order_item where order_id in (1, 2)",
+            "idx_order_item_order_id",
+            "select id from address where order_id in (1, 2)",
+            "idx_address_order_id",
+            "select id from address where customer_id = 1",
+            "idx_address_customer_id");
+
+    indexByQuery.forEach(
+        (query, index) -> {
+          // When
+          String plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+
+          // Then
+          assertThat(plan).as(query).containsIgnoringCase(index);
+        });
+  }
+
+  @Test
+  void shouldStoreTheOrderStatusAsASmallCode() {
+
+    // When
+    String dataType =
+        jdbcTemplate.queryForObject(
+            "select data_type from information_schema.columns"
+                + " where table_name = 'CUSTOMER_ORDER' and column_name = 'ORDER_STATUS'",
+            String.class);
+
+    // Then
+    assertEquals("SMALLINT", dataType);
+  }
+}
@@ -1,12 +1,15 @@
 package com.project.anesu.ecommerce.ordermanagementservice.unitTests;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.customer.Customer;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
 import com.project.anesu.ecommerce.ordermanagementservice.model.repository.CustomerRepository;
 import com.project.anesu.ecommerce.ordermanagementservice.service.CustomerServiceImpl;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.CustomerNotFoundException;
@@ -20,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class CustomerServiceImplTest {
@@ -70,18 +74,27 @@ class CustomerServiceImplTest {
   }
 
   @Test
-  void shouldRetrieveAllCustomersWithinTheDatabase() {
+  void shouldRetrieveCustomersPageByPage_UsingCursorOfLastCustomer() {
 
     // Given
-    when(customerRepositoryMock.findAll()).thenReturn(List.of());
+    Customer first = new Customer();
+    first.setId(4L);
+    Customer second = new Customer();
+    second.setId(9L);
+
+    when(customerRepositoryMock.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(first, second));
+    when(customerRepositoryMock.findByIdGreaterThanOrderByIdAsc(4L, Limit.of(2)))
+        .thenReturn(List.of(second));
 
     // When
-    List<Customer> allCustomers = cut.getAllCustomers();
+    KeysetPage<Customer> firstPage = cut.getCustomers(null, 1);
+    KeysetPage<Customer> lastPage = cut.getCustomers(firstPage.getNextCursor(), 1);
 
     // Then
-    assertNotNull(allCustomers);
-
-    verify(customerRepositoryMock, times(1)).findAll();
+    assertEquals(List.of(first), firstPage.getItems());
+    assertNotNull(firstPage.getNextCursor());
+    assertEquals(List.of(second), lastPage.getItems());
+    assertNull(lastPage.getNextCursor());
   }
 
   @Test
@@ -2,6 +2,7 @@ package com.project.anesu.ecommerce.ordermanagementservice.unitTests;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -9,39 +10,94 @@ import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 
 import com.project.anesu.ecommerce.ordermanagementservice.entity.address.Address;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.address.AddressView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkCancellationResult;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.BulkTransitionResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderChange;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderCreationResult;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItem;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderItemView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderSearchCriteria;
 import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
-import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderValidationEndpoints;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderTransition;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderView;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.ChangeFeedPage;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.page.KeysetPage;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
 import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
 import com.project.anesu.ecommerce.ordermanagementservice.service.OrderServiceImpl;
+import com.project.anesu.ecommerce.ordermanagementservice.service.archive.OrderArchiver;
+import com.project.anesu.ecommerce.ordermanagementservice.service.changes.OrderChangeFeedHorizon;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidOrderException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InvalidPageRequestException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
 import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderNotFoundException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.ValidationFailedException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryAvailabilityCache;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryRequestCoalescer;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournal;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderStateMachine;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionRetry;
+import com.project.anesu.ecommerce.ordermanagementservice.service.util.KeysetPagination;
 import com.project.anesu.ecommerce.ordermanagementservice.service.util.OrderValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplServiceTest {
 
-  @Mock private RestTemplate restTemplateMock;
+  @Mock private InventoryClient inventoryClientMock;
   @Mock private OrderRepository orderRepositoryMock;
   @Mock private OrderValidator orderValidatorMock;
+  @Mock private InventoryRequestCoalescer inventoryRequestCoalescerMock;
+  @Mock private InventoryReturnOutboxRepository inventoryReturnOutboxRepositoryMock;
+  @Mock private InventoryAvailabilityCache inventoryAvailabilityCacheMock;
+  @Mock private PlatformTransactionManager transactionManagerMock;
+  @Mock private OrderJournal orderJournalMock;
+  @Mock private OrderArchiver orderArchiverMock;
+  @Mock private OrderChangeFeedHorizon orderChangeFeedHorizonMock;
+
+  @Captor private ArgumentCaptor<List<InventoryReturnOutbox>> inventoryReturns;
 
   private OrderServiceImpl cut;
 
   @BeforeEach
   void setUp() {
-    cut = new OrderServiceImpl(restTemplateMock, orderRepositoryMock, orderValidatorMock);
+    cut =
+        new OrderServiceImpl(
+            inventoryClientMock,
+            orderRepositoryMock,
+            orderValidatorMock,
+            inventoryRequestCoalescerMock,
+            inventoryReturnOutboxRepositoryMock,
+            inventoryAvailabilityCacheMock,
+            new OrderTransitionRetry(
+                transactionManagerMock, new OrderTransitionProperties(), new SimpleMeterRegistry()),
+            new OrderStateMachine(List.of(), List.of(), new SimpleMeterRegistry()),
+            orderJournalMock,
+            orderArchiverMock,
+            orderChangeFeedHorizonMock);
   }
 
   @Test
@@ -60,7 +116,8 @@ class OrderServiceImplServiceTest {
 
     doNothing().when(orderValidatorMock).validateNewOrder(any(Order.class), anyList());
 
-    RestCallToInventoryService(OrderValidationEndpoints.VALIDATE_AND_DEDUCT_PRODUCT.getUrl());
+    when(inventoryRequestCoalescerMock.validateAndDeduct(anyList()))
+        .thenReturn(ResponseEntity.ok("OK"));
 
     Order newOrder = new Order();
     newOrder.setId(1L);
@@ -80,6 +137,25 @@ class OrderServiceImplServiceTest {
 
     verify(orderValidatorMock).validateNewOrder(any(Order.class), anyList());
     verify(orderRepositoryMock, times(1)).save(Mockito.any(Order.class));
+    verify(orderJournalMock)
+        .appendAfterCommit(OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null);
+  }
+
+  @Test
+  void shouldRejectOrderWithoutCallingInventory_WhenStockIsKnownToBeInsufficient() {
+
+    // Given
+    Order order = getNewOrder(1L, 101L, 5);
+
+    when(inventoryAvailabilityCacheMock.findUnfulfillableProduct(anyList()))
+        .thenReturn(Optional.of(101L));
+
+    // When
+    assertThrows(
+        ValidationFailedException.class, () -> cut.createOrder(order, order.getOrderItem()));
+
+    // Then
+    verifyNoInteractions(inventoryRequestCoalescerMock, orderRepositoryMock);
   }
 
   @Test
@@ -108,6 +184,113 @@ class OrderServiceImplServiceTest {
     verifyNoMoreInteractions(orderRepositoryMock);
   }
 
+  @Test
+  void createOrders_shouldDeductInventoryForTheWholeBatchWithASingleRequest() {
+
+    // Given
+    Order firstOrder = getNewOrder(1L, 101L, 2);
+    Order secondOrder = getNewOrder(2L, 101L, 3);
+
+    when(inventoryClientMock.validateAndDeduct(anyList())).thenReturn(ResponseEntity.ok("OK"));
+
+    // When
+    List<OrderCreationResult> results = cut.createOrders(List.of(firstOrder, secondOrder));
+
+    // Then
+    assertEquals(2, results.size());
+    assertThat(results.get(0).isCreated()).isTrue();
+    assertThat(results.get(1).isCreated()).isTrue();
+    assertEquals(OrderStatus.ORDER_PLACED, secondOrder.getOrderStatus());
+
+    verify(inventoryClientMock, times(1))
+        .validateAndDeduct(List.of(Map.of("productId", 101L, "quantity", 5)));
+    verify(orderRepositoryMock, times(1)).saveAll(List.of(firstOrder, secondOrder));
+  }
+
+  @Test
+  void createOrders_shouldReportEachOrderOnItsOwn_WhenMergedInventoryRequestIsRejected() {
+
+    // Given
+    Order fulfillableOrder = getNewOrder(1L, 101L, 2);
+    Order unfulfillableOrder = getNewOrder(2L, 102L, 50);
+    Order invalidOrder = new Order();
+
+    lenient()
+        .doThrow(new InvalidOrderException("Customer ID cannot be null."))
+        .when(orderValidatorMock)
+        .validateNewOrder(invalidOrder, null);
+    when(inventoryClientMock.validateAndDeduct(anyList()))
+        .thenReturn(ResponseEntity.badRequest().body("Insufficient stock"))
+        .thenReturn(ResponseEntity.ok("OK"))
+        .thenReturn(ResponseEntity.badRequest().body("Insufficient stock"));
+
+    // When
+    List<OrderCreationResult> results =
+        cut.createOrders(List.of(fulfillableOrder, unfulfillableOrder, invalidOrder));
+
+    // Then
+    assertThat(results.get(0).isCreated()).isTrue();
+    assertThat(results.get(1).isCreated()).isFalse();
+    assertThat(results.get(2).isCreated()).isFalse();
+    assertEquals("Customer ID cannot be null.", results.get(2).getMessage());
+
+    verify(inventoryClientMock, times(3)).validateAndDeduct(anyList());
+    verify(orderRepositoryMock, times(1)).saveAll(List.of(fulfillableOrder));
+  }
+
+  @Test
+  void createOrders_shouldQueueTheDeductedInventoryForReturn_WhenSavingTheOrdersFails() {
+
+    // Given
+    Order firstOrder = getNewOrder(1L, 101L, 2);
+    Order secondOrder = getNewOrder(2L, 101L, 3);
+    RuntimeException saveFailure = new IllegalStateException("Database unavailable");
+
+    when(inventoryClientMock.validateAndDeduct(anyList())).thenReturn(ResponseEntity.ok("OK"));
+    when(orderRepositoryMock.saveAll(anyList())).thenThrow(saveFailure);
+
+    // When
+    RuntimeException exception =
+        assertThrows(
+            IllegalStateException.class, () -> cut.createOrders(List.of(firstOrder, secondOrder)));
+
+    // Then
+    assertEquals(saveFailure, exception);
+    verify(inventoryReturnOutboxRepositoryMock, times(1)).saveAll(inventoryReturns.capture());
+    assertEquals(
+        List.of(101L),
+        inventoryReturns.getValue().stream().map(InventoryReturnOutbox::getProductId).toList());
+    assertEquals(
+        List.of(5),
+        inventoryReturns.getValue().stream().map(InventoryReturnOutbox::getQuantity).toList());
+    verifyNoInteractions(orderJournalMock);
+  }
+
+  @Test
+  void createOrders_shouldRejectOrdersWithoutCallingInventory_WhenStockIsKnownToBeInsufficient() {
+
+    // Given
+    Order fulfillableOrder = getNewOrder(1L, 101L, 2);
+    Order unfulfillableOrder = getNewOrder(2L, 102L, 50);
+
+    when(inventoryAvailabilityCacheMock.findUnfulfillableProduct(anyList()))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(102L));
+    when(inventoryClientMock.validateAndDeduct(anyList())).thenReturn(ResponseEntity.ok("OK"));
+
+    // When
+    List<OrderCreationResult> results =
+        cut.createOrders(List.of(fulfillableOrder, unfulfillableOrder));
+
+    // Then
+    assertThat(results.get(0).isCreated()).isTrue();
+    assertThat(results.get(1).isCreated()).isFalse();
+
+    verify(inventoryClientMock, times(1))
+        .validateAndDeduct(List.of(Map.of("productId", 101L, "quantity", 2)));
+    verify(orderRepositoryMock, times(1)).saveAll(List.of(fulfillableOrder));
+  }
+
   @Test
   void shouldSuccessfullyRetrieveRequestedOrder_ByGivenOrderId() {
 
@@ -141,16 +324,196 @@ class OrderServiceImplServiceTest {
   }
 
   @Test
-  void shouldRetrieveAllOrdersSuccessfully() {
+  void shouldReturnFirstPageOfOrders_WithCursorOfLastOrder_WhenMoreOrdersExist() {
+
+    // Given
+    LocalDateTime orderDate = LocalDateTime.of(2025, 3, 1, 12, 30, 15);
+    OrderView newest = getExistingOrder(3L, orderDate.plusMinutes(1));
+    OrderView second = getExistingOrder(2L, orderDate);
+    OrderView oldest = getExistingOrder(1L, orderDate);
+
+    when(orderRepositoryMock.findFirstPage(Limit.of(3)))
+        .thenReturn(List.of(newest, second, oldest));
+    when(orderRepositoryMock.findPageAfter(orderDate, 2L, Limit.of(3))).thenReturn(List.of(oldest));
+
+    // When
+    KeysetPage<OrderView> firstPage = cut.getOrders(null, 2);
+    KeysetPage<OrderView> lastPage = cut.getOrders(firstPage.getNextCursor(), 2);
+
+    // Then
+    assertEquals(List.of(3L, 2L), firstPage.getItems().stream().map(OrderView::getId).toList());
+    assertEquals(List.of(1L), lastPage.getItems().stream().map(OrderView::getId).toList());
+    assertNull(lastPage.getNextCursor());
+    verify(orderRepositoryMock, times(1)).findItemViewsByOrderIds(List.of(3L, 2L));
+    verify(orderRepositoryMock, times(1)).findDeliveryAddressViewsByOrderIds(List.of(3L, 2L));
+  }
+
+  @Test
+  void shouldSearchOrdersAfterCursor_AndRejectEmptyDateRange() {
 
     // Given
-    when(orderRepositoryMock.findAll()).thenReturn(List.of());
+    LocalDateTime orderDate = LocalDateTime.of(2025, 3, 1, 12, 30, 15);
+    OrderSearchCriteria criteria =
+        new OrderSearchCriteria(7L, OrderStatus.PROCESSING, orderDate.minusDays(1), null);
+    String cursor = KeysetPagination.encodeCursor(orderDate, 5L);
+    when(orderRepositoryMock.search(criteria, orderDate, 5L, Limit.of(11)))
+        .thenReturn(List.of(getExistingOrder(4L, orderDate)));
 
     // When
-    cut.getAllOrders();
+    KeysetPage<OrderView> page = cut.searchOrders(criteria, cursor, 10);
 
     // Then
-    verify(orderRepositoryMock, times(1)).findAll();
+    assertEquals(List.of(4L), page.getItems().stream().map(OrderView::getId).toList());
+    assertNull(page.getNextCursor());
+    assertThrows(
+        InvalidPageRequestException.class,
+        () ->
+            cut.searchOrders(new OrderSearchCriteria(null, null, orderDate, orderDate), null, 10));
+  }
+
+  @Test
+  void shouldAttachItemsAndAddressesToOrderView_WithOneQueryPerAssociation() {
+
+    // Given
+    Long orderId = 4L;
+    when(orderRepositoryMock.findViewById(orderId))
+        .thenReturn(Optional.of(getExistingOrder(orderId, LocalDateTime.now())));
+    when(orderRepositoryMock.findItemViewsByOrderIds(List.of(orderId)))
+        .thenReturn(
+            List.of(
+                new OrderItemView(orderId, 1L, 101L, 2), new OrderItemView(orderId, 2L, 102L, 1)));
+    when(orderRepositoryMock.findDeliveryAddressViewsByOrderIds(List.of(orderId)))
+        .thenReturn(
+            List.of(new AddressView(orderId, 7L, "Haut str", "1", "Berlin", null, "10115")));
+
+    // When
+    OrderView order = cut.getOrderView(orderId);
+
+    // Then
+    assertEquals(2, order.getOrderItem().size());
+    assertEquals(101L, order.getOrderItem().getFirst().getProductId());
+    assertEquals("Berlin", order.getDeliveryAddress().getFirst().getCity());
+    verify(orderRepositoryMock, never()).findById(orderId);
+  }
+
+  @Test
+  void shouldCapPageSize_AndRejectMalformedCursor() {
+
+    // Given
+    when(orderRepositoryMock.findFirstPage(Limit.of(KeysetPagination.MAX_PAGE_SIZE + 1)))
+        .thenReturn(List.of());
+
+    // When
+    KeysetPage<OrderView> page = cut.getOrders(null, 10_000);
+
+    // Then
+    assertEquals(List.of(), page.getItems());
+    assertThrows(InvalidPageRequestException.class, () -> cut.getOrders("not-a-cursor", 10));
+    assertThrows(InvalidPageRequestException.class, () -> cut.getOrders(null, 0));
+  }
+
+  @Test
+  void shouldReturnChangedOrdersInChangeOrder_AndKeepTheCursorWhenCaughtUp() {
+
+    // Given
+    LocalDateTime orderDate = LocalDateTime.of(2025, 3, 1, 12, 30, 15);
+    String cursor = KeysetPagination.encodeCursor(7L);
+    when(orderChangeFeedHorizonMock.get()).thenReturn(9L);
+    when(orderRepositoryMock.findChangesBetween(0, 9, Limit.of(51)))
+        .thenReturn(List.of(new OrderChange(2L, 5L), new OrderChange(1L, 7L)));
+    when(orderRepositoryMock.findViewsByIds(List.of(2L, 1L)))
+        .thenReturn(List.of(getExistingOrder(1L, orderDate), getExistingOrder(2L, orderDate)));
+    when(orderRepositoryMock.findChangesBetween(7, 9, Limit.of(51))).thenReturn(List.of());
+
+    // When
+    ChangeFeedPage<OrderView> page = cut.getChanges(null, null);
+    ChangeFeedPage<OrderView> caughtUp = cut.getChanges(page.getNextCursor(), null);
+
+    // Then
+    assertEquals(List.of(2L, 1L), page.getItems().stream().map(OrderView::getId).toList());
+    assertEquals(cursor, page.getNextCursor());
+    assertEquals(false, page.isHasMore());
+    assertEquals(List.of(), caughtUp.getItems());
+    assertEquals(cursor, caughtUp.getNextCursor());
+    assertThrows(InvalidPageRequestException.class, () -> cut.getChanges("not-a-cursor", 10));
+  }
+
+  @Test
+  void shouldTransitionOrdersInChunks_AndReportOrdersInTheWrongStatus() {
+
+    // Given
+    List<Long> orderIds = new ArrayList<>();
+    for (long orderId = 1; orderId <= OrderServiceImpl.BULK_TRANSITION_CHUNK_SIZE + 2; orderId++) {
+      orderIds.add(orderId);
+    }
+    orderIds.add(1L);
+    List<Long> firstChunk = orderIds.subList(0, OrderServiceImpl.BULK_TRANSITION_CHUNK_SIZE);
+    List<Long> secondChunk =
+        List.of(
+            OrderServiceImpl.BULK_TRANSITION_CHUNK_SIZE + 1L,
+            OrderServiceImpl.BULK_TRANSITION_CHUNK_SIZE + 2L);
+    List<Long> lockedInFirstChunk = new ArrayList<>(firstChunk.subList(1, firstChunk.size()));
+
+    when(orderRepositoryMock.lockIdsByOrderStatus(firstChunk, OrderStatus.PROCESSING))
+        .thenReturn(lockedInFirstChunk);
+    when(orderRepositoryMock.lockIdsByOrderStatus(secondChunk, OrderStatus.PROCESSING))
+        .thenReturn(List.of(secondChunk.getFirst()));
+
+    // When
+    BulkTransitionResult result =
+        cut.transitionOrders(orderIds, OrderTransition.SEND_OUT_FOR_DELIVERY);
+
+    // Then
+    assertEquals(OrderServiceImpl.BULK_TRANSITION_CHUNK_SIZE, result.getTransitioned().size());
+    assertEquals(List.of(1L, secondChunk.getLast()), result.getRejected());
+    verify(orderRepositoryMock, times(1))
+        .updateOrderStatus(
+            lockedInFirstChunk, OrderStatus.PROCESSING, OrderStatus.OUT_FOR_DELIVERY);
+    verify(orderRepositoryMock, times(1))
+        .updateOrderStatus(
+            List.of(secondChunk.getFirst()), OrderStatus.PROCESSING, OrderStatus.OUT_FOR_DELIVERY);
+    verify(orderRepositoryMock, never()).save(any(Order.class));
+    assertThrows(
+        InvalidOrderException.class,
+        () -> cut.transitionOrders(List.of(), OrderTransition.PROCESS));
+  }
+
+  @Test
+  void shouldCancelOrdersInEveryCancellableStatus_AndQueueOneReturnPerProduct() {
+
+    // Given
+    List<Long> orderIds = List.of(1L, 2L, 3L, 4L);
+    when(orderRepositoryMock.lockIdsByOrderStatus(orderIds, OrderStatus.ORDER_PLACED))
+        .thenReturn(List.of(1L));
+    when(orderRepositoryMock.lockIdsByOrderStatus(orderIds, OrderStatus.PROCESSING))
+        .thenReturn(List.of(2L));
+    when(orderRepositoryMock.lockIdsByOrderStatus(orderIds, OrderStatus.OUT_FOR_DELIVERY))
+        .thenReturn(List.of());
+    when(orderRepositoryMock.findItemViewsByOrderIds(List.of(1L, 2L)))
+        .thenReturn(
+            List.of(
+                new OrderItemView(1L, 10L, 7L, 2),
+                new OrderItemView(2L, 11L, 7L, 3),
+                new OrderItemView(2L, 12L, 8L, 1)));
+
+    // When
+    BulkCancellationResult result = cut.cancelOrders(orderIds, "Shipment wave failed");
+
+    // Then
+    assertEquals(List.of(1L, 2L), result.getCancelled());
+    assertEquals(List.of(3L, 4L), result.getRejected());
+    verify(orderRepositoryMock, times(1))
+        .cancelOrders(List.of(1L), OrderStatus.ORDER_PLACED, "Shipment wave failed");
+    verify(orderRepositoryMock, times(1))
+        .cancelOrders(List.of(2L), OrderStatus.PROCESSING, "Shipment wave failed");
+    verify(inventoryReturnOutboxRepositoryMock, times(1)).saveAll(inventoryReturns.capture());
+    assertEquals(
+        List.of(7L, 8L),
+        inventoryReturns.getValue().stream().map(InventoryReturnOutbox::getProductId).toList());
+    assertEquals(
+        List.of(5, 1),
+        inventoryReturns.getValue().stream().map(InventoryReturnOutbox::getQuantity).toList());
+    verify(orderRepositoryMock, never()).save(any(Order.class));
   }
 
   @Test
@@ -162,8 +525,7 @@ class OrderServiceImplServiceTest {
     order.setId(orderId);
     order.setOrderStatus(OrderStatus.ORDER_PLACED);
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, order.getOrderStatus()))
-        .thenReturn(Optional.of(order));
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.of(order));
 
     // When
     Order retrievedOrder = cut.getOrderByIdAndStatus(orderId, order.getOrderStatus());
@@ -171,7 +533,7 @@ class OrderServiceImplServiceTest {
     // Then
     assertThat(retrievedOrder.getOrderStatus()).isEqualTo(order.getOrderStatus());
 
-    verify(orderRepositoryMock, times(1)).findByIdAndOrderStatus(orderId, order.getOrderStatus());
+    verify(orderRepositoryMock, times(1)).findById(orderId);
   }
 
   @Test
@@ -183,8 +545,7 @@ class OrderServiceImplServiceTest {
     order.setId(orderId);
     order.setOrderStatus(OrderStatus.ORDER_PLACED);
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, order.getOrderStatus()))
-        .thenReturn(Optional.of(order));
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.of(order));
     when(orderRepositoryMock.save(any(Order.class))).thenReturn(order);
 
     // When
@@ -202,17 +563,42 @@ class OrderServiceImplServiceTest {
     Long orderId = 1L;
     OrderStatus currentOrderStatus = OrderStatus.ORDER_PLACED;
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, currentOrderStatus))
-        .thenReturn(Optional.empty());
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.empty());
 
     // When
     assertThrows(OrderNotFoundException.class, () -> cut.processPendingOrder(orderId));
 
     // Then
-    verify(orderRepositoryMock, times(1)).findByIdAndOrderStatus(orderId, currentOrderStatus);
+    verify(orderRepositoryMock, times(1)).findById(orderId);
     verifyNoMoreInteractions(orderRepositoryMock);
   }
 
+  @Test
+  void processPendingOrder_shouldRetryOnConcurrentChange_AndRejectOrderInAnotherStatus() {
+
+    // Given
+    Long orderId = 1L;
+    Order staleOrder = getOrderInStatus(orderId, OrderStatus.ORDER_PLACED);
+    Order reloadedOrder = getOrderInStatus(orderId, OrderStatus.ORDER_PLACED);
+
+    when(orderRepositoryMock.findById(orderId))
+        .thenReturn(Optional.of(staleOrder))
+        .thenReturn(Optional.of(reloadedOrder))
+        .thenReturn(Optional.of(getOrderInStatus(orderId, OrderStatus.CANCELLED)));
+    when(orderRepositoryMock.save(any(Order.class)))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Order.class, orderId))
+        .thenReturn(reloadedOrder);
+
+    // When
+    Order processOrder = cut.processPendingOrder(orderId);
+
+    // Then
+    assertThat(processOrder.getOrderStatus()).isEqualTo(OrderStatus.PROCESSING);
+    verify(orderRepositoryMock, times(1)).save(reloadedOrder);
+    assertThrows(OrderConflictException.class, () -> cut.processPendingOrder(orderId));
+    verify(orderRepositoryMock, times(2)).save(any(Order.class));
+  }
+
   @Test
   void sendOrderOutForDelivery_ShouldUpdateOrderStatusSuccessfully() {
 
@@ -222,8 +608,7 @@ class OrderServiceImplServiceTest {
     order.setId(orderId);
     order.setOrderStatus(OrderStatus.PROCESSING);
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, order.getOrderStatus()))
-        .thenReturn(Optional.of(order));
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.of(order));
     when(orderRepositoryMock.save(any(Order.class))).thenReturn(order);
 
     // When
@@ -242,15 +627,14 @@ class OrderServiceImplServiceTest {
     Long orderId = 1L;
     OrderStatus currentOrderStatus = OrderStatus.PROCESSING;
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, currentOrderStatus))
-        .thenReturn(Optional.empty());
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.empty());
 
     // When
     assertThrows(OrderNotFoundException.class, () -> cut.sendOrderOutForDelivery(orderId));
 
     // Then
 
-    verify(orderRepositoryMock, times(1)).findByIdAndOrderStatus(orderId, currentOrderStatus);
+    verify(orderRepositoryMock, times(1)).findById(orderId);
     verifyNoMoreInteractions(orderRepositoryMock);
   }
 
@@ -263,8 +647,7 @@ class OrderServiceImplServiceTest {
     order.setId(orderId);
     order.setOrderStatus(OrderStatus.OUT_FOR_DELIVERY);
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, order.getOrderStatus()))
-        .thenReturn(Optional.of(order));
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.of(order));
     when(orderRepositoryMock.save(any(Order.class))).thenReturn(order);
 
     // When
@@ -284,15 +667,14 @@ class OrderServiceImplServiceTest {
     Long orderId = 1L;
     OrderStatus orderStatus = OrderStatus.OUT_FOR_DELIVERY;
 
-    when(orderRepositoryMock.findByIdAndOrderStatus(orderId, orderStatus))
-        .thenReturn(Optional.empty());
+    when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.empty());
 
     // When
     assertThrows(
         OrderNotFoundException.class, () -> cut.markAsDeliveredAfterSuccessfulDelivery(orderId));
 
     // Then
-    verify(orderRepositoryMock, times(1)).findByIdAndOrderStatus(orderId, orderStatus);
+    verify(orderRepositoryMock, times(1)).findById(orderId);
     verifyNoMoreInteractions(orderRepositoryMock);
   }
 
@@ -364,12 +746,10 @@ class OrderServiceImplServiceTest {
 
     Order order = new Order();
     order.setId(orderId);
-    order.setOrderStatus(OrderStatus.CANCELLED);
+    order.setOrderStatus(OrderStatus.PROCESSING);
     order.setCancellationReason("Reason.");
     order.setOrderItem(orderItems);
 
-    RestCallToInventoryService(OrderValidationEndpoints.ADD_RETURNED_INVENTORY.getUrl());
-
     when(orderRepositoryMock.findById(orderId)).thenReturn(Optional.of(order));
     when(orderRepositoryMock.save(Mockito.any(Order.class))).thenReturn(order);
 
@@ -380,6 +760,37 @@ class OrderServiceImplServiceTest {
     assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
 
     verify(orderRepositoryMock, times(1)).save(order);
+    verify(inventoryReturnOutboxRepositoryMock, times(1))
+        .saveAll(
+            argThat(
+                (List<InventoryReturnOutbox> entries) ->
+                    entries.size() == 1
+                        && entries.getFirst().getOrderId().equals(orderId)
+                        && entries.getFirst().getProductId() == 101L
+                        && entries.getFirst().getQuantity() == 2));
+    verifyNoInteractions(inventoryClientMock);
+  }
+
+  private OrderView getExistingOrder(Long orderId, LocalDateTime orderDate) {
+    return new OrderView(orderId, 1L, 0, OrderStatus.ORDER_PLACED, orderDate, null);
+  }
+
+  private Order getOrderInStatus(Long orderId, OrderStatus orderStatus) {
+    Order order = new Order();
+    order.setId(orderId);
+    order.setOrderStatus(orderStatus);
+    return order;
+  }
+
+  private Order getNewOrder(Long customerId, Long productId, int quantity) {
+    OrderItem orderItem = new OrderItem();
+    orderItem.setProductId(productId);
+    orderItem.setQuantity(quantity);
+
+    Order order = new Order();
+    order.setCustomerId(customerId);
+    order.setOrderItem(List.of(orderItem));
+    return order;
   }
 
   private Address getExistingCustomerAddress(String streetName, String number, String number1) {
@@ -392,12 +803,4 @@ class OrderServiceImplServiceTest {
     existingAddress.setZipCode(number1);
     return existingAddress;
   }
-
-  private void RestCallToInventoryService(String url) {
-    ResponseEntity<String> validationResponse =
-        new ResponseEntity<>("OK", HttpStatusCode.valueOf(200));
-    when(restTemplateMock.postForEntity(
-            Mockito.eq(url), Mockito.anyList(), Mockito.eq(String.class)))
-        .thenReturn(validationResponse);
-  }
 }
@@ -0,0 +1,113 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.changes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.changes.OrderChangeFeedHorizon;
+import com.project.anesu.ecommerce.ordermanagementservice.service.changes.OrderChangeFeedProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderChangeFeedHorizonTest {
+
+  @Mock private OrderRepository orderRepositoryMock;
+
+  private OrderChangeFeedProperties properties;
+  private OrderChangeFeedHorizon cut;
+
+  @BeforeEach
+  void setUp() {
+    properties = new OrderChangeFeedProperties();
+    cut = new OrderChangeFeedHorizon(orderRepositoryMock, properties);
+  }
+
+  @Test
+  void shouldServeNothing_UntilASampleHasSettled() throws InterruptedException {
+
+    // Given
+    properties.setSettleTime(Duration.ofMillis(200));
+    when(orderRepositoryMock.nextChangeSequence()).thenReturn(10L, 20L);
+    cut.sample();
+
+    // When
+    long beforeSettled = cut.get();
+    Thread.sleep(250);
+    cut.sample();
+    long afterSettled = cut.get();
+
+    // Then
+    assertEquals(0, beforeSettled);
+    assertEquals(10, afterSettled);
+  }
+
+  @Test
+  void shouldKeepTheLatestSettledSample_WhenNoNewerOneHasSettled() throws InterruptedException {
+
+    // Given
+    properties.setSettleTime(Duration.ofMillis(100));
+    when(orderRepositoryMock.nextChangeSequence()).thenReturn(10L, 20L);
+    cut.sample();
+    Thread.sleep(150);
+    cut.sample();
+
+    // When
+    long first = cut.get();
+    long second = cut.get();
+
+    // Then
+    assertEquals(10, first);
+    assertEquals(10, second);
+  }
+
+  @Test
+  void shouldServeEverythingDrawnSoFar_WhenSettleTimeIsZero() {
+
+    // Given
+    properties.setSettleTime(Duration.ZERO);
+    when(orderRepositoryMock.nextChangeSequence()).thenReturn(42L);
+
+    // When
+    long horizon = cut.get();
+
+    // Then
+    assertEquals(42, horizon);
+  }
+
+  @Test
+  void shouldHoldTheHorizonBelowATransactionInFlight_UntilItCompletes() {
+
+    // Given
+    properties.setSettleTime(Duration.ZERO);
+    when(orderRepositoryMock.nextChangeSequence()).thenReturn(10L, 20L, 30L);
+    cut.get();
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cut.register();
+      cut.register();
+
+      // When
+      long whileInFlight = cut.get();
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(
+              synchronization ->
+                  synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+      long afterCompletion = cut.get();
+
+      // Then
+      assertEquals(10, whileInFlight);
+      assertEquals(30, afterCompletion);
+      assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+}
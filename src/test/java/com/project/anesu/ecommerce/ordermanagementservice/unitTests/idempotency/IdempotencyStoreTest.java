@@ -0,0 +1,313 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.idempotency.IdempotencyRecord;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.IdempotencyRecordRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.IdempotencyKeyReusedException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.idempotency.IdempotencyProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+  private static final String KEY = "4f1c2a9e-order-1";
+  private static final byte[] REQUEST = "{\"customerId\":1}".getBytes(StandardCharsets.UTF_8);
+
+  @Mock private IdempotencyRecordRepository idempotencyRecordRepositoryMock;
+
+  private IdempotencyStore cut;
+
+  @BeforeEach
+  void setUp() {
+    cut =
+        new IdempotencyStore(
+            idempotencyRecordRepositoryMock,
+            new IdempotencyProperties(),
+            new SimpleMeterRegistry());
+  }
+
+  @Test
+  void shouldReplayStoredResponse_WithoutRunningRequestAgain() {
+
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+
+    // When
+    ResponseEntity<String> first =
+        cut.execute(KEY, REQUEST, () -> created(executions.incrementAndGet()));
+    ResponseEntity<String> replay =
+        cut.execute(KEY, REQUEST, () -> created(executions.incrementAndGet()));
+
+    // Then
+    assertEquals(1, executions.get());
+    assertEquals(first.getBody(), replay.getBody());
+    assertEquals(HttpStatus.OK, replay.getStatusCode());
+    assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    assertEquals("true", replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+
+    verify(idempotencyRecordRepositoryMock, times(1))
+        .insertClaim(eq(KEY), eq(sha256(REQUEST)), any(), any());
+    verify(idempotencyRecordRepositoryMock, times(1)).complete(KEY, 200, "{\"id\":1}");
+  }
+
+  @Test
+  void shouldReplayResponseFromTable_WhenNotCachedInMemory() {
+
+    // Given
+    IdempotencyRecord stored =
+        new IdempotencyRecord(
+            KEY,
+            sha256(REQUEST),
+            200,
+            "{\"id\":7}",
+            LocalDateTime.now(),
+            LocalDateTime.now().plusHours(1));
+
+    when(idempotencyRecordRepositoryMock.findByKeyAndExpiresAtAfter(
+            eq(KEY), any(LocalDateTime.class)))
+        .thenReturn(Optional.of(stored));
+
+    // When
+    ResponseEntity<String> replay =
+        cut.execute(
+            KEY,
+            REQUEST,
+            () -> {
+              throw new AssertionError("Request must not run again");
+            });
+
+    // Then
+    assertEquals("{\"id\":7}", replay.getBody());
+  }
+
+  @Test
+  void shouldLetConcurrentDuplicateWaitForFirstRequest() throws Exception {
+
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch firstStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+
+    CompletableFuture<ResponseEntity<String>> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                cut.execute(
+                    KEY,
+                    REQUEST,
+                    () -> {
+                      firstStarted.countDown();
+                      await(releaseFirst);
+                      return created(executions.incrementAndGet());
+                    }));
+    firstStarted.await(1, TimeUnit.SECONDS);
+
+    // When
+    CompletableFuture<ResponseEntity<String>> duplicate =
+        CompletableFuture.supplyAsync(
+            () -> cut.execute(KEY, REQUEST, () -> created(executions.incrementAndGet())));
+    Thread.sleep(100);
+    releaseFirst.countDown();
+
+    // Then
+    assertEquals(
+        first.get(1, TimeUnit.SECONDS).getBody(), duplicate.get(1, TimeUnit.SECONDS).getBody());
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  void shouldNotStoreFailedRequest_SoThatTheClientCanRetryIt() {
+
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+
+    // When
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            cut.execute(
+                KEY,
+                REQUEST,
+                () -> {
+                  executions.incrementAndGet();
+                  throw new IllegalStateException("Inventory Service unavailable");
+                }));
+    ResponseEntity<String> retry =
+        cut.execute(KEY, REQUEST, () -> created(executions.incrementAndGet()));
+
+    // Then
+    assertEquals(2, executions.get());
+    assertEquals("{\"id\":2}", retry.getBody());
+    verify(idempotencyRecordRepositoryMock, times(1)).release(KEY);
+    verify(idempotencyRecordRepositoryMock, times(1)).complete(KEY, 200, "{\"id\":2}");
+  }
+
+  @Test
+  void shouldKeepTheKeyClaimed_WhenStoringTheResponseFails() {
+
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+    doThrow(new IllegalStateException("Database unavailable"))
+        .when(idempotencyRecordRepositoryMock)
+        .complete(KEY, 200, "{\"id\":1}");
+
+    // When
+    ResponseEntity<String> first =
+        cut.execute(KEY, REQUEST, () -> created(executions.incrementAndGet()));
+    ResponseEntity<String> retry =
+        cut.execute(KEY, REQUEST, () -> created(executions.incrementAndGet()));
+
+    // Then
+    assertEquals(1, executions.get());
+    assertEquals(first.getBody(), retry.getBody());
+    verify(idempotencyRecordRepositoryMock, never()).release(KEY);
+  }
+
+  @Test
+  void shouldRejectConcurrentDuplicate_WhenFirstRequestRunsLongerThanTheJoinTimeout()
+      throws Exception {
+
+    // Given
+    IdempotencyProperties properties = new IdempotencyProperties();
+    properties.setJoinTimeout(Duration.ofMillis(50));
+    cut =
+        new IdempotencyStore(
+            idempotencyRecordRepositoryMock, properties, new SimpleMeterRegistry());
+
+    CountDownLatch firstStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    CompletableFuture<ResponseEntity<String>> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                cut.execute(
+                    KEY,
+                    REQUEST,
+                    () -> {
+                      firstStarted.countDown();
+                      await(releaseFirst);
+                      return created(1);
+                    }));
+    firstStarted.await(1, TimeUnit.SECONDS);
+
+    // When
+    OrderConflictException exception =
+        assertThrows(
+            OrderConflictException.class,
+            () ->
+                cut.execute(
+                    KEY,
+                    REQUEST,
+                    () -> {
+                      throw new AssertionError("Request must not run");
+                    }));
+    releaseFirst.countDown();
+
+    // Then
+    assertEquals(
+        "A request with this Idempotency-Key is still being processed.", exception.getMessage());
+    assertEquals("{\"id\":1}", first.get(1, TimeUnit.SECONDS).getBody());
+  }
+
+  @Test
+  void shouldRejectReusedKey_WhenRequestBodyDiffers() {
+
+    // Given
+    cut.execute(KEY, REQUEST, () -> created(1));
+    byte[] otherRequest = "{\"customerId\":2}".getBytes(StandardCharsets.UTF_8);
+
+    // When
+    IdempotencyKeyReusedException exception =
+        assertThrows(
+            IdempotencyKeyReusedException.class,
+            () ->
+                cut.execute(
+                    KEY,
+                    otherRequest,
+                    () -> {
+                      throw new AssertionError("Request must not run");
+                    }));
+
+    // Then
+    assertEquals(
+        "Idempotency-Key was already used for a different request.", exception.getMessage());
+  }
+
+  @Test
+  void shouldRejectDuplicate_WhileAnotherInstanceIsRunningIt() {
+
+    // Given
+    IdempotencyRecord claimedElsewhere =
+        new IdempotencyRecord(
+            KEY,
+            sha256(REQUEST),
+            IdempotencyRecord.IN_PROGRESS,
+            null,
+            LocalDateTime.now(),
+            LocalDateTime.now().plusHours(1));
+
+    doThrow(new DataIntegrityViolationException("duplicate key"))
+        .when(idempotencyRecordRepositoryMock)
+        .insertClaim(eq(KEY), any(), any(), any());
+    when(idempotencyRecordRepositoryMock.findByKeyAndExpiresAtAfter(
+            eq(KEY), any(LocalDateTime.class)))
+        .thenReturn(Optional.empty(), Optional.of(claimedElsewhere));
+
+    // When / Then
+    assertThrows(
+        OrderConflictException.class,
+        () ->
+            cut.execute(
+                KEY,
+                REQUEST,
+                () -> {
+                  throw new AssertionError("Request must not run");
+                }));
+    verify(idempotencyRecordRepositoryMock, never()).release(KEY);
+  }
+
+  private static String sha256(byte[] requestBody) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(requestBody));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private ResponseEntity<String> created(int id) {
+    return ResponseEntity.ok("{\"id\":" + id + "}");
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryAvailabilityCache;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryAvailabilityCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InventoryAvailabilityCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private InventoryAvailabilityCache cut;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    cut = new InventoryAvailabilityCache(new InventoryAvailabilityCacheProperties(), meterRegistry);
+  }
+
+  @Test
+  void shouldRejectLargerOrSameQuantity_AfterSingleProductRequestWasRejected() {
+
+    // Given
+    cut.recordRejected(List.of(item(101L, 5)));
+
+    // When / Then
+    assertEquals(Optional.of(101L), cut.findUnfulfillableProduct(List.of(item(101L, 5))));
+    assertEquals(
+        Optional.of(101L), cut.findUnfulfillableProduct(List.of(item(101L, 3), item(101L, 3))));
+    assertEquals(Optional.empty(), cut.findUnfulfillableProduct(List.of(item(101L, 4))));
+
+    assertEquals(2.0, meterRegistry.get("inventory.availability.short.circuits").counter().count());
+    assertEquals(2, meterRegistry.get("inventory.availability.staleness").timer().count());
+  }
+
+  @Test
+  void shouldNotLearnFromRejectedMultiProductRequest() {
+
+    // Given
+    cut.recordRejected(List.of(item(101L, 5), item(102L, 1)));
+
+    // When / Then
+    assertEquals(Optional.empty(), cut.findUnfulfillableProduct(List.of(item(101L, 5))));
+    assertEquals(Optional.empty(), cut.findUnfulfillableProduct(List.of(item(102L, 1))));
+  }
+
+  @Test
+  void shouldForgetStockLimit_WhenStockOfProductChanged() {
+
+    // Given
+    cut.recordRejected(List.of(item(101L, 5)));
+
+    // When
+    cut.invalidate(List.of(item(101L, 2)));
+
+    // Then
+    assertEquals(Optional.empty(), cut.findUnfulfillableProduct(List.of(item(101L, 5))));
+  }
+
+  private Map<String, Object> item(Long productId, int quantity) {
+    return Map.of("productId", productId, "quantity", quantity);
+  }
+}
@@ -0,0 +1,245 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.InventoryUnavailableException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryCoalescerProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryRequestCoalescer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryRequestCoalescerTest {
+
+  @Mock private InventoryClient inventoryClientMock;
+  @Mock private InventoryReturnOutboxRepository inventoryReturnOutboxRepositoryMock;
+
+  private SimpleMeterRegistry meterRegistry;
+  private InventoryRequestCoalescer cut;
+
+  @BeforeEach
+  void setUp() {
+    InventoryCoalescerProperties properties = new InventoryCoalescerProperties();
+    properties.setWindow(Duration.ofMillis(200));
+    properties.setMaxBatchSize(3);
+
+    meterRegistry = new SimpleMeterRegistry();
+    cut =
+        new InventoryRequestCoalescer(
+            inventoryClientMock,
+            inventoryReturnOutboxRepositoryMock,
+            properties,
+            meterRegistry,
+            Executors.newFixedThreadPool(2),
+            CircuitBreaker.ofDefaults("inventory"),
+            Bulkhead.ofDefaults("inventory"));
+  }
+
+  @Test
+  void shouldMergeConcurrentRequestsIntoASingleInventoryCall() {
+
+    // Given
+    when(inventoryClientMock.validateAndDeduct(anyList())).thenReturn(ResponseEntity.ok("OK"));
+
+    // When
+    List<ResponseEntity<String>> responses =
+        validateConcurrently(item(101L, 2), item(101L, 1), item(102L, 4));
+
+    // Then
+    assertThat(responses).allMatch(response -> response.getStatusCode() == HttpStatus.OK);
+
+    verify(inventoryClientMock, times(1))
+        .validateAndDeduct(
+            List.of(
+                Map.of("productId", 101L, "quantity", 3),
+                Map.of("productId", 102L, "quantity", 4)));
+    assertEquals(3.0, meterRegistry.get("inventory.coalescer.batch.size").summary().max());
+  }
+
+  @Test
+  void shouldResendEachRequestOnItsOwn_WhenMergedRequestIsRejected() {
+
+    // Given
+    List<Map<String, Object>> fulfillable = item(101L, 1);
+    List<Map<String, Object>> unfulfillable = item(102L, 99);
+
+    when(inventoryClientMock.validateAndDeduct(anyList()))
+        .thenReturn(ResponseEntity.badRequest().body("Insufficient stock"));
+    when(inventoryClientMock.validateAndDeduct(fulfillable)).thenReturn(ResponseEntity.ok("OK"));
+
+    // When
+    List<ResponseEntity<String>> responses =
+        validateConcurrently(fulfillable, unfulfillable, fulfillable);
+
+    // Then
+    assertEquals(HttpStatus.OK, responses.get(0).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, responses.get(1).getStatusCode());
+    assertEquals(HttpStatus.OK, responses.get(2).getStatusCode());
+
+    verify(inventoryClientMock, times(4)).validateAndDeduct(anyList());
+    assertEquals(1.0, meterRegistry.get("inventory.coalescer.fallbacks").counter().count());
+  }
+
+  @Test
+  void shouldFailTheBatch_AndKeepCollecting_WhenTheDispatchIsRejected() {
+
+    // Given
+    ExecutorService executorMock = mock(ExecutorService.class);
+    doThrow(new RejectedExecutionException("Pool is full"))
+        .doAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return null;
+            })
+        .when(executorMock)
+        .execute(any(Runnable.class));
+    when(inventoryClientMock.validateAndDeduct(item(101L, 1))).thenReturn(ResponseEntity.ok("OK"));
+    cut = newCoalescer(executorMock, Duration.ofSeconds(5));
+
+    // When
+    InventoryUnavailableException rejected =
+        assertThrows(
+            InventoryUnavailableException.class, () -> cut.validateAndDeduct(item(101L, 1)));
+    ResponseEntity<String> accepted = cut.validateAndDeduct(item(101L, 1));
+
+    // Then
+    assertEquals("Inventory request could not be sent", rejected.getMessage());
+    assertEquals(HttpStatus.OK, accepted.getStatusCode());
+  }
+
+  @Test
+  void shouldGiveUpWaiting_AndFailRequestsAfterShutdown() {
+
+    // Given
+    CountDownLatch released = new CountDownLatch(1);
+    when(inventoryClientMock.validateAndDeduct(item(101L, 1)))
+        .thenAnswer(
+            invocation -> {
+              released.await();
+              return ResponseEntity.ok("OK");
+            });
+    cut = newCoalescer(Executors.newFixedThreadPool(2), Duration.ofMillis(100));
+
+    // When
+    InventoryUnavailableException timedOut =
+        assertThrows(
+            InventoryUnavailableException.class, () -> cut.validateAndDeduct(item(101L, 1)));
+    released.countDown();
+    cut.shutdown();
+    InventoryUnavailableException afterShutdown =
+        assertThrows(
+            InventoryUnavailableException.class, () -> cut.validateAndDeduct(item(101L, 1)));
+
+    // Then
+    assertEquals("Timed out waiting for the Inventory Service", timedOut.getMessage());
+    assertEquals("Inventory request coalescer is shut down", afterShutdown.getMessage());
+  }
+
+  @Test
+  void shouldQueueTheReturn_OfADeductionAcceptedAfterItsCallerTimedOut() {
+
+    // Given
+    CountDownLatch released = new CountDownLatch(1);
+    when(inventoryClientMock.validateAndDeduct(item(101L, 2)))
+        .thenAnswer(
+            invocation -> {
+              released.await();
+              return ResponseEntity.ok("OK");
+            });
+    cut = newCoalescer(Executors.newFixedThreadPool(2), Duration.ofMillis(100));
+
+    // When
+    assertThrows(InventoryUnavailableException.class, () -> cut.validateAndDeduct(item(101L, 2)));
+    released.countDown();
+
+    // Then
+    ArgumentCaptor<List<InventoryReturnOutbox>> captor = ArgumentCaptor.captor();
+    verify(inventoryReturnOutboxRepositoryMock, timeout(5000)).saveAll(captor.capture());
+    assertThat(captor.getValue())
+        .singleElement()
+        .satisfies(
+            inventoryReturn -> {
+              assertEquals(101L, inventoryReturn.getProductId());
+              assertEquals(2, inventoryReturn.getQuantity());
+            });
+    assertEquals(1.0, meterRegistry.get("inventory.coalescer.abandoned").counter().count());
+  }
+
+  @Test
+  void shouldFailImmediately_WithoutQueueing_WhileTheCircuitIsOpen() {
+
+    // Given
+    CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("inventory");
+    circuitBreaker.transitionToOpenState();
+    cut = newCoalescer(Executors.newFixedThreadPool(2), Duration.ofSeconds(5), circuitBreaker);
+
+    // When
+    InventoryUnavailableException exception =
+        assertThrows(
+            InventoryUnavailableException.class, () -> cut.validateAndDeduct(item(101L, 1)));
+
+    // Then
+    assertEquals("Inventory Service circuit is open", exception.getMessage());
+    verifyNoInteractions(inventoryClientMock);
+  }
+
+  private InventoryRequestCoalescer newCoalescer(ExecutorService executor, Duration timeout) {
+    return newCoalescer(executor, timeout, CircuitBreaker.ofDefaults("inventory"));
+  }
+
+  private InventoryRequestCoalescer newCoalescer(
+      ExecutorService executor, Duration timeout, CircuitBreaker circuitBreaker) {
+    InventoryCoalescerProperties properties = new InventoryCoalescerProperties();
+    properties.setWindow(Duration.ofMillis(1));
+    properties.setRequestTimeout(timeout);
+    return new InventoryRequestCoalescer(
+        inventoryClientMock,
+        inventoryReturnOutboxRepositoryMock,
+        properties,
+        meterRegistry,
+        executor,
+        circuitBreaker,
+        Bulkhead.ofDefaults("inventory"));
+  }
+
+  @SafeVarargs
+  private List<ResponseEntity<String>> validateConcurrently(
+      List<Map<String, Object>>... batchOrderRequests) {
+
+    List<CompletableFuture<ResponseEntity<String>>> futures = new ArrayList<>();
+    for (List<Map<String, Object>> batchOrderRequest : batchOrderRequests) {
+      futures.add(CompletableFuture.supplyAsync(() -> cut.validateAndDeduct(batchOrderRequest)));
+    }
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+
+  private List<Map<String, Object>> item(Long productId, int quantity) {
+    return List.of(Map.of("productId", productId, "quantity", quantity));
+  }
+}
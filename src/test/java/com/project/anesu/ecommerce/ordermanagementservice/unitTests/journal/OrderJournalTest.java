@@ -0,0 +1,222 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEvent;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.journal.OrderEventType;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournal;
+import com.project.anesu.ecommerce.ordermanagementservice.service.journal.OrderJournalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class OrderJournalTest {
+
+  @TempDir Path directory;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderJournal cut;
+
+  @AfterEach
+  void tearDown() {
+    if (cut != null) {
+      cut.close();
+    }
+  }
+
+  @Test
+  void shouldReplayAppendedEvents_FromTheStartAndFromAnyEventOffset() {
+
+    // Given
+    cut = openJournal(DataSize.ofMegabytes(1));
+    long created = cut.append(OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null);
+    long processed = cut.append(OrderEventType.STATUS_CHANGED, 1L, OrderStatus.PROCESSING, null);
+    long cancelled =
+        cut.append(OrderEventType.CANCELLED, 1L, OrderStatus.CANCELLED, "Changed my mind.");
+
+    // When
+    List<OrderEvent> allEvents = new ArrayList<>();
+    long next = cut.replay(0, allEvents::add);
+    List<OrderEvent> laterEvents = new ArrayList<>();
+    cut.replay(processed, laterEvents::add);
+
+    // Then
+    assertEquals(0, created);
+    assertEquals(cut.endOffset(), next);
+    assertThat(allEvents)
+        .extracting(
+            OrderEvent::getOffset,
+            OrderEvent::getType,
+            OrderEvent::getOrderId,
+            OrderEvent::getOrderStatus,
+            OrderEvent::getDetail)
+        .containsExactly(
+            tuple(created, OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null),
+            tuple(processed, OrderEventType.STATUS_CHANGED, 1L, OrderStatus.PROCESSING, null),
+            tuple(
+                cancelled,
+                OrderEventType.CANCELLED,
+                1L,
+                OrderStatus.CANCELLED,
+                "Changed my mind."));
+    assertThat(laterEvents).extracting(OrderEvent::getOffset).containsExactly(processed, cancelled);
+    assertEquals(3.0, meterRegistry.get("order.journal.appends").counter().count());
+  }
+
+  @Test
+  void shouldRejectReplay_FromAnOffsetWhereNoEventStarts() {
+
+    // Given
+    cut = openJournal(DataSize.ofMegabytes(1));
+    cut.append(OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null);
+
+    // When
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> cut.replay(3, event -> {}));
+
+    // Then
+    assertEquals("No journal record starts at offset 3", exception.getMessage());
+  }
+
+  @Test
+  void shouldRollOverToNewSegments_AndReplayAcrossThem() throws IOException {
+
+    // Given
+    cut = openJournal(DataSize.ofBytes(4096));
+    String reason = "x".repeat(500);
+
+    // When
+    for (long orderId = 1; orderId <= 20; orderId++) {
+      cut.append(OrderEventType.CANCELLED, orderId, OrderStatus.CANCELLED, reason);
+    }
+    List<OrderEvent> events = new ArrayList<>();
+    cut.replay(0, events::add);
+
+    // Then
+    assertThat(events).extracting(OrderEvent::getOrderId).hasSize(20).startsWith(1L).endsWith(20L);
+    assertThat(segmentFiles()).hasSizeGreaterThan(2);
+    for (int i = 1; i < events.size(); i++) {
+      assertEquals(
+          events.get(i - 1).getOffset()
+              + OrderJournal.HEADER_SIZE
+              + OrderJournal.FIXED_BODY_SIZE
+              + reason.length(),
+          events.get(i).getOffset());
+    }
+  }
+
+  @Test
+  void shouldContinueAfterTheLastIntactEvent_WhenReopenedAfterATornWrite() throws IOException {
+
+    // Given
+    cut = openJournal(DataSize.ofMegabytes(1));
+    cut.append(OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null);
+    long torn = cut.append(OrderEventType.CREATED, 2L, OrderStatus.ORDER_PLACED, null);
+    cut.close();
+    corruptByteAt(torn + OrderJournal.HEADER_SIZE + 1);
+
+    // When
+    cut = openJournal(DataSize.ofMegabytes(1));
+    long appended = cut.append(OrderEventType.CREATED, 3L, OrderStatus.ORDER_PLACED, null);
+    List<OrderEvent> events = new ArrayList<>();
+    cut.replay(0, events::add);
+
+    // Then
+    assertEquals(torn, appended);
+    assertThat(events).extracting(OrderEvent::getOrderId).containsExactly(1L, 3L);
+  }
+
+  @Test
+  void shouldStoreTheStableCodesOfEventTypeAndStatus() throws IOException {
+
+    // Given
+    cut = openJournal(DataSize.ofMegabytes(1));
+
+    // When
+    long offset = cut.append(OrderEventType.CANCELLED, 1L, OrderStatus.CANCELLED, null);
+    cut.close();
+    cut = null;
+
+    // Then
+    byte[] body = readBytesAt(offset + OrderJournal.HEADER_SIZE, OrderJournal.FIXED_BODY_SIZE);
+    assertEquals(OrderEventType.CANCELLED.getCode(), body[0]);
+    assertEquals(OrderStatus.CANCELLED.getCode(), body[17]);
+  }
+
+  @Test
+  void shouldCountInsteadOfThrow_WhenTheEventOfACommittedChangeCannotBeAppended() {
+
+    // Given
+    cut = openJournal(DataSize.ofMegabytes(1));
+    cut.close();
+
+    // When
+    cut.appendAfterCommit(OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null);
+
+    // Then
+    assertEquals(1.0, meterRegistry.get("order.journal.failures").counter().count());
+    assertThrows(
+        IllegalStateException.class,
+        () -> cut.append(OrderEventType.CREATED, 1L, OrderStatus.ORDER_PLACED, null));
+    cut = null;
+  }
+
+  @Test
+  void shouldRefuseToOpenADirectoryThatIsAlreadyInUse() {
+
+    // Given
+    cut = openJournal(DataSize.ofMegabytes(1));
+
+    // When
+    IllegalStateException exception =
+        assertThrows(IllegalStateException.class, () -> openJournal(DataSize.ofMegabytes(1)));
+
+    // Then
+    assertThat(exception.getMessage()).endsWith("is in use.");
+  }
+
+  private OrderJournal openJournal(DataSize segmentSize) {
+    OrderJournalProperties properties = new OrderJournalProperties();
+    properties.setDirectory(directory);
+    properties.setSegmentSize(segmentSize);
+    meterRegistry = new SimpleMeterRegistry();
+    return new OrderJournal(properties, meterRegistry);
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".journal")).toList();
+    }
+  }
+
+  private byte[] readBytesAt(long offset, int length) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(length);
+    try (FileChannel channel =
+        FileChannel.open(segmentFiles().getFirst(), StandardOpenOption.READ)) {
+      channel.read(bytes, offset);
+    }
+    return bytes.array();
+  }
+
+  private void corruptByteAt(long offset) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(segmentFiles().getFirst(), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {(byte) 0x7f}), offset);
+    }
+  }
+}
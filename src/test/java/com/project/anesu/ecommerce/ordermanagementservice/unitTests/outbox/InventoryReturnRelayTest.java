@@ -0,0 +1,176 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.outbox.InventoryReturnOutbox;
+import com.project.anesu.ecommerce.ordermanagementservice.model.InventoryClient;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.InventoryReturnOutboxRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.inventory.InventoryAvailabilityCache;
+import com.project.anesu.ecommerce.ordermanagementservice.service.outbox.InventoryOutboxProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.outbox.InventoryReturnRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReturnRelayTest {
+
+  @Mock private InventoryReturnOutboxRepository outboxRepositoryMock;
+  @Mock private InventoryClient inventoryClientMock;
+  @Mock private InventoryAvailabilityCache inventoryAvailabilityCacheMock;
+
+  private InventoryReturnRelay cut;
+
+  @BeforeEach
+  void setUp() {
+    InventoryOutboxProperties properties = new InventoryOutboxProperties();
+    properties.setBatchSize(10);
+    properties.setInitialBackoff(Duration.ofSeconds(2));
+    properties.setMaxBackoff(Duration.ofSeconds(5));
+
+    cut =
+        new InventoryReturnRelay(
+            outboxRepositoryMock,
+            inventoryClientMock,
+            properties,
+            inventoryAvailabilityCacheMock,
+            new SimpleMeterRegistry());
+  }
+
+  @Test
+  void shouldMergeDueReturnsPerProduct_AndDeleteThemOnceAccepted() {
+
+    // Given
+    List<InventoryReturnOutbox> batch =
+        List.of(outboxEntry(11L, 101L, 2), outboxEntry(12L, 101L, 3), outboxEntry(13L, 102L, 1));
+
+    when(outboxRepositoryMock.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+            any(LocalDateTime.class), eq(Limit.of(10))))
+        .thenReturn(batch);
+    when(inventoryClientMock.returnInventory(anyList())).thenReturn(ResponseEntity.ok("OK"));
+
+    // When
+    int delivered = cut.relay();
+
+    // Then
+    assertEquals(3, delivered);
+    List<Map<String, Object>> returnRequest =
+        List.of(Map.of("productId", 101L, "quantity", 5), Map.of("productId", 102L, "quantity", 1));
+    verify(inventoryClientMock, times(1)).returnInventory(returnRequest);
+    verify(outboxRepositoryMock, times(1)).deleteAllInBatch(batch);
+    verify(inventoryAvailabilityCacheMock, times(1)).invalidate(returnRequest);
+  }
+
+  @Test
+  void shouldRescheduleBatchWithBackoff_WhenInventoryServiceIsUnreachable() {
+
+    // Given
+    InventoryReturnOutbox firstAttempt = outboxEntry(11L, 101L, 2);
+    InventoryReturnOutbox thirdAttempt = outboxEntry(12L, 102L, 1);
+    thirdAttempt.setAttempts(2);
+
+    List<InventoryReturnOutbox> batch = List.of(firstAttempt, thirdAttempt);
+
+    when(outboxRepositoryMock.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+            any(LocalDateTime.class), eq(Limit.of(10))))
+        .thenReturn(batch);
+    when(inventoryClientMock.returnInventory(anyList()))
+        .thenThrow(new ResourceAccessException("Connection refused"));
+
+    // When
+    LocalDateTime before = LocalDateTime.now();
+    int delivered = cut.relay();
+
+    // Then
+    assertEquals(0, delivered);
+    assertEquals(1, firstAttempt.getAttempts());
+    assertEquals(3, thirdAttempt.getAttempts());
+    assertThat(firstAttempt.getNextAttemptAt())
+        .isBetween(before.plusSeconds(2), before.plusSeconds(3));
+    assertThat(thirdAttempt.getNextAttemptAt())
+        .isBetween(before.plusSeconds(5), before.plusSeconds(6));
+
+    verify(outboxRepositoryMock, times(1)).saveAll(batch);
+    verify(outboxRepositoryMock, never()).deleteAllInBatch(any());
+  }
+
+  @Test
+  void shouldSplitARejectedBatch_AndDeadLetterOnlyTheRejectedReturn() {
+
+    // Given
+    InventoryReturnOutbox valid = outboxEntry(11L, 101L, 2);
+    InventoryReturnOutbox unknownProduct = outboxEntry(12L, 999L, 1);
+    InventoryReturnOutbox alsoValid = outboxEntry(13L, 102L, 1);
+
+    when(outboxRepositoryMock.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+            any(LocalDateTime.class), eq(Limit.of(10))))
+        .thenReturn(List.of(valid, unknownProduct, alsoValid));
+    when(inventoryClientMock.returnInventory(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Map<String, Object>> returnRequest = invocation.getArgument(0);
+              if (returnRequest.stream().anyMatch(entry -> entry.get("productId").equals(999L))) {
+                throw HttpClientErrorException.create(
+                    HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+              }
+              return ResponseEntity.ok("OK");
+            });
+
+    // When
+    int delivered = cut.relay();
+
+    // Then
+    assertEquals(2, delivered);
+    verify(outboxRepositoryMock, times(1)).deleteAllInBatch(List.of(valid));
+    verify(outboxRepositoryMock, times(1)).deleteAllInBatch(List.of(alsoValid));
+    verify(outboxRepositoryMock, times(1)).saveAll(List.of(unknownProduct));
+    assertNull(unknownProduct.getNextAttemptAt());
+    assertNotNull(unknownProduct.getDeadLetteredAt());
+  }
+
+  @Test
+  void shouldDeadLetterAReturn_WhenItFailedTheMaximumNumberOfTimes() {
+
+    // Given
+    InventoryReturnOutbox lastAttempt = outboxEntry(11L, 101L, 2);
+    lastAttempt.setAttempts(19);
+
+    when(outboxRepositoryMock.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+            any(LocalDateTime.class), eq(Limit.of(10))))
+        .thenReturn(List.of(lastAttempt));
+    when(inventoryClientMock.returnInventory(anyList()))
+        .thenThrow(new ResourceAccessException("Connection refused"));
+
+    // When
+    cut.relay();
+
+    // Then
+    assertEquals(20, lastAttempt.getAttempts());
+    assertNull(lastAttempt.getNextAttemptAt());
+    assertNotNull(lastAttempt.getDeadLetteredAt());
+  }
+
+  private InventoryReturnOutbox outboxEntry(Long id, Long productId, int quantity) {
+    InventoryReturnOutbox entry = InventoryReturnOutbox.of(null, productId, quantity);
+    entry.setId(id);
+    return entry;
+  }
+}
@@ -0,0 +1,146 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.model.OrderService;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderLeaseRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.model.repository.OrderRepository;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderNotFoundException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.processor.OrderProcessor;
+import com.project.anesu.ecommerce.ordermanagementservice.service.processor.OrderProcessorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderProcessorTest {
+
+  @Mock private OrderRepository orderRepositoryMock;
+  @Mock private OrderLeaseRepository orderLeaseRepositoryMock;
+  @Mock private OrderService orderServiceMock;
+  @Mock private PlatformTransactionManager transactionManagerMock;
+
+  private OrderProcessorProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+  private OrderProcessor cut;
+
+  @BeforeEach
+  void setUp() {
+    properties = new OrderProcessorProperties();
+    properties.setBatchSize(3);
+    properties.setWorkers(2);
+
+    meterRegistry = new SimpleMeterRegistry();
+    cut =
+        new OrderProcessor(
+            orderRepositoryMock,
+            orderLeaseRepositoryMock,
+            orderServiceMock,
+            properties,
+            transactionManagerMock,
+            meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cut.shutdown();
+  }
+
+  @Test
+  void shouldProcessOnlyTheOrdersItClaimed_AndCountOrdersClaimedOrChangedByOthers() {
+
+    // Given
+    when(orderRepositoryMock.findClaimableIds(
+            eq(OrderStatus.ORDER_PLACED), any(LocalDateTime.class), eq(Limit.of(3))))
+        .thenReturn(List.of(1L, 2L, 3L))
+        .thenReturn(List.of());
+    when(orderLeaseRepositoryMock.claim(
+            eq(List.of(1L, 2L, 3L)),
+            eq(OrderStatus.ORDER_PLACED),
+            anyString(),
+            any(LocalDateTime.class)))
+        .thenReturn(2);
+    when(orderLeaseRepositoryMock.findOrderIdsByClaimedBy(anyString())).thenReturn(List.of(1L, 3L));
+    when(orderServiceMock.processPendingOrder(1L)).thenReturn(new Order());
+    when(orderServiceMock.processPendingOrder(3L))
+        .thenThrow(new OrderConflictException("Order 3 is CANCELLED."));
+
+    // When
+    int processed = cut.processClaimableOrders();
+
+    // Then
+    assertEquals(1, processed);
+    verify(orderServiceMock, times(1)).processPendingOrder(1L);
+    verify(orderServiceMock, never()).processPendingOrder(2L);
+    assertEquals(1.0, meterRegistry.get("order.processor.processed").counter().count());
+    assertEquals(2.0, meterRegistry.get("order.processor.claim.conflicts").counter().count());
+    verify(orderLeaseRepositoryMock, times(1)).release(anyString(), eq(List.of(1L, 3L)));
+    verify(transactionManagerMock, times(2)).commit(any());
+  }
+
+  @Test
+  void shouldKeepClaimingBatches_UntilABatchIsNotFull() {
+
+    // Given
+    when(orderRepositoryMock.findClaimableIds(
+            eq(OrderStatus.ORDER_PLACED), any(LocalDateTime.class), eq(Limit.of(3))))
+        .thenReturn(List.of(1L, 2L, 3L))
+        .thenReturn(List.of(4L));
+    when(orderLeaseRepositoryMock.claim(any(), any(), anyString(), any(LocalDateTime.class)))
+        .thenReturn(3)
+        .thenReturn(1);
+    when(orderLeaseRepositoryMock.findOrderIdsByClaimedBy(anyString()))
+        .thenReturn(List.of(1L, 2L, 3L))
+        .thenReturn(List.of(4L));
+
+    // When
+    int processed = cut.processClaimableOrders();
+
+    // Then
+    assertEquals(4, processed);
+    verify(orderRepositoryMock, times(2)).findClaimableIds(any(), any(), any());
+  }
+
+  @Test
+  void shouldCountFailedOrders_AndPickUpChangedSettingsForTheNextBatch() {
+
+    // Given
+    when(orderRepositoryMock.findOldestOrderDate(OrderStatus.ORDER_PLACED))
+        .thenReturn(Optional.of(LocalDateTime.now().minusMinutes(2)));
+    when(orderRepositoryMock.findClaimableIds(
+            eq(OrderStatus.ORDER_PLACED), any(LocalDateTime.class), eq(Limit.of(5))))
+        .thenReturn(List.of(7L));
+    when(orderLeaseRepositoryMock.claim(any(), any(), anyString(), any(LocalDateTime.class)))
+        .thenReturn(1);
+    when(orderLeaseRepositoryMock.findOrderIdsByClaimedBy(anyString())).thenReturn(List.of(7L));
+    when(orderServiceMock.processPendingOrder(7L)).thenThrow(new OrderNotFoundException(7L));
+    properties.setBatchSize(5);
+    properties.setWorkers(6);
+
+    // When
+    int processed = cut.processClaimableOrders();
+
+    // Then
+    assertEquals(0, processed);
+    assertEquals(1.0, meterRegistry.get("order.processor.failures").counter().count());
+    verify(orderLeaseRepositoryMock, never()).release(anyString(), any());
+    assertEquals(6.0, meterRegistry.get("order.processor.workers").gauge().value());
+    assertEquals(120.0, meterRegistry.get("order.processor.lag").gauge().value(), 1.0);
+  }
+}
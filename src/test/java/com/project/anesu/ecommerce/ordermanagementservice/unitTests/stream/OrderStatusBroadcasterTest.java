@@ -0,0 +1,321 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatusEvent;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.TooManySubscribersException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.stream.OrderStatusBroadcaster;
+import com.project.anesu.ecommerce.ordermanagementservice.service.stream.OrderStreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class OrderStatusBroadcasterTest {
+
+  private OrderStreamProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    properties = new OrderStreamProperties();
+    properties.setBufferSize(2);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void shouldPushEventsOnlyToSubscribersWhoseFilterMatches() throws InterruptedException {
+
+    // Given
+    OrderStatusBroadcaster cut = new OrderStatusBroadcaster(properties, meterRegistry);
+    RecordingEmitter customerOne = new RecordingEmitter(1, false);
+    RecordingEmitter orderTwenty = new RecordingEmitter(1, false);
+    cut.register(customerOne, 1L, List.of());
+    cut.register(orderTwenty, null, List.of(20L));
+
+    // When
+    cut.publish(getEvent(10L, 1L));
+    cut.publish(getEvent(20L, 2L));
+
+    // Then
+    assertTrue(customerOne.awaitEvents());
+    assertTrue(orderTwenty.awaitEvents());
+    assertThat(customerOne.orderIds()).containsExactly(10L);
+    assertThat(orderTwenty.orderIds()).containsExactly(20L);
+    assertEquals(2.0, meterRegistry.get("order.stream.subscribers").gauge().value());
+  }
+
+  @Test
+  void shouldDropTheOldestBufferedEvents_WhenASubscriberFallsBehind() throws InterruptedException {
+
+    // Given
+    OrderStatusBroadcaster cut = new OrderStatusBroadcaster(properties, meterRegistry);
+    RecordingEmitter slowSubscriber = new RecordingEmitter(3, true);
+    cut.register(slowSubscriber, null, List.of());
+    cut.publish(getEvent(1L, 1L));
+    assertTrue(slowSubscriber.sending.await(5, TimeUnit.SECONDS));
+
+    // When
+    for (long orderId = 2; orderId <= 4; orderId++) {
+      cut.publish(getEvent(orderId, 1L));
+    }
+    slowSubscriber.release.countDown();
+
+    // Then
+    assertTrue(slowSubscriber.awaitEvents());
+    assertThat(slowSubscriber.orderIds()).containsExactly(1L, 3L, 4L);
+    assertEquals(1.0, meterRegistry.get("order.stream.dropped").counter().count());
+  }
+
+  @Test
+  void shouldDisconnectASubscriberThatFallsBehind_WhenConfiguredTo() throws InterruptedException {
+
+    // Given
+    properties.setOverflowPolicy(OrderStreamProperties.OverflowPolicy.DISCONNECT);
+    OrderStatusBroadcaster cut = new OrderStatusBroadcaster(properties, meterRegistry);
+    RecordingEmitter slowSubscriber = new RecordingEmitter(1, true);
+    cut.register(slowSubscriber, null, List.of());
+    cut.publish(getEvent(1L, 1L));
+    assertTrue(slowSubscriber.sending.await(5, TimeUnit.SECONDS));
+
+    // When
+    for (long orderId = 2; orderId <= 4; orderId++) {
+      cut.publish(getEvent(orderId, 1L));
+    }
+
+    // Then
+    assertEquals(0.0, meterRegistry.get("order.stream.subscribers").gauge().value());
+    assertEquals(1.0, meterRegistry.get("order.stream.disconnects").counter().count());
+    slowSubscriber.release.countDown();
+    assertTrue(slowSubscriber.completed.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldServeOtherSubscribers_BetweenTurnsOfABusySubscriber() throws InterruptedException {
+
+    // Given
+    properties.setBufferSize(8);
+    properties.setSenderThreads(1);
+    properties.setMaxEventsPerTurn(1);
+    OrderStatusBroadcaster cut = new OrderStatusBroadcaster(properties, meterRegistry);
+    List<Long> sendLog = new CopyOnWriteArrayList<>();
+    RecordingEmitter busySubscriber = new RecordingEmitter(4, true, sendLog);
+    RecordingEmitter otherSubscriber = new RecordingEmitter(1, false, sendLog);
+    cut.register(busySubscriber, 1L, List.of());
+    cut.publish(getEvent(1L, 1L));
+    assertTrue(busySubscriber.sending.await(5, TimeUnit.SECONDS));
+
+    // When
+    for (long orderId = 2; orderId <= 4; orderId++) {
+      cut.publish(getEvent(orderId, 1L));
+    }
+    cut.register(otherSubscriber, 2L, List.of());
+    cut.publish(getEvent(100L, 2L));
+    busySubscriber.release.countDown();
+
+    // Then
+    assertTrue(busySubscriber.awaitEvents());
+    assertTrue(otherSubscriber.awaitEvents());
+    assertTrue(sendLog.indexOf(100L) < sendLog.indexOf(4L), "Sent in order " + sendLog);
+  }
+
+  @Test
+  void shouldDisconnectASubscriber_WhoseWriteBlocksLongerThanTheSendTimeout_WithoutBlocking()
+      throws Exception {
+
+    // Given
+    properties.setSendTimeout(Duration.ZERO);
+    OrderStatusBroadcaster cut = new OrderStatusBroadcaster(properties, meterRegistry);
+    BlockingResponse response = new BlockingResponse();
+    SseEmitter emitter = new SseEmitter();
+    WebAsyncManager asyncManager = startStreaming(emitter, response);
+    cut.register(emitter, null, List.of());
+    assertTrue(response.writing.await(5, TimeUnit.SECONDS));
+
+    // When
+    assertTimeoutPreemptively(Duration.ofSeconds(5), cut::sendHeartbeats);
+
+    // Then
+    assertFalse(cut.hasSubscribers());
+    assertEquals(1.0, meterRegistry.get("order.stream.stalled").counter().count());
+    response.release.countDown();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!asyncManager.hasConcurrentResult() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(asyncManager.hasConcurrentResult(), "Stream was not completed");
+  }
+
+  @Test
+  void shouldRejectSubscriptions_WhenTheMaximumNumberOfStreamsIsOpen() {
+
+    // Given
+    properties.setMaxSubscribers(1);
+    OrderStatusBroadcaster cut = new OrderStatusBroadcaster(properties, meterRegistry);
+    cut.register(new RecordingEmitter(1, false), null, List.of());
+
+    // When / Then
+    assertThrows(
+        TooManySubscribersException.class,
+        () -> cut.register(new RecordingEmitter(1, false), null, List.of()));
+    assertEquals(1.0, meterRegistry.get("order.stream.rejected").counter().count());
+  }
+
+  private OrderStatusEvent getEvent(Long orderId, Long customerId) {
+    return new OrderStatusEvent(
+        orderId, customerId, OrderStatus.ORDER_PLACED, OrderStatus.PROCESSING, LocalDateTime.now());
+  }
+
+  /**
+   * Hands the emitter to Spring MVC as a handler would return it, writing to the response.
+   *
+   * @return the async manager of the request, which has a result once the stream is completed
+   */
+  private WebAsyncManager startStreaming(SseEmitter emitter, MockHttpServletResponse response)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAsyncSupported(true);
+    ServletWebRequest webRequest = new ServletWebRequest(request, response);
+    WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(webRequest);
+    asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+
+    new ResponseBodyEmitterReturnValueHandler(
+            List.of(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter()))
+        .handleReturnValue(
+            emitter,
+            new MethodParameter(getClass().getDeclaredMethod("streamEndpoint"), -1),
+            new ModelAndViewContainer(),
+            webRequest);
+    return asyncManager;
+  }
+
+  private static SseEmitter streamEndpoint() {
+    return null;
+  }
+
+  /** Response whose body writes block, like a client that stopped reading, until released. */
+  private static final class BlockingResponse extends MockHttpServletResponse {
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      ServletOutputStream outputStream = super.getOutputStream();
+      return new ServletOutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+          writing.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+          }
+          outputStream.write(bytes, offset, length);
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {}
+      };
+    }
+  }
+
+  /** Records the events sent to it; the first event can be held back until {@link #release}. */
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final List<OrderStatusEvent> events = new CopyOnWriteArrayList<>();
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch received;
+    private final List<Long> sendLog;
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private RecordingEmitter(int expectedEvents, boolean blockFirstEvent) {
+      this(expectedEvents, blockFirstEvent, new CopyOnWriteArrayList<>());
+    }
+
+    private RecordingEmitter(int expectedEvents, boolean blockFirstEvent, List<Long> sendLog) {
+      this.received = new CountDownLatch(expectedEvents);
+      this.sendLog = sendLog;
+      if (!blockFirstEvent) {
+        release.countDown();
+      }
+    }
+
+    @Override
+    public synchronized void send(SseEventBuilder builder) throws IOException {
+      Set<DataWithMediaType> data = builder.build();
+      for (DataWithMediaType item : data) {
+        if (item.getData() instanceof OrderStatusEvent event) {
+          sending.countDown();
+          await(release);
+          events.add(event);
+          sendLog.add(event.getOrderId());
+          received.countDown();
+        }
+      }
+    }
+
+    @Override
+    public synchronized void complete() {
+      completed.countDown();
+    }
+
+    private boolean awaitEvents() throws InterruptedException {
+      return received.await(5, TimeUnit.SECONDS);
+    }
+
+    private List<Long> orderIds() {
+      return events.stream().map(OrderStatusEvent::getOrderId).toList();
+    }
+
+    private void await(CountDownLatch latch) throws IOException {
+      try {
+        if (events.isEmpty() && !latch.await(5, TimeUnit.SECONDS)) {
+          throw new IOException("Not released");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+    }
+  }
+}
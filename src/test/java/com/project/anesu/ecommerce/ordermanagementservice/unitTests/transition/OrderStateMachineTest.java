@@ -0,0 +1,144 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.transition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.OrderStatus;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderStateMachine;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionGuard;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionHook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStateMachineTest {
+
+  @Mock private OrderTransitionGuard guardMock;
+  @Mock private OrderTransitionHook hookMock;
+  @Mock private UnaryOperator<Order> saveMock;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderStateMachine cut;
+
+  @BeforeEach
+  void setUp() {
+    when(guardMock.appliesTo(any(), any()))
+        .thenAnswer(invocation -> invocation.getArgument(1) == OrderStatus.CANCELLED);
+    when(hookMock.appliesTo(any(), any()))
+        .thenAnswer(invocation -> invocation.getArgument(1) == OrderStatus.CANCELLED);
+
+    meterRegistry = new SimpleMeterRegistry();
+    cut = new OrderStateMachine(List.of(guardMock), List.of(hookMock), meterRegistry);
+  }
+
+  @Test
+  void shouldAllowOnlyTheTransitionsOfTheTable() {
+
+    // Then
+    for (OrderStatus from : OrderStatus.values()) {
+      for (OrderStatus to : OrderStatus.values()) {
+        assertEquals(
+            OrderStateMachine.TRANSITIONS.get(from).contains(to), cut.canTransition(from, to));
+      }
+    }
+    assertTrue(cut.canTransition(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.CANCELLED));
+    assertFalse(cut.canTransition(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+    assertFalse(cut.canTransition(OrderStatus.ORDER_PLACED, OrderStatus.DELIVERED));
+    assertTrue(cut.canTransitionInBulk(OrderStatus.PROCESSING, OrderStatus.OUT_FOR_DELIVERY));
+    assertFalse(cut.canTransitionInBulk(OrderStatus.PROCESSING, OrderStatus.CANCELLED));
+  }
+
+  @Test
+  void shouldCheckGuardsSaveAndRunHooks_AndCountTheAppliedTransition() {
+
+    // Given
+    Order order = getOrder(OrderStatus.PROCESSING);
+    when(saveMock.apply(order)).thenReturn(order);
+
+    // When
+    Order cancelledOrder = cut.apply(order, OrderStatus.CANCELLED, saveMock);
+
+    // Then
+    assertEquals(OrderStatus.CANCELLED, cancelledOrder.getOrderStatus());
+    verify(guardMock, times(1)).check(order, OrderStatus.CANCELLED);
+    verify(hookMock, times(1)).afterTransition(order, OrderStatus.PROCESSING);
+    assertEquals(1.0, transitions("PROCESSING", "CANCELLED", "applied"));
+    assertEquals(
+        1,
+        meterRegistry
+            .get("order.transition.duration")
+            .tag("from", "PROCESSING")
+            .tag("to", "CANCELLED")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void shouldRejectTransitionOutsideTheTable_WithoutSavingTheOrder() {
+
+    // Given
+    Order order = getOrder(OrderStatus.DELIVERED);
+
+    // When
+    OrderConflictException exception =
+        assertThrows(
+            OrderConflictException.class, () -> cut.apply(order, OrderStatus.CANCELLED, saveMock));
+
+    // Then
+    assertEquals("Order 3 is DELIVERED and cannot be moved to CANCELLED.", exception.getMessage());
+    assertEquals(OrderStatus.DELIVERED, order.getOrderStatus());
+    verifyNoInteractions(saveMock);
+    verify(guardMock, never()).check(any(), any());
+    assertEquals(1.0, transitions("DELIVERED", "CANCELLED", "rejected"));
+  }
+
+  @Test
+  void shouldRejectTransition_WhenAGuardVetoesIt() {
+
+    // Given
+    Order order = getOrder(OrderStatus.ORDER_PLACED);
+    doThrow(new OrderConflictException("Already packed."))
+        .when(guardMock)
+        .check(order, OrderStatus.CANCELLED);
+
+    // When
+    assertThrows(
+        OrderConflictException.class, () -> cut.apply(order, OrderStatus.CANCELLED, saveMock));
+
+    // Then
+    assertEquals(OrderStatus.ORDER_PLACED, order.getOrderStatus());
+    verifyNoInteractions(saveMock);
+    verify(hookMock, never()).afterTransition(any(), eq(OrderStatus.ORDER_PLACED));
+    assertEquals(1.0, transitions("ORDER_PLACED", "CANCELLED", "rejected"));
+  }
+
+  private double transitions(String from, String to, String outcome) {
+    return meterRegistry
+        .get("order.transitions")
+        .tag("from", from)
+        .tag("to", to)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  private Order getOrder(OrderStatus orderStatus) {
+    Order order = new Order();
+    order.setId(3L);
+    order.setOrderStatus(orderStatus);
+    return order;
+  }
+}
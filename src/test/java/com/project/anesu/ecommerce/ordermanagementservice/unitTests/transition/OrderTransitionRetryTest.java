@@ -0,0 +1,97 @@
+package com.project.anesu.ecommerce.ordermanagementservice.unitTests.transition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+import com.project.anesu.ecommerce.ordermanagementservice.entity.order.Order;
+import com.project.anesu.ecommerce.ordermanagementservice.service.exception.OrderConflictException;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionProperties;
+import com.project.anesu.ecommerce.ordermanagementservice.service.transition.OrderTransitionRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTransitionRetryTest {
+
+  @Mock private PlatformTransactionManager transactionManagerMock;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderTransitionRetry cut;
+
+  @BeforeEach
+  void setUp() {
+    OrderTransitionProperties properties = new OrderTransitionProperties();
+    properties.setMaxAttempts(3);
+    properties.setBackoff(Duration.ofMillis(1));
+
+    meterRegistry = new SimpleMeterRegistry();
+    cut = new OrderTransitionRetry(transactionManagerMock, properties, meterRegistry);
+  }
+
+  @Test
+  void shouldRunTransitionAgainInANewTransaction_WhenItLostAgainstAConcurrentChange() {
+
+    // Given
+    AtomicInteger attempts = new AtomicInteger();
+
+    // When
+    String result =
+        cut.execute(
+            1L,
+            () -> {
+              if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Order.class, 1L);
+              }
+              return "moved";
+            });
+
+    // Then
+    assertEquals("moved", result);
+    verify(transactionManagerMock, times(3)).getTransaction(any());
+    verify(transactionManagerMock, times(2)).rollback(any());
+    assertEquals(2.0, conflicts("retried"));
+    assertEquals(0.0, conflicts("exhausted"));
+  }
+
+  @Test
+  void shouldFailWithConflict_WhenEveryAttemptLost() {
+
+    // Given
+    AtomicInteger attempts = new AtomicInteger();
+
+    // When
+    OrderConflictException exception =
+        assertThrows(
+            OrderConflictException.class,
+            () ->
+                cut.execute(
+                    7L,
+                    () -> {
+                      attempts.incrementAndGet();
+                      throw new ObjectOptimisticLockingFailureException(Order.class, 7L);
+                    }));
+
+    // Then
+    assertEquals("Order 7 was changed concurrently, please retry.", exception.getMessage());
+    assertEquals(3, attempts.get());
+    assertEquals(2.0, conflicts("retried"));
+    assertEquals(1.0, conflicts("exhausted"));
+  }
+
+  private double conflicts(String outcome) {
+    return meterRegistry
+        .get("order.transition.conflicts")
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+}
@@ -103,4 +103,15 @@ class OrderValidatorTest {
     // Then
     assertEquals("Order item cannot be null.", exception.getMessage());
   }
+
+  @Test
+  void shouldThrowException_WhenOrderBatchIsEmpty() {
+
+    // When
+    InvalidOrderException exception =
+        assertThrows(InvalidOrderException.class, () -> cut.validateNewOrderBatch(List.of()));
+
+    // Then
+    assertEquals("Batch must contain at least one order.", exception.getMessage());
+  }
 }